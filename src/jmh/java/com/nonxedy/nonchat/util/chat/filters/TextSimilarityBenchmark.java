@@ -0,0 +1,77 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the old full-matrix similarity check with isSimilar at the default
+ * spam threshold, on chat pairs as the spam filter sees them: a new message against
+ * one the player sent shortly before
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextSimilarityBenchmark {
+
+    private static final double THRESHOLD = 0.85;
+
+    // Exact repeats never get here, the spam filter catches them first
+    private static final String[][] SAME_IGNORING_CASE = {
+        {"Anyone want to trade diamonds?", "anyone want to trade diamonds?"},
+        {"JOIN MY TOWN", "join my town "},
+        {"GG", "gg"},
+    };
+    private static final String[][] NEAR_DUPLICATE = {
+        {"anyone want to trade diamonds?", "anyone want to trade diamonds??"},
+        {"selling iron 64 for 10 diamonds", "selling iron 64 for 12 diamonds"},
+        {"check out my shop at spawn", "check out my shop at spawn!!!"},
+    };
+    private static final String[][] UNRELATED = {
+        {"anyone want to trade diamonds?", "brb getting food"},
+        {"how do I claim land here", "lol that creeper got you"},
+        {"where is the nether portal", "does anyone have spare wood? need it for my house"},
+    };
+
+    @Param({"sameIgnoringCase", "nearDuplicate", "unrelated"})
+    public String pairs;
+
+    private String[][] selected;
+
+    @Setup
+    public void setUp() {
+        selected = switch (pairs) {
+            case "sameIgnoringCase" -> SAME_IGNORING_CASE;
+            case "nearDuplicate" -> NEAR_DUPLICATE;
+            default -> UNRELATED;
+        };
+    }
+
+    @Benchmark
+    public void oldCalculateSimilarity(Blackhole blackhole) {
+        for (String[] pair : selected) {
+            blackhole.consume(OldTextSimilarityUtil.calculateSimilarity(pair[0], pair[1]) >= THRESHOLD);
+        }
+    }
+
+    @Benchmark
+    public void isSimilar(Blackhole blackhole) {
+        for (String[] pair : selected) {
+            blackhole.consume(TextSimilarityUtil.isSimilar(pair[0], pair[1], THRESHOLD));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.nonxedy.nonchat.util.core.colors;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the old four-regex chain with the single-pass stripper.
+ * Plain chat without any code is the common case and takes the fast path
+ * that returns the message itself.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ColorStripBenchmark {
+
+    @Param({"plain", "legacy", "mixed"})
+    public String kind;
+
+    private String message;
+
+    @Setup
+    public void setUp() {
+        message = switch (kind) {
+            case "plain" -> "does anyone have spare wood? need it for my house near spawn";
+            case "legacy" -> "&aselling &l64 iron&r for &#FFAA0010 diamonds &7(§cDM me§7)";
+            default -> "<gradient:#ff0000:#0000ff>big sale</gradient> &eat <bold>spawn</bold> &#12ab9Ftoday";
+        };
+    }
+
+    @Benchmark
+    public String oldStripAllColors() {
+        return OldColorUtil.stripAllColors(message);
+    }
+
+    @Benchmark
+    public String stripAllColors() {
+        return ColorUtil.stripAllColors(message);
+    }
+
+    @Benchmark
+    public boolean oldHasColorCodes() {
+        return OldColorUtil.hasColorCodes(message);
+    }
+
+    @Benchmark
+    public boolean hasColorCodes() {
+        return ColorUtil.hasColorCodes(message);
+    }
+}
@@ -0,0 +1,76 @@
+package com.nonxedy.nonchat.util.core.colors;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Compares the tokenizer with the code it replaced: parseColor followed by the
+ * legacy serializer for legacy text, and prepareMixedFormatMessage for text mixing
+ * legacy codes with MiniMessage tags. The MiniMessage parse that follows the
+ * mixed conversion is the same on both sides and left out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ColorTokenizerBenchmark {
+
+    @Param({"plain", "format", "colorful"})
+    public String kind;
+
+    private String legacy;
+    private String mixed;
+
+    @Setup
+    public void setUp() {
+        switch (kind) {
+            case "plain" -> {
+                legacy = "does anyone have spare wood? need it for my house near spawn";
+                mixed = "<hover:show_text:'Click to reply'>does anyone have spare wood?</hover>";
+            }
+            case "format" -> {
+                legacy = "&8[&aGlobal&8] &7Steve&8: &fdoes anyone have spare wood?";
+                mixed = "<gray>[<green>Global</green>]</gray> &7Steve&8: &fdoes anyone have spare wood?";
+            }
+            default -> {
+                legacy = "&c&lSALE &#FFAA00iron &x&1&2&3&4&5&6x64 §efor &l&n10 diamonds&r &7at &b/warp shop";
+                mixed = "<gradient:#ff0000:#0000ff>SALE</gradient> &#FFAA00iron &ex64 <bold>for</bold> &l&n10 &7at &b/warp";
+            }
+        }
+    }
+
+    @Benchmark
+    public Component oldParseLegacy() {
+        return OldColorUtil.parseLegacy(legacy);
+    }
+
+    @Benchmark
+    public Component parseLegacy() {
+        return ColorTokenizer.parseLegacy(legacy);
+    }
+
+    @Benchmark
+    public String oldPrepareMixedFormatMessage() {
+        return OldColorUtil.prepareMixedFormatMessage(mixed);
+    }
+
+    @Benchmark
+    public String toMiniMessage() {
+        return ColorTokenizer.toMiniMessage(mixed);
+    }
+}
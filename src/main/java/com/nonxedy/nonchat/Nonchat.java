@@ -15,6 +15,7 @@ import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import com.nonxedy.nonchat.api.ChannelAPI;
+import com.nonxedy.nonchat.chat.channel.ChannelAudienceIndex;
 import com.nonxedy.nonchat.command.impl.IgnoreCommand;
 import com.nonxedy.nonchat.command.impl.SpyCommand;
 import com.nonxedy.nonchat.config.DeathConfig;
@@ -30,7 +31,9 @@ import com.nonxedy.nonchat.listener.DamageTrackingListener;
 import com.nonxedy.nonchat.listener.DeathCoordinates;
 import com.nonxedy.nonchat.listener.DeathListener;
 import com.nonxedy.nonchat.listener.DiscordSRVListener;
+import com.nonxedy.nonchat.listener.HoverCardListener;
 import com.nonxedy.nonchat.listener.JoinQuitListener;
+import com.nonxedy.nonchat.listener.PlaceholderCacheListener;
 import com.nonxedy.nonchat.listener.PlayerCleanupListener;
 import com.nonxedy.nonchat.placeholders.NonchatExpansion;
 import com.nonxedy.nonchat.service.ChatService;
@@ -39,10 +42,12 @@ import com.nonxedy.nonchat.service.ConfigService;
 import com.nonxedy.nonchat.service.DeathMessageService;
 import com.nonxedy.nonchat.util.InteractivePlaceholderManager;
 import com.nonxedy.nonchat.util.chat.filters.LinkDetector;
+import com.nonxedy.nonchat.util.chat.formatting.HoverCardCache;
 import com.nonxedy.nonchat.util.chat.packets.DisplayEntityUtil;
 import com.nonxedy.nonchat.util.core.debugging.Debugger;
 import com.nonxedy.nonchat.util.core.updates.UpdateChecker;
 import com.nonxedy.nonchat.util.integration.external.IntegrationUtil;
+import com.nonxedy.nonchat.util.integration.external.LuckPermsHook;
 import com.nonxedy.nonchat.util.integration.metrics.Metrics;
 
 import lombok.extern.slf4j.Slf4j;
@@ -69,6 +74,7 @@ public class Nonchat extends JavaPlugin {
     private IndirectDeathTracker indirectDeathTracker;
     private DamageTrackingListener damageTrackingListener;
     private PlayerCleanupListener playerCleanupListener;
+    private LuckPermsHook luckPermsHook;
     private final Map<Player, List<TextDisplay>> bubbles = new HashMap<>();
 
     @Override
@@ -215,6 +221,26 @@ public class Nonchat extends JavaPlugin {
             ChatListener chatListener = ChatListenerFactory.createChatListener(this, chatManager, chatService);
             getServer().getPluginManager().registerEvents(chatListener, this);
 
+            // Track player positions for radius channels
+            getServer().getPluginManager().registerEvents(chatManager.getPlayerGridIndex(), this);
+
+            // Keep channel audiences in sync with joins, quits and permission changes
+            ChannelAudienceIndex audienceIndex = chatManager.getChannelManager().getAudienceIndex();
+            getServer().getPluginManager().registerEvents(audienceIndex, this);
+            audienceIndex.start(configService.getConfig().getAudienceResyncSeconds());
+
+            // Drop cached placeholder values when they are likely to change
+            getServer().getPluginManager().registerEvents(new PlaceholderCacheListener(), this);
+
+            // Build hover cards off the chat path and keep them up to date
+            getServer().getPluginManager().registerEvents(new HoverCardListener(), this);
+            HoverCardCache.start(this, configService.getConfig().getHoverRefreshSeconds());
+            HoverCardCache.refreshAll();
+
+            // One LuckPerms subscription refreshes audiences, placeholders and hover cards
+            luckPermsHook = new LuckPermsHook(this, audienceIndex);
+            luckPermsHook.subscribe();
+
             // Register death-related listeners
             if (deathMessageService != null && deathConfig != null) {
                 Bukkit.getPluginManager().registerEvents(new DeathListener(configService.getConfig(), deathMessageService), this);
@@ -246,7 +272,7 @@ public class Nonchat extends JavaPlugin {
             }
 
             // Register join/quit listener
-            Bukkit.getPluginManager().registerEvents(new JoinQuitListener(configService.getConfig(), chatManager.getChannelManager()), this);
+            Bukkit.getPluginManager().registerEvents(new JoinQuitListener(configService.getConfig(), chatManager), this);
 
             // Log successful listener registration
             if (debugger != null) {
@@ -331,6 +357,10 @@ public class Nonchat extends JavaPlugin {
     @Override
     public void onDisable() {
         try {
+            if (luckPermsHook != null) {
+                luckPermsHook.unsubscribe();
+            }
+
             // Clean up all chat bubbles and display entities
             if (chatManager != null) {
                 chatManager.cleanup();
@@ -364,6 +394,11 @@ public class Nonchat extends JavaPlugin {
             // Clean up ChannelAPI registrations
             ChannelAPI.cleanupAll();
 
+            // Stop localizing nonchat messages
+            if (configService != null) {
+                configService.getMessages().unregisterTranslator();
+            }
+
             // Cancel all remaining Bukkit tasks for this plugin
             Bukkit.getScheduler().cancelTasks(this);
 
@@ -436,6 +471,7 @@ public class Nonchat extends JavaPlugin {
 
             if (chatManager != null) {
                 chatManager.reloadChannels();
+                chatManager.reloadProcessingSettings();
             }
 
             // Reload interactive placeholders
@@ -15,6 +15,7 @@ import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
 import com.nonxedy.nonchat.Nonchat;
+import com.nonxedy.nonchat.chat.channel.ChannelAudienceIndex;
 
 /**
  * API for interacting with the nonchat plugin's channel system.
@@ -146,6 +147,13 @@ public class ChannelAPI {
             return Collections.emptyList();
         }
         
+        // Use the precomputed audience when the channel is indexed
+        ChannelAudienceIndex.ChannelAudience audience = plugin.getChatManager().getChannelManager()
+            .getAudienceIndex().getAudience(channelId);
+        if (audience != null) {
+            return new ArrayList<>(audience.getPlayersWithAccess());
+        }
+
         return Bukkit.getOnlinePlayers().stream()
             .filter(player -> channel.canSend(player) || channel.canReceive(player))
             .collect(Collectors.toList());
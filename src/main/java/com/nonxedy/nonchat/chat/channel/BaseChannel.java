@@ -1,6 +1,5 @@
 package com.nonxedy.nonchat.chat.channel;
 
-import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -18,7 +17,6 @@ import com.nonxedy.nonchat.util.items.detection.ItemDetector;
 import com.nonxedy.nonchat.util.items.display.ItemDisplayUtil;
 import com.nonxedy.nonchat.util.special.ping.PingDetector;
 
-import me.clip.placeholderapi.PlaceholderAPI;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.format.NamedTextColor;
@@ -27,6 +25,8 @@ import net.kyori.adventure.text.format.NamedTextColor;
  * Base implementation of the Channel interface with common functionality.
  */
 public class BaseChannel implements Channel {
+    private static final Pattern INTERACTIVE_PLACEHOLDER = Pattern.compile("(?i)\\[(item|ping)\\]");
+
     private final String id;
     private final String displayName;
     private final String format;
@@ -39,6 +39,7 @@ public class BaseChannel implements Channel {
     private final int minLength;
     private final int maxLength;
     private final HoverTextUtil hoverTextUtil;
+    private final ChannelFormatTemplate template;
     private boolean enabled;
 
     /**
@@ -62,6 +63,7 @@ public class BaseChannel implements Channel {
         this.id = id;
         this.displayName = displayName;
         this.format = format;
+        this.template = ChannelFormatTemplate.compile(format);
         
         // Initialize prefix with empty string if null
         String validatedPrefix = prefix != null ? prefix : "";
@@ -200,80 +202,22 @@ public class BaseChannel implements Channel {
             return false;
         }
         
-        // Check distance
-        return sender.getLocation().distance(recipient.getLocation()) <= radius;
+        // Check distance, squared to avoid the square root
+        return sender.getLocation().distanceSquared(recipient.getLocation()) <= (double) radius * radius;
     }
 
     @Override
     public Component formatMessage(Player player, String message) {
-        String baseFormat = getFormat();
-
-        // Apply PlaceholderAPI to the entire format first
-        if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
-            try {
-                baseFormat = PlaceholderAPI.setPlaceholders(player, baseFormat);
-            } catch (Exception e) {
-                Bukkit.getLogger().log(Level.WARNING, "Error processing format placeholders: {0}", e.getMessage());
-            }
-        }
-
-        // Check if the format contains MiniMessage gradients that might span across {message}
-        if (containsSpanningGradient(baseFormat)) {
+        // Gradients spanning {message} need the whole format parsed at once
+        if (template.hasSpanningGradient()) {
+            String baseFormat = ChannelFormatTemplate.resolvePlaceholders(player, template.getFormat());
             return formatMessageWithSpanningGradient(player, message, baseFormat);
         }
 
-        // Split format into parts around {message} for traditional processing
-        String[] formatParts = baseFormat.split("\\{message\\}");
-        String beforeMessage = formatParts[0];
-        String afterMessage = formatParts.length > 1 ? formatParts[1] : "";
-
-        // Extract color from the end of beforeMessage to apply to the message
-        String inheritedColor = extractTrailingColor(beforeMessage);
-
-        // Parse format parts with colors and add hover functionality only to the player name
-        Component beforeMessageComponent = parseBeforeMessageWithHover(beforeMessage, player);
-        Component afterMessageComponent = ColorUtil.parseConfigComponent(afterMessage);
-
-        // Add hover functionality to the format parts (only to player name in beforeMessage)
-        afterMessageComponent = hoverTextUtil.addHoverToComponent(afterMessageComponent, player);
-
-        Component finalMessage = beforeMessageComponent
-            .append(processMessageContent(player, message, inheritedColor))
-            .append(afterMessageComponent);
-
-        return finalMessage;
+        return template.render(player, hoverTextUtil,
+            inheritedColor -> processMessageContent(player, message, inheritedColor));
     }
 
-    /**
-     * Checks if the format contains a MiniMessage gradient that spans across {message}
-     * @param format The format string to check
-     * @return true if contains spanning gradient, false otherwise
-     */
-    private boolean containsSpanningGradient(String format) {
-        if (format == null || format.isEmpty()) {
-            return false;
-        }
-        
-        // Look for gradient tags that might span across {message}
-        Pattern gradientPattern = Pattern.compile("<gradient:[^>]+>");
-        Matcher matcher = gradientPattern.matcher(format);
-        
-        while (matcher.find()) {
-            int gradientStart = matcher.start();
-            int messageIndex = format.indexOf("{message}");
-            
-            if (messageIndex > gradientStart) {
-                // Check if there's a closing gradient tag after {message}
-                String afterMessage = format.substring(messageIndex + 9); // 9 = length of "{message}"
-                if (afterMessage.contains("</gradient>")) {
-                    return true;
-                }
-            }
-        }
-        
-        return false;
-    }
-    
     /**
      * Formats a message when the format contains a spanning gradient
      * @param player The player sending the message
@@ -294,49 +238,7 @@ public class BaseChannel implements Channel {
         String fullFormat = format.replace("{message}", processedMessage);
 
         // Parse the full format with hover only on player name
-        return parseFullFormatWithHover(fullFormat, player);
-    }
-
-    /**
-     * Extracts the trailing color code from a format string
-     * @param formatPart The format string to extract color from
-     * @return The color code to inherit, or empty string if none found
-     */
-    private String extractTrailingColor(String formatPart) {
-        if (formatPart == null || formatPart.isEmpty()) {
-            return "";
-        }
-        
-        // Look for color codes at the end of the format
-        // Check for hex colors first (§#RRGGBB or &#RRGGBB)
-        Pattern hexPattern = Pattern.compile(".*(§#[A-Fa-f0-9]{6}|&#[A-Fa-f0-9]{6})(?:[^§&]*?)$");
-        Matcher hexMatcher = hexPattern.matcher(formatPart);
-        if (hexMatcher.find()) {
-            return hexMatcher.group(1);
-        }
-        
-        // Check for legacy colors (§[0-9a-fklmnor] or &[0-9a-fklmnor])
-        Pattern legacyPattern = Pattern.compile(".*(§[0-9a-fklmnor]|&[0-9a-fklmnor])(?:[^§&]*?)$");
-        Matcher legacyMatcher = legacyPattern.matcher(formatPart);
-        if (legacyMatcher.find()) {
-            return legacyMatcher.group(1);
-        }
-        
-        // Check for MiniMessage color tags at the end
-        Pattern miniPattern = Pattern.compile(".*(<#[A-Fa-f0-9]{6}>|<(?:black|dark_blue|dark_green|dark_aqua|dark_red|dark_purple|gold|gray|dark_gray|blue|green|aqua|red|light_purple|yellow|white)>)(?:[^<]*?)$");
-        Matcher miniMatcher = miniPattern.matcher(formatPart);
-        if (miniMatcher.find()) {
-            return miniMatcher.group(1);
-        }
-        
-        // Check for MiniMessage gradient tags that might affect the message
-        Pattern gradientPattern = Pattern.compile(".*(<gradient:[^>]+>)(?:[^<]*?)$");
-        Matcher gradientMatcher = gradientPattern.matcher(formatPart);
-        if (gradientMatcher.find()) {
-            return gradientMatcher.group(1);
-        }
-        
-        return "";
+        return ChannelFormatTemplate.parseWithHoverOnName(fullFormat, player, hoverTextUtil);
     }
 
     private Component processMessageContent(Player player, String message, String inheritedColor) {
@@ -537,9 +439,8 @@ public class BaseChannel implements Channel {
         TextComponent.Builder builder = Component.text();
 
         // Split by [item] and [ping] and process each part
-        String[] parts = processedMessage.split("(?i)\\[(item|ping)\\]");
-        Pattern pattern = Pattern.compile("(?i)\\[(item|ping)\\]");
-        Matcher matcher = pattern.matcher(processedMessage);
+        String[] parts = INTERACTIVE_PLACEHOLDER.split(processedMessage);
+        Matcher matcher = INTERACTIVE_PLACEHOLDER.matcher(processedMessage);
 
         int partIndex = 0;
 
@@ -584,84 +485,4 @@ public class BaseChannel implements Channel {
 
         return builder.build();
     }
-    
-    /**
-     * Parses the beforeMessage part and adds hover only to the player name
-     * @param beforeMessage The part of the format before {message}
-     * @param player The player to get hover information for
-     * @return Component with hover only on the player name
-     */
-    private Component parseBeforeMessageWithHover(String beforeMessage, Player player) {
-        String playerName = player.getName();
-        int nameIndex = beforeMessage.indexOf(playerName);
-
-        if (nameIndex == -1) {
-            // If player name not found, add hover to the entire beforeMessage
-            return hoverTextUtil.addHoverToComponent(ColorUtil.parseConfigComponent(beforeMessage), player);
-        }
-
-        String beforeName = beforeMessage.substring(0, nameIndex);
-        String afterName = beforeMessage.substring(nameIndex + playerName.length());
-
-        // Extract trailing color from beforeName to apply to the player name
-        String trailingColor = extractTrailingColor(beforeName);
-
-        Component nameComponent;
-        if (!trailingColor.isEmpty()) {
-            // Remove the trailing color from beforeName if it's at the end
-            if (beforeName.endsWith(trailingColor)) {
-                beforeName = beforeName.substring(0, beforeName.length() - trailingColor.length());
-            }
-            // Create name component with the trailing color applied
-            Component coloredNameComponent = ColorUtil.parseConfigComponent(trailingColor + playerName);
-            nameComponent = hoverTextUtil.addHoverToComponent(coloredNameComponent, player);
-        } else {
-            nameComponent = hoverTextUtil.createHoverableText(playerName, player);
-        }
-
-        Component beforeComponent = ColorUtil.parseConfigComponent(beforeName);
-        Component afterComponent = ColorUtil.parseConfigComponent(afterName);
-
-        return beforeComponent.append(nameComponent).append(afterComponent);
-    }
-
-    /**
-     * Parses the full format and adds hover only to the player name
-     * @param fullFormat The full format string
-     * @param player The player to get hover information for
-     * @return Component with hover only on the player name
-     */
-    private Component parseFullFormatWithHover(String fullFormat, Player player) {
-        String playerName = player.getName();
-        int nameIndex = fullFormat.indexOf(playerName);
-
-        if (nameIndex == -1) {
-            // If player name not found, add hover to the entire format
-            return hoverTextUtil.addHoverToComponent(ColorUtil.parseConfigComponent(fullFormat), player);
-        }
-
-        String beforeName = fullFormat.substring(0, nameIndex);
-        String afterName = fullFormat.substring(nameIndex + playerName.length());
-
-        // Extract trailing color from beforeName to apply to the player name
-        String trailingColor = extractTrailingColor(beforeName);
-
-        Component nameComponent;
-        if (!trailingColor.isEmpty()) {
-            // Remove the trailing color from beforeName if it's at the end
-            if (beforeName.endsWith(trailingColor)) {
-                beforeName = beforeName.substring(0, beforeName.length() - trailingColor.length());
-            }
-            // Create name component with the trailing color applied
-            Component coloredNameComponent = ColorUtil.parseConfigComponent(trailingColor + playerName);
-            nameComponent = hoverTextUtil.addHoverToComponent(coloredNameComponent, player);
-        } else {
-            nameComponent = hoverTextUtil.createHoverableText(playerName, player);
-        }
-
-        Component beforeComponent = ColorUtil.parseConfigComponent(beforeName);
-        Component afterComponent = ColorUtil.parseConfigComponent(afterName);
-
-        return beforeComponent.append(nameComponent).append(afterComponent);
-    }
 }
@@ -0,0 +1,264 @@
+package com.nonxedy.nonchat.chat.channel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.nonxedy.nonchat.api.Channel;
+
+/**
+ * Precomputed audience of every channel.
+ * Permission checks happen on the main thread when players join, when their
+ * permissions are recalculated by LuckPerms and when channels change, instead of
+ * once per recipient for every message. Audiences are published as an immutable
+ * snapshot that chat threads read without locking.
+ */
+public class ChannelAudienceIndex implements Listener {
+
+    /**
+     * Players allowed to see or use a channel when the snapshot was taken
+     */
+    public static final class ChannelAudience {
+        private final List<Player> receivers;
+        private final Set<UUID> receiverIds;
+        private final List<Player> playersWithAccess;
+
+        private ChannelAudience(List<Player> receivers, Set<UUID> receiverIds, List<Player> playersWithAccess) {
+            this.receivers = receivers;
+            this.receiverIds = receiverIds;
+            this.playersWithAccess = playersWithAccess;
+        }
+
+        /**
+         * Gets players allowed to receive messages from the channel
+         * @return Unmodifiable list of receivers
+         */
+        public List<Player> getReceivers() {
+            return receivers;
+        }
+
+        /**
+         * Checks if a player is allowed to receive messages from the channel
+         * @param player The player to check
+         * @return true if the player is a receiver
+         */
+        public boolean isReceiver(Player player) {
+            return receiverIds.contains(player.getUniqueId());
+        }
+
+        /**
+         * Gets players allowed to send or receive messages in the channel
+         * @return Unmodifiable list of players
+         */
+        public List<Player> getPlayersWithAccess() {
+            return playersWithAccess;
+        }
+    }
+
+    private final Plugin plugin;
+    private final Supplier<Collection<Channel>> channels;
+    // Only touched while holding the monitor
+    private final Map<UUID, Player> players = new HashMap<>();
+    private final Map<UUID, Set<String>> receiveAccess = new HashMap<>();
+    private final Map<UUID, Set<String>> sendAccess = new HashMap<>();
+    private final Set<UUID> pendingRefresh = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private volatile Map<String, ChannelAudience> snapshot = Collections.emptyMap();
+    private BukkitTask resyncTask;
+
+    /**
+     * Creates the index
+     * @param plugin Plugin used to schedule main thread work
+     * @param channels Supplies the channels currently loaded
+     */
+    public ChannelAudienceIndex(Plugin plugin, Supplier<Collection<Channel>> channels) {
+        this.plugin = plugin;
+        this.channels = channels;
+    }
+
+    /**
+     * Builds the index and starts the periodic resync
+     * @param resyncSeconds Interval of the full resync that catches permission changes
+     *                      made without LuckPerms, 0 or less to disable
+     */
+    public void start(int resyncSeconds) {
+        rebuild();
+        setResyncInterval(resyncSeconds);
+    }
+
+    /**
+     * Changes the interval of the periodic full resync
+     * @param resyncSeconds Interval in seconds, 0 or less to disable
+     */
+    public void setResyncInterval(int resyncSeconds) {
+        if (resyncTask != null) {
+            resyncTask.cancel();
+            resyncTask = null;
+        }
+        if (resyncSeconds > 0) {
+            long period = resyncSeconds * 20L;
+            resyncTask = Bukkit.getScheduler().runTaskTimer(plugin, this::rebuild, period, period);
+        }
+    }
+
+    /**
+     * Stops the periodic resync and clears the index
+     */
+    public synchronized void stop() {
+        if (resyncTask != null) {
+            resyncTask.cancel();
+            resyncTask = null;
+        }
+        players.clear();
+        receiveAccess.clear();
+        sendAccess.clear();
+        snapshot = Collections.emptyMap();
+    }
+
+    /**
+     * Gets the precomputed audience of a channel
+     * @param channelId The channel ID
+     * @return The audience, or null if the channel is not indexed yet
+     */
+    public ChannelAudience getAudience(String channelId) {
+        return snapshot.get(channelId);
+    }
+
+    /**
+     * Recomputes the audience of all channels for all online players.
+     * Runs on the main thread, calls from other threads are rescheduled.
+     */
+    public void rebuild() {
+        if (!Bukkit.isPrimaryThread()) {
+            Bukkit.getScheduler().runTask(plugin, this::rebuild);
+            return;
+        }
+
+        synchronized (this) {
+            players.clear();
+            receiveAccess.clear();
+            sendAccess.clear();
+            Collection<Channel> current = channels.get();
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                computeAccess(player, current);
+            }
+            publish(current);
+        }
+    }
+
+    /**
+     * Recomputes channel access for a single player on the main thread
+     * @param playerId UUID of the player
+     */
+    public void refreshPlayer(UUID playerId) {
+        pendingRefresh.add(playerId);
+        // Coalesce bursts of recalculations into one refresh per tick
+        if (refreshScheduled.compareAndSet(false, true)) {
+            Bukkit.getScheduler().runTask(plugin, this::flushPendingRefresh);
+        }
+    }
+
+    private void flushPendingRefresh() {
+        refreshScheduled.set(false);
+        synchronized (this) {
+            Collection<Channel> current = channels.get();
+            boolean changed = false;
+            for (UUID playerId : new ArrayList<>(pendingRefresh)) {
+                pendingRefresh.remove(playerId);
+                Player player = Bukkit.getPlayer(playerId);
+                if (player != null && player.isOnline()) {
+                    computeAccess(player, current);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                publish(current);
+            }
+        }
+    }
+
+    private void computeAccess(Player player, Collection<Channel> current) {
+        Set<String> canReceive = new HashSet<>();
+        Set<String> canSend = new HashSet<>();
+        for (Channel channel : current) {
+            if (channel.canReceive(player)) {
+                canReceive.add(channel.getId());
+            }
+            if (channel.canSend(player)) {
+                canSend.add(channel.getId());
+            }
+        }
+        players.put(player.getUniqueId(), player);
+        receiveAccess.put(player.getUniqueId(), canReceive);
+        sendAccess.put(player.getUniqueId(), canSend);
+    }
+
+    private synchronized void removePlayer(UUID playerId) {
+        pendingRefresh.remove(playerId);
+        if (players.remove(playerId) != null) {
+            receiveAccess.remove(playerId);
+            sendAccess.remove(playerId);
+            publish(channels.get());
+        }
+    }
+
+    private void publish(Collection<Channel> current) {
+        Map<String, ChannelAudience> audiences = new HashMap<>(current.size());
+        for (Channel channel : current) {
+            String channelId = channel.getId();
+            List<Player> receivers = new ArrayList<>();
+            Set<UUID> receiverIds = new HashSet<>();
+            List<Player> withAccess = new ArrayList<>();
+
+            for (Player player : players.values()) {
+                UUID playerId = player.getUniqueId();
+                boolean receives = receiveAccess.get(playerId).contains(channelId);
+                if (receives) {
+                    receivers.add(player);
+                    receiverIds.add(playerId);
+                }
+                if (receives || sendAccess.get(playerId).contains(channelId)) {
+                    withAccess.add(player);
+                }
+            }
+
+            audiences.put(channelId, new ChannelAudience(List.copyOf(receivers), Set.copyOf(receiverIds),
+                    List.copyOf(withAccess)));
+        }
+        snapshot = Collections.unmodifiableMap(audiences);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        synchronized (this) {
+            Collection<Channel> current = channels.get();
+            computeAccess(player, current);
+            publish(current);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        removePlayer(event.getPlayer().getUniqueId());
+    }
+}
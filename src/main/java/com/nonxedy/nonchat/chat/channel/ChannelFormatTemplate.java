@@ -0,0 +1,422 @@
+package com.nonxedy.nonchat.chat.channel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.bukkit.entity.Player;
+
+import com.nonxedy.nonchat.util.chat.formatting.HoverTextUtil;
+import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+import com.nonxedy.nonchat.util.integration.external.PlaceholderCache;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Channel format compiled once when the channel is created.
+ * Static text is parsed into components ahead of time and the dynamic parts are
+ * kept as typed slots (player name, PlaceholderAPI placeholder, message body), so
+ * formatting a message only resolves and parses what actually changes.
+ *
+ * Color codes carry over between pieces the same way they would in the full format
+ * string: a slot inherits the color and decorations active before it, and the message
+ * inherits the style active before {message}.
+ */
+final class ChannelFormatTemplate {
+
+    private static final Pattern MESSAGE_SPLIT = Pattern.compile("\\{message\\}");
+    private static final Pattern PLACEHOLDER = Pattern.compile("%([^%\\s]+)%");
+    private static final Pattern MINI_MESSAGE_TAG = Pattern.compile("<[a-zA-Z#/!][^>]*>");
+    private static final Pattern GRADIENT_TAG = Pattern.compile("<gradient:[^>]+>");
+    private static final Pattern TRAILING_HEX = Pattern.compile(".*(§#[A-Fa-f0-9]{6}|&#[A-Fa-f0-9]{6})(?:[^§&]*?)$");
+    private static final Pattern TRAILING_LEGACY = Pattern.compile(".*(§[0-9a-fklmnor]|&[0-9a-fklmnor])(?:[^§&]*?)$");
+    private static final Pattern TRAILING_MINI = Pattern.compile(".*(<#[A-Fa-f0-9]{6}>|<(?:black|dark_blue|dark_green|dark_aqua|dark_red|dark_purple|gold|gray|dark_gray|blue|green|aqua|red|light_purple|yellow|white)>)(?:[^<]*?)$");
+    private static final Pattern TRAILING_GRADIENT = Pattern.compile(".*(<gradient:[^>]+>)(?:[^<]*?)$");
+
+    private static final String PLAYER_NAME_PLACEHOLDER = "%player_name%";
+
+    private enum SlotType {
+        TEXT,
+        PLAYER_NAME,
+        PLACEHOLDER
+    }
+
+    /**
+     * A static piece of text or a dynamic slot
+     */
+    private static final class Segment {
+        final SlotType type;
+        final String source;
+        // TEXT only
+        final boolean inheritsStyle;
+        final String compiledStyle;
+        final Component compiled;
+        final String trailingStyle;
+        // Last rendering in a style other than the compiled one, placeholders before the
+        // text usually leave the same style message after message
+        private volatile Restyled restyled;
+
+        Segment(SlotType type, String source, boolean inheritsStyle, String compiledStyle, Component compiled,
+                String trailingStyle) {
+            this.type = type;
+            this.source = source;
+            this.inheritsStyle = inheritsStyle;
+            this.compiledStyle = compiledStyle;
+            this.compiled = compiled;
+            this.trailingStyle = trailingStyle;
+        }
+
+        /**
+         * Gets the text rendered in the style it inherits
+         * @param style Style active before the text
+         * @return Restyled text
+         */
+        Restyled restyle(String style) {
+            Restyled last = restyled;
+            if (last == null || !last.style.equals(style)) {
+                last = new Restyled(style, ColorUtil.parseConfigComponent(style + source),
+                        ColorUtil.getTrailingStyle(style, source));
+                restyled = last;
+            }
+            return last;
+        }
+    }
+
+    /**
+     * Static text rendered in an inherited style
+     */
+    private static final class Restyled {
+        final String style;
+        final Component component;
+        final String trailingStyle;
+
+        Restyled(String style, Component component, String trailingStyle) {
+            this.style = style;
+            this.component = component;
+            this.trailingStyle = trailingStyle;
+        }
+    }
+
+    /**
+     * One side of the format around {message}
+     */
+    private static final class Part {
+        final String source;
+        // Null when the part has to be resolved and parsed as a whole
+        final List<Segment> segments;
+        final boolean hasPlayerName;
+        final boolean isStatic;
+
+        Part(String source, List<Segment> segments, boolean hasPlayerName, boolean isStatic) {
+            this.source = source;
+            this.segments = segments;
+            this.hasPlayerName = hasPlayerName;
+            this.isStatic = isStatic;
+        }
+    }
+
+    private final String format;
+    private final boolean spanningGradient;
+    private final Part before;
+    private final Part after;
+
+    private ChannelFormatTemplate(String format, boolean spanningGradient, Part before, Part after) {
+        this.format = format;
+        this.spanningGradient = spanningGradient;
+        this.before = before;
+        this.after = after;
+    }
+
+    /**
+     * Compiles a channel format
+     * @param format The raw format from the channel config
+     * @return Compiled template
+     */
+    static ChannelFormatTemplate compile(String format) {
+        String source = format != null ? format : "";
+        if (containsSpanningGradient(source)) {
+            return new ChannelFormatTemplate(source, true, null, null);
+        }
+
+        String[] formatParts = MESSAGE_SPLIT.split(source);
+        String beforeMessage = formatParts.length > 0 ? formatParts[0] : "";
+        String afterMessage = formatParts.length > 1 ? formatParts[1] : "";
+        return new ChannelFormatTemplate(source, false, compilePart(beforeMessage), compilePart(afterMessage));
+    }
+
+    private static Part compilePart(String source) {
+        boolean hasPlaceholders = PLACEHOLDER.matcher(source).find();
+        boolean hasMiniMessage = MINI_MESSAGE_TAG.matcher(source).find();
+        if (!hasPlaceholders) {
+            // Legacy styles are read code by code, MiniMessage only hands on its last color tag
+            String trailingStyle = hasMiniMessage ? extractTrailingColor(source) : ColorUtil.getTrailingStyle("", source);
+            Segment text = new Segment(SlotType.TEXT, source, false, "", ColorUtil.parseConfigComponent(source),
+                    trailingStyle);
+            return new Part(source, Collections.singletonList(text), false, true);
+        }
+
+        // MiniMessage tags may wrap a placeholder, splitting them apart would break the tag
+        if (hasMiniMessage) {
+            return new Part(source, null, false, false);
+        }
+
+        List<Segment> segments = new ArrayList<>();
+        boolean hasPlayerName = false;
+        String style = "";
+        Matcher matcher = PLACEHOLDER.matcher(source);
+        int last = 0;
+        while (matcher.find()) {
+            if (matcher.start() > last) {
+                Segment text = compileText(source.substring(last, matcher.start()), style);
+                segments.add(text);
+                style = text.trailingStyle;
+            }
+
+            String placeholder = matcher.group();
+            if (placeholder.equalsIgnoreCase(PLAYER_NAME_PLACEHOLDER)) {
+                segments.add(new Segment(SlotType.PLAYER_NAME, placeholder, false, "", null, ""));
+                hasPlayerName = true;
+            } else {
+                segments.add(new Segment(SlotType.PLACEHOLDER, placeholder, false, "", null, ""));
+            }
+            last = matcher.end();
+        }
+        if (last < source.length()) {
+            segments.add(compileText(source.substring(last), style));
+        }
+
+        return new Part(source, segments, hasPlayerName, false);
+    }
+
+    private static Segment compileText(String text, String inheritedStyle) {
+        // Text opening with its own color looks the same whatever comes before it
+        boolean inheritsStyle = !ColorUtil.startsWithColor(text);
+        String compiledStyle = inheritsStyle ? inheritedStyle : "";
+        Component compiled = ColorUtil.parseConfigComponent(compiledStyle + text);
+        return new Segment(SlotType.TEXT, text, inheritsStyle, compiledStyle, compiled,
+                ColorUtil.getTrailingStyle(compiledStyle, text));
+    }
+
+    /**
+     * Renders the format for a message
+     * @param player The player sending the message
+     * @param hoverTextUtil Hover text builder for the player name
+     * @param messageRenderer Renders the message body given the style it inherits
+     * @return Formatted message
+     */
+    Component render(Player player, HoverTextUtil hoverTextUtil, Function<String, Component> messageRenderer) {
+        return render(player.getName(), text -> resolvePlaceholders(player, text),
+            component -> hoverTextUtil.addHoverToComponent(component, player), messageRenderer);
+    }
+
+    /**
+     * Renders the format for a message
+     * @param playerName Name of the player sending the message
+     * @param placeholders Resolves placeholders in format text
+     * @param hover Adds the sender's hover to a component
+     * @param messageRenderer Renders the message body given the style it inherits
+     * @return Formatted message
+     */
+    Component render(String playerName, UnaryOperator<String> placeholders, UnaryOperator<Component> hover,
+            Function<String, Component> messageRenderer) {
+        RenderedPart renderedBefore = renderPart(before, playerName, placeholders, hover, true);
+        RenderedPart renderedAfter = renderPart(after, playerName, placeholders, hover, false);
+
+        return renderedBefore.component
+            .append(messageRenderer.apply(renderedBefore.trailingStyle))
+            .append(renderedAfter.component);
+    }
+
+    private static final class RenderedPart {
+        final Component component;
+        final String trailingStyle;
+
+        RenderedPart(Component component, String trailingStyle) {
+            this.component = component;
+            this.trailingStyle = trailingStyle;
+        }
+    }
+
+    private RenderedPart renderPart(Part part, String playerName, UnaryOperator<String> placeholders,
+            UnaryOperator<Component> hover, boolean beforeMessage) {
+        if (part.segments == null) {
+            return renderWholePart(part, playerName, placeholders, hover, beforeMessage);
+        }
+        if (part.isStatic) {
+            // Nothing to fill, only the hover depends on the player
+            Segment text = part.segments.get(0);
+            return new RenderedPart(hover.apply(text.compiled), text.trailingStyle);
+        }
+
+        Component component = Component.empty();
+        String style = "";
+        for (Segment segment : part.segments) {
+            switch (segment.type) {
+                case TEXT -> {
+                    if (!segment.inheritsStyle || segment.compiledStyle.equals(style)) {
+                        component = component.append(segment.compiled);
+                        style = segment.trailingStyle;
+                    } else {
+                        // A placeholder changed the style this text inherits
+                        Restyled restyled = segment.restyle(style);
+                        component = component.append(restyled.component);
+                        style = restyled.trailingStyle;
+                    }
+                }
+                case PLAYER_NAME -> {
+                    Component name = style.isEmpty()
+                        ? Component.text(playerName)
+                        : ColorUtil.parseConfigComponent(style + playerName);
+                    component = component.append(hover.apply(name));
+                }
+                case PLACEHOLDER -> {
+                    String value = placeholders.apply(segment.source);
+                    component = component.append(ColorUtil.parseConfigComponent(style + value));
+                    style = ColorUtil.getTrailingStyle(style, value);
+                }
+            }
+        }
+
+        // Without a name slot the whole part carries the hover, as does everything after the message
+        if (!beforeMessage || !part.hasPlayerName) {
+            component = hover.apply(component);
+        }
+        return new RenderedPart(component, style);
+    }
+
+    private RenderedPart renderWholePart(Part part, String playerName, UnaryOperator<String> placeholders,
+            UnaryOperator<Component> hover, boolean beforeMessage) {
+        String resolved = placeholders.apply(part.source);
+        if (!beforeMessage) {
+            return new RenderedPart(hover.apply(ColorUtil.parseConfigComponent(resolved)), "");
+        }
+        return new RenderedPart(parseWithHoverOnName(resolved, playerName, hover), extractTrailingColor(resolved));
+    }
+
+    /**
+     * Parses format text, adding the hover only to the player name if it is present
+     * @param text The format text with placeholders resolved
+     * @param player The player sending the message
+     * @param hoverTextUtil Hover text builder
+     * @return Parsed component
+     */
+    static Component parseWithHoverOnName(String text, Player player, HoverTextUtil hoverTextUtil) {
+        return parseWithHoverOnName(text, player.getName(), component -> hoverTextUtil.addHoverToComponent(component, player));
+    }
+
+    private static Component parseWithHoverOnName(String text, String playerName, UnaryOperator<Component> hover) {
+        int nameIndex = text.indexOf(playerName);
+
+        if (nameIndex == -1) {
+            // If player name not found, add hover to the entire text
+            return hover.apply(ColorUtil.parseConfigComponent(text));
+        }
+
+        String beforeName = text.substring(0, nameIndex);
+        String afterName = text.substring(nameIndex + playerName.length());
+
+        // Extract trailing color from beforeName to apply to the player name
+        String trailingColor = extractTrailingColor(beforeName);
+
+        Component nameComponent;
+        if (!trailingColor.isEmpty()) {
+            // Remove the trailing color from beforeName if it's at the end
+            if (beforeName.endsWith(trailingColor)) {
+                beforeName = beforeName.substring(0, beforeName.length() - trailingColor.length());
+            }
+            // Create name component with the trailing color applied
+            nameComponent = hover.apply(ColorUtil.parseConfigComponent(trailingColor + playerName));
+        } else {
+            nameComponent = hover.apply(Component.text(playerName));
+        }
+
+        Component beforeComponent = ColorUtil.parseConfigComponent(beforeName);
+        Component afterComponent = ColorUtil.parseConfigComponent(afterName);
+
+        return beforeComponent.append(nameComponent).append(afterComponent);
+    }
+
+    /**
+     * Resolves PlaceholderAPI placeholders in format text
+     * @param player The player to resolve placeholders for
+     * @param text Text containing placeholders
+     * @return Text with placeholders replaced
+     */
+    static String resolvePlaceholders(Player player, String text) {
+        return PlaceholderCache.setPlaceholders(player, text);
+    }
+
+    /**
+     * Checks if the format contains a MiniMessage gradient that spans across {message}
+     * @param format The format string to check
+     * @return true if contains spanning gradient, false otherwise
+     */
+    private static boolean containsSpanningGradient(String format) {
+        if (format.isEmpty()) {
+            return false;
+        }
+
+        int messageIndex = format.indexOf("{message}");
+        if (messageIndex < 0) {
+            return false;
+        }
+
+        Matcher matcher = GRADIENT_TAG.matcher(format);
+        // Check if a gradient opens before {message} and closes after it
+        return matcher.find() && matcher.start() < messageIndex
+            && format.indexOf("</gradient>", messageIndex + "{message}".length()) >= 0;
+    }
+
+    /**
+     * Extracts the trailing color code from a format string
+     * @param formatPart The format string to extract color from
+     * @return The color code to inherit, or empty string if none found
+     */
+    static String extractTrailingColor(String formatPart) {
+        if (formatPart == null || formatPart.isEmpty()) {
+            return "";
+        }
+
+        // Check for hex colors first (§#RRGGBB or &#RRGGBB)
+        Matcher hexMatcher = TRAILING_HEX.matcher(formatPart);
+        if (hexMatcher.find()) {
+            return hexMatcher.group(1);
+        }
+
+        // Check for legacy colors (§[0-9a-fklmnor] or &[0-9a-fklmnor])
+        Matcher legacyMatcher = TRAILING_LEGACY.matcher(formatPart);
+        if (legacyMatcher.find()) {
+            return legacyMatcher.group(1);
+        }
+
+        // Check for MiniMessage color tags at the end
+        Matcher miniMatcher = TRAILING_MINI.matcher(formatPart);
+        if (miniMatcher.find()) {
+            return miniMatcher.group(1);
+        }
+
+        // Check for MiniMessage gradient tags that might affect the message
+        Matcher gradientMatcher = TRAILING_GRADIENT.matcher(formatPart);
+        if (gradientMatcher.find()) {
+            return gradientMatcher.group(1);
+        }
+
+        return "";
+    }
+
+    /**
+     * Checks if the format has a gradient spanning {message} and must be parsed as a whole
+     * @return true if the format is rendered as a single string
+     */
+    boolean hasSpanningGradient() {
+        return spanningGradient;
+    }
+
+    String getFormat() {
+        return format;
+    }
+}
@@ -17,7 +17,9 @@ import com.nonxedy.nonchat.Nonchat;
 import com.nonxedy.nonchat.api.Channel;
 import com.nonxedy.nonchat.api.ChannelAPI;
 import com.nonxedy.nonchat.config.PluginConfig;
+import com.nonxedy.nonchat.core.RateLimiter;
 import com.nonxedy.nonchat.util.AsyncConfigSaver;
+import com.nonxedy.nonchat.util.chat.formatting.HoverCardCache;
 import com.nonxedy.nonchat.util.chat.formatting.HoverTextUtil;
 
 /**
@@ -26,14 +28,20 @@ import com.nonxedy.nonchat.util.chat.formatting.HoverTextUtil;
 public class ChannelManager {
     private final Map<String, Channel> channels = new ConcurrentHashMap<>();
     private final Map<Player, Channel> playerChannels = new ConcurrentHashMap<>();
-    private final Map<Player, Long> lastMessageTimes = new ConcurrentHashMap<>();
+    // Messages a player may send at once before the cooldown applies, per channel id
+    private final Map<String, Integer> cooldownBursts = new ConcurrentHashMap<>();
+    private final RateLimiter rateLimiter;
     private String defaultChannelId;
     private final PluginConfig config;
     private final AsyncConfigSaver asyncConfigSaver;
+    private final ChannelAudienceIndex audienceIndex;
+    private volatile ChannelPrefixTrie prefixTrie = ChannelPrefixTrie.EMPTY;
 
-    public ChannelManager(Nonchat plugin, PluginConfig config) {
+    public ChannelManager(Nonchat plugin, PluginConfig config, RateLimiter rateLimiter) {
         this.config = config;
+        this.rateLimiter = rateLimiter;
         this.asyncConfigSaver = new AsyncConfigSaver(plugin, config);
+        this.audienceIndex = new ChannelAudienceIndex(plugin, channels::values);
         loadChannels();
     }
 
@@ -41,8 +49,22 @@ public class ChannelManager {
      * Loads all channels from configuration.
      */
     public void loadChannels() {
+        loadChannelsFromConfig();
+        channelsChanged();
+    }
+
+    /**
+     * Rebuilds everything derived from the set of channels.
+     */
+    private void channelsChanged() {
+        prefixTrie = ChannelPrefixTrie.build(channels.values());
+        audienceIndex.rebuild();
+    }
+
+    private void loadChannelsFromConfig() {
         // Clear existing channels
         channels.clear();
+        cooldownBursts.clear();
         
         // Get the channels section from config
         ConfigurationSection channelsSection = config.getConfigurationSection("channels");
@@ -56,6 +78,8 @@ public class ChannelManager {
         this.defaultChannelId = config.getString("default-channel", "global");
         
         HoverTextUtil hoverTextUtil = config.getHoverTextUtil();
+        HoverCardCache.setRenderer(hoverTextUtil);
+        HoverCardCache.refreshAll();
         
         // Load each channel
         for (String channelId : channelsSection.getKeys(false)) {
@@ -109,6 +133,7 @@ public class ChannelManager {
             }
             
             int cooldown = channelSection.getInt("cooldown", 0);
+            cooldownBursts.put(channelId, Math.max(1, channelSection.getInt("cooldown-burst", 1)));
             int minLength = channelSection.getInt("min-length", 0);
             int maxLength = channelSection.getInt("max-length", 256);
 
@@ -136,6 +161,8 @@ public class ChannelManager {
      */
     private void createDefaultChannels() {
         HoverTextUtil hoverTextUtil = config.getHoverTextUtil();
+        HoverCardCache.setRenderer(hoverTextUtil);
+        HoverCardCache.refreshAll();
         
         // Create global channel
         Channel globalChannel = new BaseChannel(
@@ -245,6 +272,7 @@ public class ChannelManager {
         
         // Add to channels map
         channels.put(channelId, channel);
+        channelsChanged();
         
         // Save to config asynchronously
         saveChannelToConfig(channelId, channel);
@@ -318,6 +346,7 @@ public class ChannelManager {
         
         // Replace in channels map
         channels.put(channelId, updatedChannel);
+        channelsChanged();
         
         // Save to config asynchronously
         saveChannelToConfig(channelId, updatedChannel);
@@ -347,6 +376,7 @@ public class ChannelManager {
 
         // Remove from channels map
         channels.remove(channelId);
+        channelsChanged();
 
         // Remove from config asynchronously
         config.set("channels." + channelId, null);
@@ -500,15 +530,23 @@ public class ChannelManager {
             return getDefaultChannel();
         }
         
-        // Find all channels whose prefix matches the start of the message
-        // Sort by prefix length (longest first) to prioritize longer prefixes
-        return channels.values().stream()
-            .filter(Channel::isEnabled)
-            .filter(Channel::hasPrefix)
-            .filter(channel -> message.startsWith(channel.getPrefix()))
-            .sorted((c1, c2) -> Integer.compare(c2.getPrefix().length(), c1.getPrefix().length()))
-            .findFirst()
-            .orElse(getDefaultChannel());
+        Channel channel = prefixTrie.match(message);
+        return channel != null ? channel : getDefaultChannel();
+    }
+
+    /**
+     * Finds the channel a message is routed to by its prefix.
+     * If multiple channels have prefixes that match the message start,
+     * the channel with the longest matching prefix is selected.
+     * @param message The message to check
+     * @return The channel whose prefix the message starts with, or null if none matches
+     */
+    @Nullable
+    public Channel findChannelForMessage(String message) {
+        if (message == null || message.isEmpty()) {
+            return null;
+        }
+        return prefixTrie.match(message);
     }
     
     /**
@@ -521,11 +559,7 @@ public class ChannelManager {
             return Optional.empty();
         }
         
-        return channels.values().stream()
-            .filter(Channel::isEnabled)
-            .filter(Channel::hasPrefix)
-            .filter(channel -> channel.getPrefix().equals(prefix))
-            .findFirst();
+        return Optional.ofNullable(prefixTrie.get(prefix));
     }
     
     /**
@@ -563,24 +597,32 @@ public class ChannelManager {
         playerChannels.remove(player);
     }
     
+    /**
+     * Gets the precomputed channel audiences.
+     * @return The channel audience index
+     */
+    public ChannelAudienceIndex getAudienceIndex() {
+        return audienceIndex;
+    }
+
     /**
      * Cleans up player data when they disconnect.
      * @param player The player who disconnected
      */
     public void cleanupPlayer(Player player) {
         playerChannels.remove(player);
-        lastMessageTimes.remove(player);
     }
     
     /**
      * Records when a player sends a message for cooldown tracking.
      * @param player The player
+     * @param channel The channel the message was sent to
      */
-    public void recordMessageSent(Player player) {
-        // Clean up old entries to prevent memory leaks
-        lastMessageTimes.entrySet().removeIf(entry -> !entry.getKey().isOnline());
-        
-        lastMessageTimes.put(player, System.currentTimeMillis());
+    public void recordMessageSent(Player player, Channel channel) {
+        if (channel.getCooldown() <= 0 || player.hasPermission("nonchat.bypass.cooldown")) {
+            return;
+        }
+        rateLimiter.tryAcquire(player.getUniqueId(), cooldownKey(channel), getCooldownBurst(channel), channel.getCooldown() * 1000L);
     }
     
     /**
@@ -590,19 +632,7 @@ public class ChannelManager {
      * @return true if player can send a message, false if on cooldown
      */
     public boolean canSendMessage(Player player, Channel channel) {
-        if (channel.getCooldown() <= 0 || player.hasPermission("nonchat.bypass.cooldown")) {
-            return true;
-        }
-        
-        Long lastMessageTime = lastMessageTimes.get(player);
-        if (lastMessageTime == null) {
-            return true;
-        }
-        
-        long cooldownMillis = channel.getCooldown() * 1000L;
-        long timeSinceLastMessage = System.currentTimeMillis() - lastMessageTime;
-        
-        return timeSinceLastMessage >= cooldownMillis;
+        return getRemainingCooldownMillis(player, channel) == 0;
     }
     
     /**
@@ -612,25 +642,29 @@ public class ChannelManager {
      * @return Remaining cooldown in seconds, 0 if no cooldown
      */
     public int getRemainingCooldown(Player player, Channel channel) {
-        if (channel.getCooldown() <= 0 || player.hasPermission("nonchat.bypass.cooldown")) {
-            return 0;
-        }
-        
-        Long lastMessageTime = lastMessageTimes.get(player);
-        if (lastMessageTime == null) {
-            return 0;
-        }
-        
-        long cooldownMillis = channel.getCooldown() * 1000L;
-        long timeSinceLastMessage = System.currentTimeMillis() - lastMessageTime;
-        
-        if (timeSinceLastMessage >= cooldownMillis) {
+        long remainingMillis = getRemainingCooldownMillis(player, channel);
+        if (remainingMillis == 0) {
             return 0;
         }
         
         // Calculate remaining seconds and add 1 to avoid "wait 0 seconds" message
         // This ensures we show at least 1 second when there's still some cooldown remaining
-        int remainingSeconds = (int) ((cooldownMillis - timeSinceLastMessage) / 1000);
+        int remainingSeconds = (int) (remainingMillis / 1000);
         return remainingSeconds > 0 ? remainingSeconds : 1;
     }
+    
+    private long getRemainingCooldownMillis(Player player, Channel channel) {
+        if (channel.getCooldown() <= 0 || player.hasPermission("nonchat.bypass.cooldown")) {
+            return 0;
+        }
+        return rateLimiter.getWaitMillis(player.getUniqueId(), cooldownKey(channel), getCooldownBurst(channel), channel.getCooldown() * 1000L);
+    }
+    
+    private int getCooldownBurst(Channel channel) {
+        return cooldownBursts.getOrDefault(channel.getId(), 1);
+    }
+    
+    private static String cooldownKey(Channel channel) {
+        return "channel:" + channel.getId();
+    }
 }
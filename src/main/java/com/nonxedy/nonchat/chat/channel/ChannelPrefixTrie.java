@@ -0,0 +1,102 @@
+package com.nonxedy.nonchat.chat.channel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.nonxedy.nonchat.api.Channel;
+
+/**
+ * Immutable trie of channel trigger prefixes.
+ * Routing a message walks the trie over its first characters and keeps the deepest
+ * enabled channel seen, which is the longest matching prefix. The trie is built
+ * whenever channels change and replaced as a whole, so lookups need no locking.
+ */
+final class ChannelPrefixTrie {
+
+    static final ChannelPrefixTrie EMPTY = new ChannelPrefixTrie(new Node());
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>();
+        // Channels sharing this exact prefix, in load order
+        final List<Channel> channels = new ArrayList<>(1);
+    }
+
+    private final Node root;
+
+    private ChannelPrefixTrie(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Builds a trie of all channels with a prefix
+     * @param channels Channels to index
+     * @return The trie
+     */
+    static ChannelPrefixTrie build(Collection<Channel> channels) {
+        Node root = new Node();
+        for (Channel channel : channels) {
+            if (!channel.hasPrefix()) {
+                continue;
+            }
+            Node node = root;
+            String prefix = channel.getPrefix();
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Node());
+            }
+            node.channels.add(channel);
+        }
+        return new ChannelPrefixTrie(root);
+    }
+
+    /**
+     * Finds the enabled channel with the longest prefix the message starts with
+     * @param message The message to route
+     * @return The matching channel, or null if no prefix matches
+     */
+    @Nullable
+    Channel match(String message) {
+        Channel best = null;
+        Node node = root;
+        for (int i = 0; i < message.length(); i++) {
+            node = node.children.get(message.charAt(i));
+            if (node == null) {
+                break;
+            }
+            // Channels can be disabled without changing the trie
+            Channel enabled = firstEnabled(node);
+            if (enabled != null) {
+                best = enabled;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the enabled channel with exactly this prefix
+     * @param prefix The prefix to look up
+     * @return The channel, or null if none uses the prefix
+     */
+    @Nullable
+    Channel get(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return node != null ? firstEnabled(node) : null;
+    }
+
+    @Nullable
+    private static Channel firstEnabled(Node node) {
+        for (Channel channel : node.channels) {
+            if (channel.isEnabled()) {
+                return channel;
+            }
+        }
+        return null;
+    }
+}
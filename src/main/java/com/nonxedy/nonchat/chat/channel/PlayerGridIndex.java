@@ -0,0 +1,257 @@
+package com.nonxedy.nonchat.chat.channel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Per-world grid of player positions used by radius channels.
+ * Positions are tracked on the main thread from movement events and published
+ * as an immutable snapshot at most once per tick, so chat threads can look up
+ * nearby players without touching the Player API. Cells are chunk sized.
+ */
+public class PlayerGridIndex implements Listener {
+
+    private static final int CELL_SHIFT = 4;
+    // Full resync catches movement that fires no events, such as riding vehicles
+    private static final long RESYNC_PERIOD_TICKS = 20L;
+
+    /**
+     * Position of a player when the snapshot was taken
+     */
+    private static final class Position {
+        final Player player;
+        final UUID worldId;
+        final double x;
+        final double y;
+        final double z;
+
+        Position(Player player, Location location) {
+            this.player = player;
+            this.worldId = location.getWorld().getUID();
+            this.x = location.getX();
+            this.y = location.getY();
+            this.z = location.getZ();
+        }
+
+        boolean sameBlock(Location location) {
+            return worldId.equals(location.getWorld().getUID())
+                    && (int) Math.floor(x) == location.getBlockX()
+                    && (int) Math.floor(y) == location.getBlockY()
+                    && (int) Math.floor(z) == location.getBlockZ();
+        }
+    }
+
+    /**
+     * Immutable view of all positions, grouped by world and cell
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), Collections.emptyMap());
+
+        final Map<UUID, Position> byPlayer;
+        final Map<UUID, Map<Long, Position[]>> cellsByWorld;
+
+        Snapshot(Map<UUID, Position> byPlayer, Map<UUID, Map<Long, Position[]>> cellsByWorld) {
+            this.byPlayer = byPlayer;
+            this.cellsByWorld = cellsByWorld;
+        }
+    }
+
+    private final Plugin plugin;
+    // Only touched on the main thread
+    private final Map<UUID, Position> positions = new HashMap<>();
+    private boolean dirty;
+    private long ticks;
+    private BukkitTask publishTask;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public PlayerGridIndex(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Indexes online players and starts publishing snapshots
+     */
+    public void start() {
+        resync();
+        publish();
+        publishTask = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * Stops publishing snapshots and clears the index
+     */
+    public void stop() {
+        if (publishTask != null) {
+            publishTask.cancel();
+            publishTask = null;
+        }
+        positions.clear();
+        snapshot = Snapshot.EMPTY;
+    }
+
+    /**
+     * Finds players within a radius of another player.
+     * Only cells overlapping the radius are visited and distances are compared squared.
+     * Safe to call from any thread.
+     * @param center The player at the center
+     * @param radius Radius in blocks
+     * @return Players in range including the center player, or null if the center is not indexed
+     */
+    public List<Player> getPlayersInRange(Player center, double radius) {
+        Snapshot current = snapshot;
+        Position origin = current.byPlayer.get(center.getUniqueId());
+        if (origin == null) {
+            return null;
+        }
+
+        Map<Long, Position[]> cells = current.cellsByWorld.get(origin.worldId);
+        if (cells == null) {
+            return null;
+        }
+
+        double radiusSquared = radius * radius;
+        int minCellX = (int) Math.floor(origin.x - radius) >> CELL_SHIFT;
+        int maxCellX = (int) Math.floor(origin.x + radius) >> CELL_SHIFT;
+        int minCellZ = (int) Math.floor(origin.z - radius) >> CELL_SHIFT;
+        int maxCellZ = (int) Math.floor(origin.z + radius) >> CELL_SHIFT;
+        long cellsInRange = (long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1);
+
+        List<Player> result = new ArrayList<>();
+        if (cellsInRange >= cells.size()) {
+            // Radius covers more cells than are occupied, walk the occupied ones instead
+            for (Position[] cell : cells.values()) {
+                collectInRange(cell, origin, radiusSquared, result);
+            }
+            return result;
+        }
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                Position[] cell = cells.get(cellKey(cellX, cellZ));
+                if (cell != null) {
+                    collectInRange(cell, origin, radiusSquared, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void collectInRange(Position[] cell, Position origin, double radiusSquared, List<Player> result) {
+        for (Position position : cell) {
+            double dx = position.x - origin.x;
+            double dy = position.y - origin.y;
+            double dz = position.z - origin.z;
+            if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+                result.add(position.player);
+            }
+        }
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    private void tick() {
+        if (++ticks % RESYNC_PERIOD_TICKS == 0) {
+            resync();
+        }
+        if (dirty) {
+            publish();
+        }
+    }
+
+    private void resync() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            Location location = player.getLocation();
+            Position known = positions.get(player.getUniqueId());
+            if (known == null || !known.sameBlock(location)) {
+                update(player, location);
+            }
+        }
+    }
+
+    private void update(Player player, Location location) {
+        if (location == null || location.getWorld() == null) {
+            return;
+        }
+        positions.put(player.getUniqueId(), new Position(player, location));
+        dirty = true;
+    }
+
+    private void publish() {
+        Map<UUID, Position> byPlayer = new HashMap<>(positions);
+        Map<UUID, Map<Long, List<Position>>> grouped = new HashMap<>();
+        for (Position position : byPlayer.values()) {
+            long key = cellKey((int) Math.floor(position.x) >> CELL_SHIFT, (int) Math.floor(position.z) >> CELL_SHIFT);
+            grouped.computeIfAbsent(position.worldId, id -> new HashMap<>())
+                    .computeIfAbsent(key, k -> new ArrayList<>())
+                    .add(position);
+        }
+
+        Map<UUID, Map<Long, Position[]>> cellsByWorld = new HashMap<>(grouped.size());
+        grouped.forEach((worldId, cells) -> {
+            Map<Long, Position[]> frozen = new HashMap<>(cells.size());
+            cells.forEach((key, cell) -> frozen.put(key, cell.toArray(new Position[0])));
+            cellsByWorld.put(worldId, frozen);
+        });
+
+        snapshot = new Snapshot(byPlayer, cellsByWorld);
+        dirty = false;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        update(event.getPlayer(), event.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        if (positions.remove(event.getPlayer().getUniqueId()) != null) {
+            dirty = true;
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        Location to = event.getTo();
+        Position known = positions.get(event.getPlayer().getUniqueId());
+        // Most move events only turn the head or stay within the same block
+        if (to != null && (known == null || !known.sameBlock(to))) {
+            update(event.getPlayer(), to);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        update(event.getPlayer(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        update(event.getPlayer(), event.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        update(event.getPlayer(), event.getRespawnLocation());
+    }
+}
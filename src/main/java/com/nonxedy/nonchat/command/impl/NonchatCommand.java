@@ -3,6 +3,7 @@ package com.nonxedy.nonchat.command.impl;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -10,16 +11,23 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.jetbrains.annotations.NotNull;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.nonxedy.nonchat.Nonchat;
 import com.nonxedy.nonchat.config.PluginMessages;
+import com.nonxedy.nonchat.core.ChatExecutor;
+import com.nonxedy.nonchat.core.ChatManager;
+import com.nonxedy.nonchat.util.chat.filters.FilterVerdictCache;
 import com.nonxedy.nonchat.util.chat.filters.LinkDetector;
 import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+import com.nonxedy.nonchat.util.integration.external.PlaceholderCache;
 
+import net.kyori.adventure.identity.Identity;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.translation.GlobalTranslator;
 
 /**
  * Main nonchat command handler
- * Provides subcommands for reload, help, and version functionality
+ * Provides subcommands for reload, help, version and stats functionality
  */
 public class NonchatCommand implements CommandExecutor, TabCompleter {
 
@@ -63,6 +71,9 @@ public class NonchatCommand implements CommandExecutor, TabCompleter {
             case "version" -> {
                 return handleVersionCommand(sender);
             }
+            case "stats" -> {
+                return handleStatsCommand(sender);
+            }
             default -> {
                 sendHelpMessage(sender);
                 return true;
@@ -76,7 +87,7 @@ public class NonchatCommand implements CommandExecutor, TabCompleter {
     private boolean handleReloadCommand(CommandSender sender) {
         // Check if sender has permission
         if (!sender.hasPermission("nonchat.reload")) {
-            sender.sendMessage(ColorUtil.parseComponentCached(messages.getString("no-permission")));
+            sender.sendMessage(messages.getFormatted("no-permission"));
             plugin.logError("No permission for /nonchat reload command: " + sender.getName());
             return true;
         }
@@ -84,18 +95,18 @@ public class NonchatCommand implements CommandExecutor, TabCompleter {
         // Perform the full reload
         try {
             // Send reload start message
-            sender.sendMessage(ColorUtil.parseComponentCached(messages.getString("reloading")));
+            sender.sendMessage(messages.getFormatted("reloading"));
             plugin.logResponse("Initiating config reload...");
 
             // Execute reload operations (includes death messages)
             executeReload();
 
             // Send success message
-            sender.sendMessage(ColorUtil.parseComponentCached(messages.getString("reloaded")));
+            sender.sendMessage(messages.getFormatted("reloaded"));
             plugin.logResponse("Configuration reload successful");
         } catch (Exception e) {
             // Handle any errors during reload
-            sender.sendMessage(ColorUtil.parseComponentCached(messages.getString("reload-failed")));
+            sender.sendMessage(messages.getFormatted("reload-failed"));
             plugin.logError("Configuration reload failed: " + e.getMessage());
         }
 
@@ -121,7 +132,7 @@ public class NonchatCommand implements CommandExecutor, TabCompleter {
     private boolean handleHelpCommand(CommandSender sender) {
         // Check if sender has permission
         if (!sender.hasPermission("nonchat.help")) {
-            sender.sendMessage(ColorUtil.parseComponentCached(messages.getString("no-permission")));
+            sender.sendMessage(messages.getFormatted("no-permission"));
             plugin.logError("No permission for /nonchat help command: " + sender.getName());
             return true;
         }
@@ -137,7 +148,7 @@ public class NonchatCommand implements CommandExecutor, TabCompleter {
     private boolean handleVersionCommand(CommandSender sender) {
         // Check if sender has permission
         if (!sender.hasPermission("nonchat.version")) {
-            sender.sendMessage(ColorUtil.parseComponentCached(messages.getString("no-permission")));
+            sender.sendMessage(messages.getFormatted("no-permission"));
             plugin.logError("No permission for /nonchat version command: " + sender.getName());
             return true;
         }
@@ -147,6 +158,22 @@ public class NonchatCommand implements CommandExecutor, TabCompleter {
         return true;
     }
 
+    /**
+     * Handles the stats subcommand
+     */
+    private boolean handleStatsCommand(CommandSender sender) {
+        // Check if sender has permission
+        if (!sender.hasPermission("nonchat.stats")) {
+            sender.sendMessage(messages.getFormatted("no-permission"));
+            plugin.logError("No permission for /nonchat stats command: " + sender.getName());
+            return true;
+        }
+
+        // Send the statistics message
+        sendStatsMessage(sender);
+        return true;
+    }
+
     /**
      * Sends the formatted help message to the sender
      */
@@ -154,7 +181,7 @@ public class NonchatCommand implements CommandExecutor, TabCompleter {
         try {
             // Create and send the help message
             Component helpMessage = Component.empty()
-                .append(ColorUtil.parseComponentCached(messages.getString("help")))
+                .append(messages.getFormatted("help"))
                 .append(Component.newline())
                 .append(getCommandsList());
 
@@ -172,17 +199,78 @@ public class NonchatCommand implements CommandExecutor, TabCompleter {
         try {
             // Get plugin version from plugin.yml
             String version = plugin.getPluginMeta().getVersion();
-            // Replace placeholder in version message
-            String versionMessage = messages.getString("version").replace("{version}", version);
+            // Localize the message for the sender first so its links can be found
+            Component versionMessage = GlobalTranslator.render(messages.getFormatted("version", "version", version),
+                sender.getOrDefault(Identity.LOCALE, Locale.getDefault()));
             // Make links clickable in the version message
-            Component versionComponent = LinkDetector.makeLinksClickable(versionMessage);
-            sender.sendMessage(versionComponent);
+            sender.sendMessage(LinkDetector.makeLinksClickable(versionMessage));
             plugin.logResponse("Version message sent successfully");
         } catch (Exception e) {
             plugin.logError("Failed to send version message: " + e.getMessage());
         }
     }
 
+    /**
+     * Sends runtime statistics to the sender
+     */
+    private void sendStatsMessage(CommandSender sender) {
+        try {
+            sender.sendMessage(messages.getFormatted("stats-header"));
+
+            ChatManager chatManager = plugin.getChatManager();
+            if (chatManager != null) {
+                ChatExecutor executor = chatManager.getChatExecutor();
+                sender.sendMessage(messages.getFormatted("stats-chat-queue",
+                    "queued", executor.getQueuedCount(),
+                    "capacity", executor.getCapacity(),
+                    "active", executor.getActiveCount(),
+                    "workers", executor.getWorkerCount(),
+                    "policy", executor.getPolicy().name().toLowerCase().replace('_', '-')));
+                sender.sendMessage(messages.getFormatted("stats-chat-processed",
+                    "completed", executor.getCompletedCount(),
+                    "rejected", executor.getRejectedCount(),
+                    "dropped", executor.getDroppedCount()));
+                sender.sendMessage(messages.getFormatted("stats-chat-wait",
+                    "average", String.format("%.2f", executor.getAverageWaitMillis()),
+                    "max", String.format("%.2f", executor.getMaxWaitMillis())));
+
+                FilterVerdictCache verdictCache = chatManager.getVerdictCache();
+                CacheStats filterStats = verdictCache.getStats();
+                sender.sendMessage(messages.getFormatted("stats-filter-cache",
+                    "size", verdictCache.getSize(),
+                    "hits", filterStats.hitCount(),
+                    "misses", filterStats.missCount(),
+                    "rate", String.format("%.1f", filterStats.hitRate() * 100)));
+            }
+
+            CacheStats componentStats = ColorUtil.getComponentCacheStats();
+            sender.sendMessage(messages.getFormatted("stats-component-cache",
+                "size", ColorUtil.getComponentCacheSize(),
+                "hits", componentStats.hitCount(),
+                "misses", componentStats.missCount(),
+                "evictions", componentStats.evictionCount(),
+                "rate", String.format("%.1f", componentStats.hitRate() * 100)));
+            CacheStats colorStats = ColorUtil.getColorCacheStats();
+            sender.sendMessage(messages.getFormatted("stats-color-cache",
+                "size", ColorUtil.getColorCacheSize(),
+                "hits", colorStats.hitCount(),
+                "misses", colorStats.missCount(),
+                "evictions", colorStats.evictionCount(),
+                "rate", String.format("%.1f", colorStats.hitRate() * 100)));
+
+            sender.sendMessage(messages.getFormatted("stats-placeholder-cache",
+                "size", PlaceholderCache.getSize(),
+                "hits", PlaceholderCache.getHitCount(),
+                "misses", PlaceholderCache.getMissCount(),
+                "uncached", PlaceholderCache.getUncachedCount(),
+                "rate", String.format("%.1f", PlaceholderCache.getHitRate())));
+
+            plugin.logResponse("Stats message sent successfully");
+        } catch (Exception e) {
+            plugin.logError("Failed to send stats message: " + e.getMessage());
+        }
+    }
+
     /**
      * Builds list of available commands
      */
@@ -190,40 +278,43 @@ public class NonchatCommand implements CommandExecutor, TabCompleter {
         // Create an empty component and append all command descriptions
         return Component.empty()
             // Add reload command description
-            .append(ColorUtil.parseComponentCached(messages.getString("nreload")))
+            .append(messages.getFormatted("nreload"))
             .append(Component.newline())
             // Add help command description
-            .append(ColorUtil.parseComponentCached(messages.getString("help-command")))
+            .append(messages.getFormatted("help-command"))
             .append(Component.newline())
             // Add version command description
-            .append(ColorUtil.parseComponentCached(messages.getString("version-command")))
+            .append(messages.getFormatted("version-command"))
+            .append(Component.newline())
+            // Add stats command description
+            .append(messages.getFormatted("stats-command"))
             .append(Component.newline())
             // Add server command description
-            .append(ColorUtil.parseComponentCached(messages.getString("server-command")))
+            .append(messages.getFormatted("server-command"))
             .append(Component.newline())
             // Add message command description
-            .append(ColorUtil.parseComponentCached(messages.getString("message-command")))
+            .append(messages.getFormatted("message-command"))
             .append(Component.newline())
             // Add broadcast command description
-            .append(ColorUtil.parseComponentCached(messages.getString("broadcast-command")))
+            .append(messages.getFormatted("broadcast-command"))
             .append(Component.newline())
             // Add ignore command description
-            .append(ColorUtil.parseComponentCached(messages.getString("ignore-command")))
+            .append(messages.getFormatted("ignore-command"))
             .append(Component.newline())
             // Add spy command description
-            .append(ColorUtil.parseComponentCached(messages.getString("spy-command")))
+            .append(messages.getFormatted("spy-command"))
             .append(Component.newline())
             // Add me command description
-            .append(ColorUtil.parseComponentCached(messages.getString("me-command")))
+            .append(messages.getFormatted("me-command"))
             .append(Component.newline())
             // Add roll command description
-            .append(ColorUtil.parseComponentCached(messages.getString("roll-command")))
+            .append(messages.getFormatted("roll-command"))
             .append(Component.newline())
             // Add channel command description
-            .append(ColorUtil.parseComponentCached(messages.getString("channel-command")))
+            .append(messages.getFormatted("channel-command"))
             .append(Component.newline())
             // Add reply command description
-            .append(ColorUtil.parseComponentCached(messages.getString("reply-command")));
+            .append(messages.getFormatted("reply-command"));
     }
 
     /**
@@ -250,6 +341,11 @@ public class NonchatCommand implements CommandExecutor, TabCompleter {
                 subCommands.add("version");
             }
 
+            // Add stats subcommand if they have permission
+            if (sender.hasPermission("nonchat.stats")) {
+                subCommands.add("stats");
+            }
+
             return filterStartingWith(args[0], subCommands);
         }
 
@@ -4,6 +4,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -32,7 +33,7 @@ public class SpyCommand implements CommandExecutor, TabCompleter {
     private final PluginMessages messages;
     // Plugin configuration reference
     private final PluginConfig pluginConfig;
-    // Set to store players who are currently spying
+    // Set to store players who are currently spying, read from chat threads
     private final Set<Player> spyPlayers;
 
     // Constructor initializes all necessary dependencies
@@ -41,7 +42,7 @@ public class SpyCommand implements CommandExecutor, TabCompleter {
         this.messages = messages;
         this.pluginConfig = pluginConfig;
         // Initialize empty set for spy players
-        this.spyPlayers = new HashSet<>();
+        this.spyPlayers = ConcurrentHashMap.newKeySet();
     }
 
     /**
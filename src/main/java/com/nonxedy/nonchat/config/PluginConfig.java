@@ -27,6 +27,7 @@ import org.jetbrains.annotations.NotNull;
 
 import com.nonxedy.nonchat.Nonchat;
 import com.nonxedy.nonchat.util.chat.filters.CapsFilter;
+import com.nonxedy.nonchat.util.chat.filters.TextNormalizer;
 import com.nonxedy.nonchat.util.chat.filters.WordBlocker;
 import com.nonxedy.nonchat.util.chat.formatting.ChatTypeUtil;
 import com.nonxedy.nonchat.util.chat.formatting.HoverTextUtil;
@@ -112,6 +113,7 @@ public class PluginConfig {
     private void setDefaultValues() {
         // Language setting
         config.set("language", "en");
+        config.set("per-player-language", false);
         
         // Debug mode setting
         config.set("debug", false);
@@ -125,6 +127,37 @@ public class PluginConfig {
         // Message delivery notifications
         config.set("message-delivery.notify-undelivered", true);
 
+        // Chat processing settings
+        config.set("chat-processing.max-pending-per-player", 5);
+        config.set("chat-processing.worker-threads", 2);
+        config.set("chat-processing.queue-capacity", 500);
+        config.set("chat-processing.overload-policy", "reject");
+        config.set("chat-processing.filter-threads", 2);
+        config.set("chat-processing.audience-resync-seconds", 60);
+        config.set("chat-processing.filters.word-blocker.timeout-ms", 50);
+        config.set("chat-processing.filters.word-blocker.on-failure", "closed");
+        config.set("chat-processing.filters.caps.timeout-ms", 20);
+        config.set("chat-processing.filters.caps.on-failure", "open");
+        config.set("chat-processing.filters.spam.timeout-ms", 50);
+        config.set("chat-processing.filters.spam.on-failure", "open");
+        config.set("chat-processing.filters.advertisement.timeout-ms", 200);
+        config.set("chat-processing.filters.advertisement.on-failure", "open");
+        config.set("chat-processing.filters.channel-api.timeout-ms", 200);
+        config.set("chat-processing.filters.channel-api.on-failure", "open");
+        config.set("chat-processing.filter-cache.enabled", true);
+        config.set("chat-processing.filter-cache.max-entries", 5000);
+        config.set("chat-processing.filter-cache.expire-seconds", 300);
+
+        // Placeholder cache settings
+        config.set("placeholder-cache.enabled", true);
+        config.set("placeholder-cache.default-ttl-ms", 1000);
+        config.set("placeholder-cache.max-entries", 10000);
+        config.set("placeholder-cache.ttl-ms.luckperms", 30000);
+        config.set("placeholder-cache.ttl-ms.vault_eco_balance", 5000);
+        config.set("placeholder-cache.ttl-ms.statistic_time_played", 60000);
+        config.set("placeholder-cache.ttl-ms.player_ping", 1000);
+        config.set("placeholder-cache.never-cache", Arrays.asList("server_time", "player_health"));
+
         // Join/Quit messages settings
         config.set("join-messages.enabled", true);
         config.set("join-messages.format", "§8(§a+§8) %luckperms_prefix% §f%player_name%§r %luckperms_suffix%");
@@ -147,6 +180,14 @@ public class PluginConfig {
             "§7Click to reply"
         ));
         config.set("spy-format", "§f{sender} §7-> §f{target}§7: §7{message}");
+
+        // Viewer overlay settings
+        config.set("viewer-overlays.mention-highlight.enabled", false);
+        config.set("viewer-overlays.mention-highlight.color", "&#FFD700");
+        config.set("viewer-overlays.staff.enabled", false);
+        config.set("viewer-overlays.staff.format", "&8[{channel}] ");
+        config.set("viewer-overlays.spy.enabled", false);
+        config.set("viewer-overlays.spy.format", "&8[Spy] ");
         
         // Chat bubbles configuration
         config.set("chat-bubbles.enabled", true);
@@ -181,12 +222,20 @@ public class PluginConfig {
             "§8Click to send a private message"
         );
         config.set("hover-text.format", defaultHoverFormat);
+        config.set("hover-text.refresh-seconds", 10);
         
         // Banned words
         config.set("banned-words", Arrays.asList("spam", "badword", "anotherbadword", "плохой"));
+        config.set("banned-words-action", "block");
+        config.set("banned-words-censor-char", "*");
+        config.set("banned-words-normalization.leetspeak", true);
+        config.set("banned-words-normalization.diacritics", true);
+        config.set("banned-words-normalization.invisible-characters", true);
+        config.set("banned-words-normalization.collapse-repeats", true);
 
         // Banned patterns (regex)
         config.set("banned-patterns", Arrays.asList(".*\\btest\\b.*", ".*\\d{4,}.*"));
+        config.set("banned-patterns-step-limit", 100000);
         
         // Caps filter
         config.set("caps-filter.enabled", true);
@@ -212,6 +261,7 @@ public class PluginConfig {
         // Anti-spam settings
         config.set("anti-spam.enabled", true);
         config.set("anti-spam.console-notify", true);
+        config.set("anti-spam.history-size", 20);
         
         // Repetitive message detection
         config.set("anti-spam.repetitive.enabled", true);
@@ -234,6 +284,14 @@ public class PluginConfig {
         config.set("anti-spam.flood.message", "&cYou are sending messages too quickly! Please slow down.");
         config.set("anti-spam.flood.actions", Arrays.asList("block", "notify-staff"));
         
+        // Raid detection
+        config.set("anti-spam.raid.enabled", true);
+        config.set("anti-spam.raid.max-senders", 5);
+        config.set("anti-spam.raid.time-window", 30);
+        config.set("anti-spam.raid.min-length", 20);
+        config.set("anti-spam.raid.message", "&cThis message is being sent by too many players at once!");
+        config.set("anti-spam.raid.actions", Arrays.asList("block", "notify-staff"));
+        
     }
 
     // Creates default chat channels configuration
@@ -310,6 +368,144 @@ public class PluginConfig {
         saveConfig();
     }
 
+    /**
+     * Gets the maximum number of chat messages a player may have queued for processing
+     * @return Maximum pending messages per player, 0 or less for unlimited
+     */
+    public int getMaxPendingMessagesPerPlayer() {
+        return config.getInt("chat-processing.max-pending-per-player", 5);
+    }
+
+    /**
+     * Gets the number of threads used to process chat messages
+     * @return Worker thread count
+     */
+    public int getChatWorkerThreads() {
+        return config.getInt("chat-processing.worker-threads", 2);
+    }
+
+    /**
+     * Gets the maximum number of chat messages waiting across all players
+     * @return Queue capacity
+     */
+    public int getChatQueueCapacity() {
+        return config.getInt("chat-processing.queue-capacity", 500);
+    }
+
+    /**
+     * Gets the policy applied when the chat queue is full
+     * @return Overload policy name (reject, drop-oldest)
+     */
+    public String getChatOverloadPolicy() {
+        return config.getString("chat-processing.overload-policy", "reject");
+    }
+
+    /**
+     * Gets the number of threads used to run expensive chat filters
+     * @return Filter thread count
+     */
+    public int getFilterThreads() {
+        return config.getInt("chat-processing.filter-threads", 2);
+    }
+
+    /**
+     * Gets the interval of the full channel audience resync
+     * @return Interval in seconds, 0 or less if disabled
+     */
+    public int getAudienceResyncSeconds() {
+        return config.getInt("chat-processing.audience-resync-seconds", 60);
+    }
+
+    /**
+     * Checks if content filter verdicts are shared across players
+     * @return true if the filter cache is enabled
+     */
+    public boolean isFilterCacheEnabled() {
+        return config.getBoolean("chat-processing.filter-cache.enabled", true);
+    }
+
+    /**
+     * Gets the maximum number of cached filter verdicts
+     * @return Maximum entries
+     */
+    public int getFilterCacheMaxEntries() {
+        return config.getInt("chat-processing.filter-cache.max-entries", 5000);
+    }
+
+    /**
+     * Gets how long a cached filter verdict is reused
+     * @return Expiry in seconds
+     */
+    public int getFilterCacheExpireSeconds() {
+        return config.getInt("chat-processing.filter-cache.expire-seconds", 300);
+    }
+
+    /**
+     * Gets the time budget of a chat filter
+     * @param filter Filter name (word-blocker, caps, spam, advertisement, channel-api)
+     * @return Time budget in milliseconds
+     */
+    public long getFilterTimeoutMillis(String filter) {
+        return config.getLong("chat-processing.filters." + filter + ".timeout-ms", 100L);
+    }
+
+    /**
+     * Gets what a chat filter does when it fails or runs out of time
+     * @param filter Filter name (word-blocker, caps, spam, advertisement, channel-api)
+     * @return Failure policy name (open, closed)
+     */
+    public String getFilterFailurePolicy(String filter) {
+        return config.getString("chat-processing.filters." + filter + ".on-failure", "open");
+    }
+
+    /**
+     * Checks if resolved PlaceholderAPI placeholders are cached
+     * @return true if the placeholder cache is enabled
+     */
+    public boolean isPlaceholderCacheEnabled() {
+        return config.getBoolean("placeholder-cache.enabled", true);
+    }
+
+    /**
+     * Gets the time to live of cached placeholders without their own rule
+     * @return Time to live in milliseconds, 0 or less to not cache them
+     */
+    public long getPlaceholderCacheDefaultTtlMillis() {
+        return config.getLong("placeholder-cache.default-ttl-ms", 1000L);
+    }
+
+    /**
+     * Gets the maximum number of cached placeholder values across all players
+     * @return Maximum cache size
+     */
+    public int getPlaceholderCacheMaxEntries() {
+        return config.getInt("placeholder-cache.max-entries", 10000);
+    }
+
+    /**
+     * Gets the time to live of specific placeholders or expansions
+     * @return Map of placeholder or expansion names to time to live in milliseconds
+     */
+    @NotNull
+    public Map<String, Long> getPlaceholderCacheTtls() {
+        Map<String, Long> ttls = new HashMap<>();
+        ConfigurationSection section = config.getConfigurationSection("placeholder-cache.ttl-ms");
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                ttls.put(key, section.getLong(key));
+            }
+        }
+        return ttls;
+    }
+
+    /**
+     * Gets placeholders or expansions that are always resolved fresh
+     * @return List of placeholder or expansion names
+     */
+    public List<String> getPlaceholderCacheNeverCache() {
+        return config.getStringList("placeholder-cache.never-cache");
+    }
+
     /**
      * Checks if interactive placeholders are globally enabled
      * @return true if enabled
@@ -591,6 +787,54 @@ public class PluginConfig {
         return config.getString("mention-colors.color", "&#FFAFFB");
     }
 
+    /**
+     * Checks if mentioned players see their own mention highlighted
+     * @return true if mention highlighting is enabled
+     */
+    public boolean isMentionHighlightEnabled() {
+        return config.getBoolean("viewer-overlays.mention-highlight.enabled", false);
+    }
+
+    /**
+     * Gets the color a mentioned player sees their own mention in
+     * @return Mention highlight color code
+     */
+    public String getMentionHighlightColor() {
+        return config.getString("viewer-overlays.mention-highlight.color", "&#FFD700");
+    }
+
+    /**
+     * Checks if staff see channel messages with the staff prefix
+     * @return true if the staff view is enabled
+     */
+    public boolean isStaffViewEnabled() {
+        return config.getBoolean("viewer-overlays.staff.enabled", false);
+    }
+
+    /**
+     * Gets the prefix shown to staff before channel messages
+     * @return Staff view format with {channel} placeholder
+     */
+    public String getStaffViewFormat() {
+        return config.getString("viewer-overlays.staff.format", "&8[{channel}] ");
+    }
+
+    /**
+     * Checks if spies receive channel messages outside their audience
+     * @return true if the spy view is enabled
+     */
+    public boolean isSpyViewEnabled() {
+        return config.getBoolean("viewer-overlays.spy.enabled", false);
+    }
+
+    /**
+     * Gets the prefix shown to spies before channel messages
+     * @return Spy view format with {channel} placeholder
+     */
+    public String getSpyViewFormat() {
+        return config.getString("viewer-overlays.spy.format", "&8[Spy] ");
+    }
+
     /**
      * Gets private chat sender message format
      * @return Private chat sender format string
@@ -835,7 +1079,31 @@ public class PluginConfig {
      */
     @NotNull
     public WordBlocker getWordBlocker() {
-        return new WordBlocker(getBannedWords(), getBannedPatterns());
+        TextNormalizer normalizer = new TextNormalizer(
+            config.getBoolean("banned-words-normalization.leetspeak", true),
+            config.getBoolean("banned-words-normalization.diacritics", true),
+            config.getBoolean("banned-words-normalization.invisible-characters", true),
+            config.getBoolean("banned-words-normalization.collapse-repeats", true)
+        );
+        return new WordBlocker(getBannedWords(), getBannedPatterns(), normalizer,
+            config.getInt("banned-patterns-step-limit", WordBlocker.DEFAULT_PATTERN_STEP_LIMIT));
+    }
+
+    /**
+     * Checks if banned words are censored instead of blocking the message
+     * @return true if banned words are censored
+     */
+    public boolean isBannedWordsCensorEnabled() {
+        return config.getString("banned-words-action", "block").equalsIgnoreCase("censor");
+    }
+
+    /**
+     * Gets the character banned words are censored with
+     * @return Censor character
+     */
+    public char getBannedWordsCensorChar() {
+        String censorChar = config.getString("banned-words-censor-char", "*");
+        return censorChar.isEmpty() ? '*' : censorChar.charAt(0);
     }
 
     /**
@@ -1096,6 +1364,14 @@ public class PluginConfig {
         return config.getStringList("hover-text.format");
     }
 
+    /**
+     * Gets the interval hover cards of online players are rebuilt on
+     * @return Interval in seconds, 0 or less if disabled
+     */
+    public int getHoverRefreshSeconds() {
+        return config.getInt("hover-text.refresh-seconds", 10);
+    }
+
     /**
      * Gets hover text utility instance
      * @return Configured HoverTextUtil
@@ -1152,6 +1428,14 @@ public class PluginConfig {
         return config.getBoolean("anti-spam.enabled", true);
     }
 
+    /**
+     * Gets how many recent messages are kept per player for spam checks
+     * @return History size
+     */
+    public int getAntiSpamHistorySize() {
+        return config.getInt("anti-spam.history-size", 20);
+    }
+
     /**
      * Checks if repetitive message detection is enabled
      * @return true if enabled
@@ -1278,6 +1562,56 @@ public class PluginConfig {
         return config.getStringList("anti-spam.flood.actions");
     }
 
+    /**
+     * Checks if raid detection is enabled
+     * @return true if enabled
+     */
+    public boolean isAntiSpamRaidEnabled() {
+        return config.getBoolean("anti-spam.raid.enabled", true);
+    }
+
+    /**
+     * Gets how many different players may send the same message within the raid time window
+     * @return Maximum senders
+     */
+    public int getAntiSpamRaidMaxSenders() {
+        return config.getInt("anti-spam.raid.max-senders", 5);
+    }
+
+    /**
+     * Gets raid detection time window
+     * @return Time window in seconds
+     */
+    public int getAntiSpamRaidTimeWindow() {
+        return config.getInt("anti-spam.raid.time-window", 30);
+    }
+
+    /**
+     * Gets how many letters and digits a message needs for raid detection
+     * @return Minimum message length
+     */
+    public int getAntiSpamRaidMinLength() {
+        return config.getInt("anti-spam.raid.min-length", 20);
+    }
+
+    /**
+     * Gets raid spam warning message
+     * @return Warning message template
+     */
+    @NotNull
+    public String getAntiSpamRaidMessage() {
+        return config.getString("anti-spam.raid.message", "&cThis message is being sent by too many players at once!");
+    }
+
+    /**
+     * Gets actions to execute when a raid is detected
+     * @return List of actions/commands
+     */
+    @NotNull
+    public List<String> getAntiSpamRaidActions() {
+        return config.getStringList("anti-spam.raid.actions");
+    }
+
     /**
      * Checks if console notifications for spam detection are enabled
      * @return true if console notifications are enabled
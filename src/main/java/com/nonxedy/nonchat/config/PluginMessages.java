@@ -3,8 +3,11 @@ package com.nonxedy.nonchat.config;
 import com.nonxedy.nonchat.Nonchat;
 import com.nonxedy.nonchat.util.chat.formatting.MessageFormatter;
 import com.nonxedy.nonchat.util.lang.LanguageManager;
+import com.nonxedy.nonchat.util.lang.MessageTemplate;
+import com.nonxedy.nonchat.util.lang.MessageTranslator;
 
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.translation.GlobalTranslator;
 
 /**
  * Central manager for plugin messages and translations
@@ -13,6 +16,7 @@ import net.kyori.adventure.text.Component;
 public class PluginMessages {
     private final MessageFormatter formatter;
     private final LanguageManager languageManager;
+    private final MessageTranslator translator;
     private final Nonchat plugin;
 
     // Constructor initializes the messages system
@@ -20,6 +24,8 @@ public class PluginMessages {
         this.plugin = plugin;
         this.languageManager = new LanguageManager(plugin.getDataFolder());
         this.formatter = new MessageFormatter(this);
+        this.translator = new MessageTranslator(languageManager);
+        GlobalTranslator.translator().addSource(translator);
     }
 
     /**
@@ -27,9 +33,25 @@ public class PluginMessages {
      */
     public void loadLanguage() {
         String lang = plugin.getConfig().getString("language", "en");
+        languageManager.setPerPlayerLanguage(plugin.getConfig().getBoolean("per-player-language", false));
         languageManager.setLanguage(lang);
     }
 
+    /**
+     * Stops localizing nonchat messages, called when the plugin is disabled
+     */
+    public void unregisterTranslator() {
+        GlobalTranslator.translator().removeSource(translator);
+    }
+
+    /**
+     * Checks if players see messages in the language of their client
+     * @return true if messages are localized per player
+     */
+    public boolean isPerPlayerLanguage() {
+        return languageManager.isPerPlayerLanguage();
+    }
+
     /**
      * Reloads language configuration from file
      */
@@ -49,10 +71,19 @@ public class PluginMessages {
         return languageManager.getMessage(path);
     }
 
+    /**
+     * Gets a message parsed when the language was loaded
+     * @param path Message identifier path
+     * @return Message template
+     */
+    public MessageTemplate getTemplate(String path) {
+        return languageManager.getTemplate(path);
+    }
+
     /**
      * Gets formatted message with variables replaced
      * @param path Message identifier path
-     * @param args Variables to insert into message
+     * @param args Placeholder names followed by their values, like "player", name
      * @return Formatted component
      */
     public Component getFormatted(String path, Object... args) {
@@ -0,0 +1,126 @@
+package com.nonxedy.nonchat.core;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import com.nonxedy.nonchat.config.PluginConfig;
+import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextReplacementConfig;
+
+/**
+ * Renders a broadcast message for its viewers.
+ * The formatted message body is shared by everyone; viewers that need extra details
+ * (their own mention highlighted, staff or spy prefix) get a variant derived from
+ * that body. Each distinct variant is built once no matter how many players see it.
+ */
+public class BroadcastRenderer {
+
+    /**
+     * Overlays a viewer needs on top of the shared message body
+     */
+    public static final class Variant {
+        /** Variant seen by regular recipients */
+        public static final Variant BASE = new Variant(null, false, false);
+
+        private final String mentionedName;
+        private final boolean staff;
+        private final boolean spy;
+
+        public Variant(String mentionedName, boolean staff, boolean spy) {
+            this.mentionedName = mentionedName;
+            this.staff = staff;
+            this.spy = spy;
+        }
+
+        public String getMentionedName() {
+            return mentionedName;
+        }
+
+        public boolean isStaff() {
+            return staff;
+        }
+
+        public boolean isSpy() {
+            return spy;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Variant other)) {
+                return false;
+            }
+            return staff == other.staff && spy == other.spy && Objects.equals(mentionedName, other.mentionedName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(mentionedName, staff, spy);
+        }
+    }
+
+    private final PluginConfig config;
+    private final Component body;
+    private final String channelId;
+    private final Map<Variant, Component> rendered = new HashMap<>();
+
+    /**
+     * Creates a renderer for a single broadcast
+     * @param config Plugin configuration
+     * @param body The formatted message shared by all viewers
+     * @param channelId ID of the channel the message was sent to
+     */
+    public BroadcastRenderer(PluginConfig config, Component body, String channelId) {
+        this.config = config;
+        this.body = body;
+        this.channelId = channelId;
+        rendered.put(Variant.BASE, body);
+    }
+
+    /**
+     * Gets the message as seen by a variant, rendering it on first use
+     * @param variant The viewer variant
+     * @return Rendered message
+     */
+    public Component render(Variant variant) {
+        return rendered.computeIfAbsent(variant, this::build);
+    }
+
+    /**
+     * Gets the number of variants rendered so far
+     * @return Variant count, including the shared body
+     */
+    public int getVariantCount() {
+        return rendered.size();
+    }
+
+    private Component build(Variant variant) {
+        Component message = body;
+
+        if (variant.mentionedName != null) {
+            Component highlight = ColorUtil.parseComponent(config.getMentionHighlightColor() + "@" + variant.mentionedName);
+            message = message.replaceText(TextReplacementConfig.builder()
+                    .match(Pattern.compile("@" + Pattern.quote(variant.mentionedName) + "\\b", Pattern.CASE_INSENSITIVE))
+                    .replacement(highlight)
+                    .build());
+        }
+
+        if (variant.staff) {
+            Component prefix = ColorUtil.parseComponent(config.getStaffViewFormat().replace("{channel}", channelId));
+            message = Component.empty().append(prefix).append(message);
+        }
+
+        if (variant.spy) {
+            Component prefix = ColorUtil.parseComponent(config.getSpyViewFormat().replace("{channel}", channelId));
+            message = Component.empty().append(prefix).append(message);
+        }
+
+        return message;
+    }
+}
@@ -0,0 +1,316 @@
+package com.nonxedy.nonchat.core;
+
+import java.util.Deque;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Chat execution service owned by nonchat.
+ * Runs chat processing on a fixed number of worker threads instead of the shared
+ * common pool, caps the number of messages waiting across all players and applies
+ * an explicit policy when that cap is reached.
+ *
+ * Fairness comes from the mailboxes: a player never has more than one turn waiting
+ * in the worker queue and each turn handles a single message, so busy players are
+ * served round-robin with everyone else.
+ */
+public class ChatExecutor {
+
+    /**
+     * What to do with a new message when the queue is full
+     */
+    public enum OverloadPolicy {
+        /** Refuse the new message */
+        REJECT,
+        /** Discard the message that has been waiting the longest */
+        DROP_OLDEST;
+
+        /**
+         * Parses a policy from its config name
+         * @param name Policy name (reject, drop-oldest)
+         * @return Matching policy, REJECT if unknown
+         */
+        public static OverloadPolicy fromConfig(String name) {
+            if (name != null && name.trim().equalsIgnoreCase("drop-oldest")) {
+                return DROP_OLDEST;
+            }
+            return REJECT;
+        }
+    }
+
+    /**
+     * A single queued message together with its bookkeeping
+     */
+    static final class Envelope {
+        private static final int PENDING = 0;
+        private static final int TAKEN = 1;
+        private static final int CANCELLED = 2;
+
+        final Supplier<? extends CompletionStage<?>> task;
+        final Runnable onDropped;
+        final long enqueuedAt;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        Envelope(Supplier<? extends CompletionStage<?>> task, Runnable onDropped) {
+            this.task = task;
+            this.onDropped = onDropped;
+            this.enqueuedAt = System.nanoTime();
+        }
+    }
+
+    private final ThreadPoolExecutor workers;
+    private final Deque<Envelope> admissionOrder = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private volatile int capacity;
+    private volatile OverloadPolicy policy;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Creates the chat executor
+     * @param workerThreads Number of worker threads
+     * @param capacity Maximum number of messages waiting across all players
+     * @param policy Policy applied when the queue is full
+     */
+    public ChatExecutor(int workerThreads, int capacity, OverloadPolicy policy) {
+        int threads = Math.max(1, workerThreads);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "nonchat-chat-worker-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.capacity = Math.max(1, capacity);
+        this.policy = policy;
+    }
+
+    /**
+     * Applies new settings without dropping queued messages
+     * @param workerThreads Number of worker threads
+     * @param capacity Maximum number of messages waiting across all players
+     * @param policy Policy applied when the queue is full
+     */
+    public void reconfigure(int workerThreads, int capacity, OverloadPolicy policy) {
+        int threads = Math.max(1, workerThreads);
+        if (threads > workers.getMaximumPoolSize()) {
+            workers.setMaximumPoolSize(threads);
+            workers.setCorePoolSize(threads);
+        } else {
+            workers.setCorePoolSize(threads);
+            workers.setMaximumPoolSize(threads);
+        }
+        this.capacity = Math.max(1, capacity);
+        this.policy = policy;
+    }
+
+    /**
+     * Reserves a queue slot for a new message, applying the overload policy if needed
+     * @param task Starts processing the message and returns its completion
+     * @param onDropped Called if the message is later dropped to make room
+     * @return The queued envelope, or null if the message was rejected
+     */
+    Envelope admit(Supplier<? extends CompletionStage<?>> task, Runnable onDropped) {
+        while (true) {
+            int current = queued.get();
+            if (current < capacity) {
+                if (queued.compareAndSet(current, current + 1)) {
+                    break;
+                }
+                continue;
+            }
+
+            if (policy != OverloadPolicy.DROP_OLDEST || !dropOldest()) {
+                rejected.increment();
+                return null;
+            }
+        }
+
+        Envelope envelope = new Envelope(task, onDropped);
+        admissionOrder.offerLast(envelope);
+        accepted.increment();
+        return envelope;
+    }
+
+    /**
+     * Marks an envelope as started and records how long it waited
+     * @param envelope The envelope about to run
+     * @return true if the envelope should run, false if it was dropped or cancelled
+     */
+    boolean take(Envelope envelope) {
+        if (!envelope.state.compareAndSet(Envelope.PENDING, Envelope.TAKEN)) {
+            return false;
+        }
+        queued.decrementAndGet();
+        // Only waiting envelopes stay in the admission order, so it never outgrows the capacity
+        admissionOrder.removeFirstOccurrence(envelope);
+
+        long waited = System.nanoTime() - envelope.enqueuedAt;
+        started.increment();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        return true;
+    }
+
+    /**
+     * Records that a taken envelope finished running
+     */
+    void complete() {
+        completed.increment();
+    }
+
+    /**
+     * Releases the slot of an envelope that will never run
+     * @param envelope The envelope to cancel
+     */
+    void cancel(Envelope envelope) {
+        if (envelope.state.compareAndSet(Envelope.PENDING, Envelope.CANCELLED)) {
+            queued.decrementAndGet();
+            admissionOrder.removeFirstOccurrence(envelope);
+        }
+    }
+
+    /**
+     * Submits work to the worker threads.
+     * Also used to resume chat processing after an asynchronous stage.
+     * @param turn The work to run
+     */
+    void execute(Runnable turn) {
+        workers.execute(turn);
+    }
+
+    /**
+     * Drops the message that has been waiting the longest
+     * @return true if a message was dropped
+     */
+    private boolean dropOldest() {
+        Envelope oldest;
+        while ((oldest = admissionOrder.pollFirst()) != null) {
+            if (oldest.state.compareAndSet(Envelope.PENDING, Envelope.CANCELLED)) {
+                queued.decrementAndGet();
+                dropped.increment();
+                try {
+                    oldest.onDropped.run();
+                } catch (RuntimeException ignored) {
+                    // Notification failures must not affect admission
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stops the worker threads, discarding queued messages
+     */
+    public void shutdown() {
+        workers.shutdownNow();
+        admissionOrder.clear();
+        queued.set(0);
+    }
+
+    /**
+     * Gets the number of messages waiting to be processed
+     * @return Current queue depth
+     */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * Gets the maximum number of messages that may wait at once
+     * @return Queue capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the configured overload policy
+     * @return Overload policy
+     */
+    public OverloadPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Gets the number of worker threads
+     * @return Worker thread count
+     */
+    public int getWorkerCount() {
+        return workers.getCorePoolSize();
+    }
+
+    /**
+     * Gets the number of workers currently processing a message
+     * @return Active worker count
+     */
+    public int getActiveCount() {
+        return workers.getActiveCount();
+    }
+
+    /**
+     * Gets the number of messages admitted to the queue since startup
+     * @return Accepted message count
+     */
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    /**
+     * Gets the number of messages that finished processing since startup
+     * @return Completed message count
+     */
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    /**
+     * Gets the number of messages refused because the queue was full
+     * @return Rejected message count
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Gets the number of waiting messages discarded to make room for newer ones
+     * @return Dropped message count
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Gets the average time messages waited before processing started
+     * @return Average wait in milliseconds
+     */
+    public double getAverageWaitMillis() {
+        long count = started.sum();
+        if (count == 0) {
+            return 0.0;
+        }
+        return totalWaitNanos.sum() / 1_000_000.0 / count;
+    }
+
+    /**
+     * Gets the longest time a message waited before processing started
+     * @return Maximum wait in milliseconds
+     */
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+}
@@ -0,0 +1,186 @@
+package com.nonxedy.nonchat.core;
+
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Actor-style mailbox that serializes chat processing for a single player.
+ * Messages from the same player are handled strictly in order while different
+ * players never wait on each other. No thread ever blocks: the mailbox holds at most
+ * one turn in the chat executor, and each turn processes a single message before
+ * going back to the end of the queue. A turn lasts until the stage returned by the
+ * task completes, so asynchronous filter stages keep the per-player order.
+ */
+public class ChatMailbox {
+
+    /**
+     * Outcome of offering a message to the mailbox
+     */
+    public enum OfferResult {
+        ACCEPTED,
+        MAILBOX_FULL,
+        OVERLOADED,
+        CLOSED
+    }
+
+    private final UUID owner;
+    private final int maxPending;
+    private final ChatExecutor executor;
+    private final Consumer<Throwable> errorHandler;
+    private final Queue<ChatExecutor.Envelope> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean closed;
+
+    /**
+     * Creates a new mailbox
+     * @param owner UUID of the player owning this mailbox
+     * @param maxPending Maximum number of queued messages, 0 or less for unlimited
+     * @param executor Executor the mailbox is drained on
+     * @param errorHandler Receives exceptions thrown by queued tasks
+     */
+    public ChatMailbox(UUID owner, int maxPending, ChatExecutor executor, Consumer<Throwable> errorHandler) {
+        this.owner = owner;
+        this.maxPending = maxPending;
+        this.executor = executor;
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Queues a task for this player
+     * @param task Starts the task and returns a stage completing when it is done
+     * @param onDropped Called if the task is dropped later to relieve overload
+     * @return Whether the task was accepted and, if not, why
+     */
+    public OfferResult offer(Supplier<? extends CompletionStage<?>> task, Runnable onDropped) {
+        if (closed) {
+            return OfferResult.CLOSED;
+        }
+
+        int depth = pending.incrementAndGet();
+        if (maxPending > 0 && depth > maxPending) {
+            pending.decrementAndGet();
+            return OfferResult.MAILBOX_FULL;
+        }
+
+        ChatExecutor.Envelope envelope = executor.admit(task, onDropped);
+        if (envelope == null) {
+            pending.decrementAndGet();
+            return OfferResult.OVERLOADED;
+        }
+
+        queue.offer(envelope);
+        schedule();
+        return OfferResult.ACCEPTED;
+    }
+
+    /**
+     * Gives the mailbox a turn on the executor unless it already has one
+     */
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::runTurn);
+            } catch (RejectedExecutionException e) {
+                // Executor is shutting down, queued messages are discarded with it
+                scheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Starts the next queued message; the turn ends once it completes
+     */
+    private void runTurn() {
+        ChatExecutor.Envelope envelope;
+        while ((envelope = queue.poll()) != null) {
+            pending.decrementAndGet();
+            if (closed) {
+                executor.cancel(envelope);
+                continue;
+            }
+            if (!executor.take(envelope)) {
+                // Dropped while waiting
+                continue;
+            }
+
+            CompletionStage<?> completion;
+            try {
+                completion = envelope.task.get();
+            } catch (Throwable t) {
+                errorHandler.accept(t);
+                completion = null;
+            }
+
+            if (completion == null) {
+                executor.complete();
+                endTurn();
+            } else {
+                completion.whenComplete((result, error) -> {
+                    if (error != null) {
+                        errorHandler.accept(error);
+                    }
+                    executor.complete();
+                    endTurn();
+                });
+            }
+            return;
+        }
+
+        endTurn();
+    }
+
+    /**
+     * Releases the turn and yields to other players if more messages are waiting
+     */
+    private void endTurn() {
+        scheduled.set(false);
+        // A message may have been queued before the flag was released
+        if (!queue.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * Closes the mailbox and discards any messages that have not been processed yet
+     */
+    public void close() {
+        closed = true;
+        ChatExecutor.Envelope envelope;
+        while ((envelope = queue.poll()) != null) {
+            pending.decrementAndGet();
+            executor.cancel(envelope);
+        }
+    }
+
+    /**
+     * Gets the owner of this mailbox
+     * @return Player UUID
+     */
+    public UUID getOwner() {
+        return owner;
+    }
+
+    /**
+     * Gets the number of messages waiting to be processed
+     * @return Current queue depth
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Checks if this mailbox has been closed
+     * @return true if closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+}
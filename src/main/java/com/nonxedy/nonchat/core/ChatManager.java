@@ -1,36 +1,53 @@
 package com.nonxedy.nonchat.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Color;
 import org.bukkit.GameMode;
-import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.TextDisplay;
 
 import com.nonxedy.nonchat.Nonchat;
 import com.nonxedy.nonchat.api.Channel;
 import com.nonxedy.nonchat.api.ChannelAPI;
+import com.nonxedy.nonchat.api.MessageFilter;
+import com.nonxedy.nonchat.chat.channel.ChannelAudienceIndex;
 import com.nonxedy.nonchat.chat.channel.ChannelManager;
+import com.nonxedy.nonchat.chat.channel.PlayerGridIndex;
 import com.nonxedy.nonchat.command.impl.IgnoreCommand;
+import com.nonxedy.nonchat.command.impl.SpyCommand;
 import com.nonxedy.nonchat.config.PluginConfig;
 import com.nonxedy.nonchat.config.PluginMessages;
 import com.nonxedy.nonchat.util.AsyncFilterService;
+import com.nonxedy.nonchat.util.AsyncFilterService.FailurePolicy;
+import com.nonxedy.nonchat.util.AsyncFilterService.FilterStep;
 import com.nonxedy.nonchat.util.chat.filters.AdDetector;
+import com.nonxedy.nonchat.util.chat.filters.FilterVerdictCache;
 import com.nonxedy.nonchat.util.chat.filters.CapsFilter;
+import com.nonxedy.nonchat.util.chat.filters.MessageFacts;
 import com.nonxedy.nonchat.util.chat.filters.SpamDetector;
 import com.nonxedy.nonchat.util.chat.filters.WordBlocker;
+import com.nonxedy.nonchat.util.chat.formatting.HoverCardCache;
 import com.nonxedy.nonchat.util.chat.packets.DisplayEntityUtil;
 import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+import com.nonxedy.nonchat.util.integration.external.PlaceholderCache;
 
-import me.clip.placeholderapi.PlaceholderAPI;
+import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
 
 public class ChatManager {
@@ -41,82 +58,154 @@ public class ChatManager {
     private final ChannelManager channelManager;
     private final Pattern mentionPattern = Pattern.compile("@(\\w+)");
     private final Map<Player, List<TextDisplay>> bubbles = new ConcurrentHashMap<>();
-    private final Map<Player, ReentrantLock> playerLocks = new ConcurrentHashMap<>();
+    private final Map<UUID, ChatMailbox> mailboxes = new ConcurrentHashMap<>();
     private IgnoreCommand ignoreCommand;
-    private final AdDetector adDetector;
+    private volatile AdDetector adDetector;
     private final SpamDetector spamDetector;
+    private final RateLimiter rateLimiter;
+    private volatile WordBlocker wordBlocker;
+    private final FilterVerdictCache verdictCache;
     private final AsyncFilterService asyncFilterService;
+    private final ChatExecutor chatExecutor;
+    private final PlayerGridIndex playerGridIndex;
 
     public ChatManager(Nonchat plugin, PluginConfig config, PluginMessages messages) {
         this.plugin = plugin;
         this.config = config;
         this.messages = messages;
         this.adDetector = new AdDetector(config, config.getAntiAdSensitivity(), config.getAntiAdPunishCommand());
-        this.spamDetector = new SpamDetector(config, messages);
-        this.asyncFilterService = new AsyncFilterService(plugin, adDetector);
-        this.channelManager = new ChannelManager(plugin, config);
+        this.rateLimiter = new RateLimiter();
+        this.spamDetector = new SpamDetector(config, messages, rateLimiter);
+        this.wordBlocker = config.getWordBlocker();
+        this.verdictCache = new FilterVerdictCache(config.isFilterCacheEnabled(), config.getFilterCacheMaxEntries(),
+                config.getFilterCacheExpireSeconds());
+        this.asyncFilterService = new AsyncFilterService(plugin, config.getFilterThreads());
+        this.chatExecutor = new ChatExecutor(config.getChatWorkerThreads(), config.getChatQueueCapacity(),
+                ChatExecutor.OverloadPolicy.fromConfig(config.getChatOverloadPolicy()));
+        this.channelManager = new ChannelManager(plugin, config, rateLimiter);
+        this.playerGridIndex = new PlayerGridIndex(plugin);
+        this.playerGridIndex.start();
+        configurePlaceholderCache();
         this.ignoreCommand = plugin.getIgnoreCommand();
         startBubbleUpdater();
     }
 
+    /**
+     * Queues a chat message for processing.
+     * Messages from the same player are processed in order through the player's
+     * mailbox, while messages from different players are processed in parallel.
+     *
+     * @param player         The player sending the message
+     * @param messageContent The raw message content
+     */
     public void processChat(Player player, String messageContent) {
+        if (!player.isOnline()) {
+            return;
+        }
+
+        ChatMailbox mailbox = mailboxes.computeIfAbsent(player.getUniqueId(), uuid -> new ChatMailbox(
+                uuid, config.getMaxPendingMessagesPerPlayer(), chatExecutor,
+                error -> plugin.logError("Chat processing failed for player " + player.getName() + ": " + error.getMessage())));
+
+        ChatMailbox.OfferResult result = mailbox.offer(
+                () -> processChatNow(player, messageContent),
+                () -> rejectMessage(player, messageContent, "overloaded", "chat-overloaded"));
+
+        switch (result) {
+            case MAILBOX_FULL -> rejectMessage(player, messageContent, "queue_full", "chat-queue-full");
+            case OVERLOADED -> rejectMessage(player, messageContent, "overloaded", "chat-overloaded");
+            default -> {
+            }
+        }
+    }
+
+    private void rejectMessage(Player player, String messageContent, String reason, String messageKey) {
+        plugin.logChatMessage("Dropped: Player=" + player.getName() + " Message=\"" + messageContent + "\" Reason=" + reason);
+        if (player.isOnline()) {
+            player.sendMessage(messages.getFormatted(messageKey));
+        }
+    }
+
+    private CompletableFuture<Void> processChatNow(Player player, String messageContent) {
         // Log incoming message
         plugin.logChatMessage("Incoming: Player=" + player.getName() + " Message=\"" + messageContent + "\"");
 
-        // Get or create player-specific lock
-        ReentrantLock lock = playerLocks.computeIfAbsent(player, p -> new ReentrantLock());
-        lock.lock();
-        try {
-            ChatProcessingContext context = new ChatProcessingContext(player, messageContent);
+        ChatProcessingContext context = new ChatProcessingContext(player, messageContent);
 
-            // Basic validation
-            if (!validateBasicMessage(context)) {
-                return;
-            }
+        // Basic validation
+        if (!validateBasicMessage(context)) {
+            return CompletableFuture.completedFuture(null);
+        }
 
-            // Apply filters
-            if (!applyFilters(context)) {
+        // Apply filters
+        return resumeOnChatExecutor(applyFilters(context)).thenCompose(allowed -> {
+            if (!allowed) {
                 plugin.logChatMessage("Filtered: Player=" + player.getName() + " Message=\"" + messageContent + "\" Reason=filter_blocked");
-                return;
+                return CompletableFuture.completedFuture(null);
             }
 
             // Handle channel logic
             if (!handleChannelLogic(context)) {
-                return;
+                return CompletableFuture.completedFuture(null);
             }
 
             // Validate channel permissions and limits
             if (!validateChannelAccess(context)) {
                 plugin.logChatMessage("Filtered: Player=" + player.getName() + " Message=\"" + messageContent + "\" Reason=channel_access_denied");
-                return;
+                return CompletableFuture.completedFuture(null);
             }
 
-            // Process message through API
-            if (!processMessageThroughAPI(context)) {
-                plugin.logChatMessage("Filtered: Player=" + player.getName() + " Message=\"" + messageContent + "\" Reason=api_blocked");
-                return;
-            }
+            // Apply filters registered through the API
+            return resumeOnChatExecutor(applyChannelFilters(context)).thenAccept(channelAllowed -> {
+                if (!channelAllowed) {
+                    plugin.logChatMessage("Filtered: Player=" + player.getName() + " Message=\"" + messageContent + "\" Reason=api_blocked");
+                    return;
+                }
 
-            // Handle mentions
-            handleMentions(player, context.processedMessage);
+                // Process message through API
+                if (!processMessageThroughAPI(context)) {
+                    plugin.logChatMessage("Filtered: Player=" + player.getName() + " Message=\"" + messageContent + "\" Reason=api_blocked");
+                    return;
+                }
 
-            // Format and broadcast
-            broadcastProcessedMessage(context);
+                // Handle mentions
+                handleMentions(player, context.factsOf(context.processedMessage));
 
-            // Log delivered message
-            plugin.logChatMessage("Delivered: Player=" + player.getName() + " Channel=" + context.channel.getId() + " Message=\"" + context.finalMessage + "\"");
+                // Format and broadcast
+                broadcastProcessedMessage(context);
 
-            // Handle bubble creation if needed
-            handleBubbleCreation(context);
+                // Log delivered message
+                plugin.logChatMessage("Delivered: Player=" + player.getName() + " Channel=" + context.channel.getId() + " Message=\"" + context.finalMessage + "\"");
 
-        } finally {
-            lock.unlock();
+                // Handle bubble creation if needed
+                handleBubbleCreation(context);
+            });
+        });
+    }
 
-            // Clean up lock if player is offline
-            if (!player.isOnline()) {
-                playerLocks.remove(player);
-            }
+    /**
+     * Continues on the chat executor if a stage finished on a filter thread.
+     * Stages that are already complete continue on the current thread.
+     */
+    private <T> CompletableFuture<T> resumeOnChatExecutor(CompletableFuture<T> stage) {
+        if (stage.isDone()) {
+            return stage;
+        }
+        return stage.thenApplyAsync(Function.identity(), chatExecutor::execute);
+    }
+
+    /**
+     * Drops the chat mailbox of a player who left the server.
+     * Messages still waiting in the mailbox are discarded.
+     *
+     * @param player The player who left
+     */
+    public void cleanupPlayer(Player player) {
+        ChatMailbox mailbox = mailboxes.remove(player.getUniqueId());
+        if (mailbox != null) {
+            mailbox.close();
         }
+        rateLimiter.removePlayer(player.getUniqueId());
     }
 
     /**
@@ -129,11 +218,25 @@ public class ChatManager {
         String finalMessage;
         String processedMessage;
         boolean messageDelivered;
+        // Facts about the text most recently analyzed, reused while it stays the same
+        private volatile MessageFacts facts;
 
         ChatProcessingContext(Player player, String messageContent) {
             this.player = player;
             this.messageContent = messageContent;
         }
+
+        /**
+         * Gets facts about a message text, analyzing it only if it changed since the last call
+         */
+        MessageFacts factsOf(String text) {
+            MessageFacts current = facts;
+            if (current == null || !current.getText().equals(text)) {
+                current = MessageFacts.of(text);
+                facts = current;
+            }
+            return current;
+        }
     }
 
     private boolean validateBasicMessage(ChatProcessingContext context) {
@@ -144,48 +247,102 @@ public class ChatManager {
         return true;
     }
 
-    private boolean applyFilters(ChatProcessingContext context) {
+    private CompletableFuture<Boolean> applyFilters(ChatProcessingContext context) {
         Player player = context.player;
-        String message = context.messageContent;
+        List<FilterStep> steps = new ArrayList<>();
 
-        // Check blocked words
-        if (handleBlockedWords(player, message)) {
-            return false;
+        // Check blocked words on the message without color codes, or censor them in place
+        if (!player.hasPermission("nonchat.antiblockedwords")) {
+            WordBlocker blocker = wordBlocker;
+            if (config.isBannedWordsCensorEnabled()) {
+                context.messageContent = blocker.censor(context.messageContent, config.getBannedWordsCensorChar());
+            }
+            steps.add(inlineFilter("word-blocker",
+                    (sender, message) -> verdictCache.isBlocked("word-blocker", message,
+                            text -> !blocker.isMessageAllowed(context.factsOf(text).getStripped())),
+                    () -> player.sendMessage(messages.getFormatted("blocked-words"))));
         }
 
         // Check caps filter
-        CapsFilter capsFilter = config.getCapsFilter();
-        if (!player.hasPermission("nonchat.caps.bypass") && capsFilter.shouldFilter(message)) {
-            player.sendMessage(ColorUtil.parseComponentCached(messages.getString("caps-filter")
-                    .replace("{percentage}", String.valueOf(capsFilter.getMaxCapsPercentage()))));
-            return false;
+        if (!player.hasPermission("nonchat.caps.bypass")) {
+            CapsFilter capsFilter = config.getCapsFilter();
+            steps.add(inlineFilter("caps", (sender, message) -> capsFilter.shouldFilter(context.factsOf(message)),
+                    () -> player.sendMessage(messages.getFormatted("caps-filter",
+                            "percentage", capsFilter.getMaxCapsPercentage()))));
         }
 
-        // Check spam
+        // Check spam, the detector notifies the player itself
         if (config.isAntiSpamEnabled() && !player.hasPermission("nonchat.spam.bypass")) {
-            if (spamDetector.shouldFilter(player, message)) {
-                return false;
-            }
+            steps.add(inlineFilter("spam", spamDetector::shouldFilter, () -> {}));
         }
 
         // Check advertisements
         if (config.isAntiAdEnabled() && !player.hasPermission("nonchat.ad.bypass")) {
-            if (asyncFilterService.shouldFilterAsync(player, message).join()) {
-                player.sendMessage(ColorUtil.parseComponentCached(messages.getString("blocked-words")));
+            AdDetector detector = adDetector;
+            steps.add(asyncFilter("advertisement", (sender, message) -> {
+                        if (verdictCache.isBlocked("advertisement", message, detector::containsAdvertisement)) {
+                            detector.reportAdvertisement(sender, message);
+                            return true;
+                        }
+                        // Addresses that may be a sentence only get a staff notification
+                        if (verdictCache.isBlocked("possible-advertisement", message, detector::containsPossibleAdvertisement)) {
+                            detector.reportPossibleAdvertisement(sender, message);
+                        }
+                        return false;
+                    },
+                    () -> player.sendMessage(messages.getFormatted("blocked-words"))));
+        }
+
+        return asyncFilterService.filter(player, context.messageContent, steps).thenApply(result -> {
+            if (!result.isAllowed()) {
                 return false;
             }
+
+            // Handle color permissions
+            MessageFacts facts = context.factsOf(context.messageContent);
+            if (!player.hasPermission("nonchat.color") && facts.hasColorCodes()) {
+                String message = facts.getStripped();
+                if (message.trim().isEmpty()) {
+                    return false; // Silently cancel empty messages after stripping colors
+                }
+                context.messageContent = message;
+            }
+            return true;
+        });
+    }
+
+    private CompletableFuture<Boolean> applyChannelFilters(ChatProcessingContext context) {
+        Player player = context.player;
+        List<MessageFilter> filters = ChannelAPI.getMessageFilters(context.channel.getId());
+        if (filters.isEmpty()) {
+            return CompletableFuture.completedFuture(true);
         }
 
-        // Handle color permissions
-        if (!player.hasPermission("nonchat.color") && ColorUtil.hasColorCodes(message)) {
-            message = ColorUtil.stripAllColors(message);
-            if (message.trim().isEmpty()) {
-                return false; // Silently cancel empty messages after stripping colors
+        // Filters from other plugins are unknown code, run them with a budget
+        AtomicBoolean notified = new AtomicBoolean();
+        Runnable onBlocked = () -> {
+            if (notified.compareAndSet(false, true)) {
+                player.sendMessage(messages.getFormatted("message-filtered"));
             }
-            context.messageContent = message;
+        };
+
+        List<FilterStep> steps = new ArrayList<>(filters.size());
+        for (MessageFilter filter : filters) {
+            steps.add(asyncFilter("channel-api", filter::shouldFilter, onBlocked));
         }
 
-        return true;
+        return asyncFilterService.filter(player, context.finalMessage, steps)
+                .thenApply(AsyncFilterService.FilterResult::isAllowed);
+    }
+
+    private FilterStep inlineFilter(String name, BiPredicate<Player, String> check, Runnable onBlocked) {
+        return FilterStep.inline(name, config.getFilterTimeoutMillis(name),
+                FailurePolicy.fromConfig(config.getFilterFailurePolicy(name)), check, onBlocked);
+    }
+
+    private FilterStep asyncFilter(String name, BiPredicate<Player, String> check, Runnable onBlocked) {
+        return FilterStep.async(name, config.getFilterTimeoutMillis(name),
+                FailurePolicy.fromConfig(config.getFilterFailurePolicy(name)), check, onBlocked);
     }
 
     private boolean handleChannelLogic(ChatProcessingContext context) {
@@ -194,10 +351,11 @@ public class ChatManager {
 
         // Determine which channel to use based on message prefix or player's active
         // channel
-        Channel channel = channelManager.getChannelForMessage(message);
+        Channel channel = channelManager.findChannelForMessage(message);
+        boolean routedByPrefix = channel != null;
 
         // If no channel was found by prefix, use the player's active channel
-        if (channel == null || !channel.hasPrefix() || !message.startsWith(channel.getPrefix())) {
+        if (!routedByPrefix) {
             channel = channelManager.getPlayerChannel(player);
             if (channel == null) {
                 return false; // Silently cancel if no channel available
@@ -207,7 +365,7 @@ public class ChatManager {
         String finalMessage;
         // If a channel was found by prefix, update player's active channel and remove
         // the prefix
-        if (channel.hasPrefix() && message.startsWith(channel.getPrefix())) {
+        if (routedByPrefix) {
             channelManager.setPlayerChannel(player, channel.getId());
             finalMessage = message.substring(channel.getPrefix().length());
             if (finalMessage.trim().isEmpty()) {
@@ -229,41 +387,39 @@ public class ChatManager {
 
         // Check if channel is enabled
         if (!channel.isEnabled()) {
-            player.sendMessage(ColorUtil.parseComponentCached(messages.getString("chat-disabled")));
+            player.sendMessage(messages.getFormatted("chat-disabled"));
             return false;
         }
 
         // Check permissions
         if (!channel.canSend(player)) {
-            player.sendMessage(ColorUtil.parseComponentCached(messages.getString("no-permission")));
+            player.sendMessage(messages.getFormatted("no-permission"));
             return false;
         }
 
         // Check message length
-        String messageForLengthCheck = player.hasPermission("nonchat.color") ? finalMessage
-                : ColorUtil.stripAllColors(finalMessage);
-        if (messageForLengthCheck.length() < channel.getMinLength()) {
-            player.sendMessage(ColorUtil.parseComponentCached(messages.getString("message-too-short")
-                    .replace("{min}", String.valueOf(channel.getMinLength()))));
+        int messageLength = player.hasPermission("nonchat.color") ? finalMessage.length()
+                : context.factsOf(finalMessage).getVisibleLength();
+        if (messageLength < channel.getMinLength()) {
+            player.sendMessage(messages.getFormatted("message-too-short", "min", channel.getMinLength()));
             return false;
         }
-        if (channel.getMaxLength() > 0 && messageForLengthCheck.length() > channel.getMaxLength()) {
-            player.sendMessage(ColorUtil.parseComponentCached(messages.getString("message-too-long")
-                    .replace("{max}", String.valueOf(channel.getMaxLength()))));
+        if (channel.getMaxLength() > 0 && messageLength > channel.getMaxLength()) {
+            player.sendMessage(messages.getFormatted("message-too-long", "max", channel.getMaxLength()));
             return false;
         }
 
         // Check cooldown
         if (!channelManager.canSendMessage(player, channel)) {
             int remainingSeconds = channelManager.getRemainingCooldown(player, channel);
-            player.sendMessage(ColorUtil.parseComponent(messages.getString("channel-cooldown")
-                    .replace("{seconds}", String.valueOf(remainingSeconds))
-                    .replace("{channel}", channel.getDisplayName())));
+            player.sendMessage(messages.getFormatted("channel-cooldown",
+                    "seconds", remainingSeconds,
+                    "channel", channel.getDisplayName()));
             return false;
         }
 
         // Record message sent
-        channelManager.recordMessageSent(player);
+        channelManager.recordMessageSent(player, channel);
         return true;
     }
 
@@ -272,12 +428,6 @@ public class ChatManager {
         Channel channel = context.channel;
         String finalMessage = context.finalMessage;
 
-        // Check API filters
-        if (ChannelAPI.shouldFilterMessage(player, finalMessage, channel.getId())) {
-            player.sendMessage(ColorUtil.parseComponentCached(messages.getString("message-filtered")));
-            return false;
-        }
-
         // Process through API processors
         String processedMessage = ChannelAPI.processMessage(player, finalMessage, channel.getId());
         if (processedMessage == null) {
@@ -301,11 +451,12 @@ public class ChatManager {
         String processedMessage = context.processedMessage;
 
         Component formattedMessage = channel.formatMessage(player, messageToSend);
-        context.messageDelivered = broadcastMessage(player, formattedMessage, channel, processedMessage);
+        context.messageDelivered = broadcastMessage(player, formattedMessage, channel, processedMessage,
+                context.factsOf(processedMessage));
 
         // Notify if message wasn't delivered
         if (config.isUndeliveredMessageNotificationEnabled() && !context.messageDelivered) {
-            player.sendMessage(ColorUtil.parseComponentCached(messages.getString("message-not-delivered")));
+            player.sendMessage(messages.getFormatted("message-not-delivered"));
         }
     }
 
@@ -322,15 +473,15 @@ public class ChatManager {
                 && context.messageDelivered;
 
         if (shouldShowBubble) {
-            scheduleBubbleCreation(player, messageToSend);
+            scheduleBubbleCreation(player, messageToSend, context.factsOf(messageToSend));
         }
     }
 
     /**
      * Schedules bubble creation with robust error handling and fallbacks
      */
-    private void scheduleBubbleCreation(Player player, String message) {
-        String bubbleMessage = player.hasPermission("nonchat.color") ? message : ColorUtil.stripAllColors(message);
+    private void scheduleBubbleCreation(Player player, String message, MessageFacts facts) {
+        String bubbleMessage = player.hasPermission("nonchat.color") ? message : facts.getStripped();
 
         try {
             Bukkit.getScheduler().runTask(plugin, () -> {
@@ -420,36 +571,24 @@ public class ChatManager {
     }
 
     /**
-     * Updates bubble positions and cleans up offline players
+     * Keeps bubbles attached to their players and cleans up the ones that can't follow.
+     * Bubbles ride the player and move on the client, so only detached bubbles, spectators
+     * and offline players need work here
      */
     private void updateBubbles() {
         try {
-            // Update bubble positions for online players
-            bubbles.entrySet().stream()
-                    .filter(entry -> entry.getKey().isOnline() && !entry.getValue().isEmpty())
-                    .forEach(entry -> {
-                        try {
-                            Player player = entry.getKey();
-                            Location newLoc = player.getLocation().add(0, config.getChatBubblesHeight(), 0);
-                            DisplayEntityUtil.updateBubblesLocation(entry.getValue(), newLoc);
-                        } catch (Exception e) {
-                            plugin.logError("Error updating bubbles for player " + entry.getKey().getName() + ": "
-                                    + e.getMessage());
-                        }
-                    });
-
-            // Clean up bubbles for offline players
             bubbles.entrySet().removeIf(entry -> {
+                Player player = entry.getKey();
                 try {
-                    if (!entry.getKey().isOnline()) {
-                        DisplayEntityUtil.removeBubbles(entry.getValue());
-                        return true;
+                    if (player.isOnline() && player.getGameMode() != GameMode.SPECTATOR
+                            && DisplayEntityUtil.remountBubbles(entry.getValue(), player)) {
+                        return false;
                     }
+                    DisplayEntityUtil.removeBubbles(entry.getValue());
                 } catch (Exception e) {
-                    plugin.logError("Error cleaning up bubbles for offline player: " + e.getMessage());
-                    return true; // Remove entry on error
+                    plugin.logError("Error updating bubbles for player " + player.getName() + ": " + e.getMessage());
                 }
-                return false;
+                return true; // Remove entry when the bubbles are gone or on error
             });
         } catch (Exception e) {
             plugin.logError("Error in bubble updater: " + e.getMessage());
@@ -462,12 +601,11 @@ public class ChatManager {
         }
 
         try {
-            Location loc = player.getLocation().add(0, config.getChatBubblesHeight(), 0);
-
             // Get background color from config
             Color backgroundColor = ColorUtil.parseHexColor(config.getChatBubblesBackgroundColor());
 
-            List<TextDisplay> playerBubbles = DisplayEntityUtil.spawnMultilineBubble(player, message, loc,
+            List<TextDisplay> playerBubbles = DisplayEntityUtil.spawnMultilineBubble(player, message,
+                    config.getChatBubblesHeight(),
                     config.getChatBubblesScale(), config.getChatBubblesScaleX(), config.getChatBubblesScaleY(),
                     config.getChatBubblesScaleZ(), backgroundColor);
 
@@ -525,32 +663,9 @@ public class ChatManager {
         }
     }
 
-    private boolean handleBlockedWords(Player player, String message) {
-        if (!player.hasPermission("nonchat.antiblockedwords")) {
-            WordBlocker wordBlocker = config.getWordBlocker();
-            // Check blocked words on the message without color codes
-            String messageToCheck = ColorUtil.stripAllColors(message);
-            if (!wordBlocker.isMessageAllowed(messageToCheck)) {
-                player.sendMessage(ColorUtil.parseComponentCached(messages.getString("blocked-words")));
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private void handleMentions(Player sender, String message) {
-        // Find all mentions in the message (strip colors first to avoid false matches)
-        String messageToCheck = ColorUtil.stripAllColors(message);
-        Matcher mentionMatcher = mentionPattern.matcher(messageToCheck);
-
-        // Collect all the names found into a list and process with Stream API
-        List<String> mentionedNames = new ArrayList<>();
-        while (mentionMatcher.find()) {
-            mentionedNames.add(mentionMatcher.group(1));
-        }
-
-        // Process the mentions using Stream API
-        mentionedNames.stream()
+    private void handleMentions(Player sender, MessageFacts facts) {
+        // Mentions are found on the message without colors to avoid false matches
+        facts.getMentions().stream()
                 .map(Bukkit::getPlayer)
                 .filter(java.util.Objects::nonNull)
                 .filter(Player::isOnline)
@@ -560,19 +675,18 @@ public class ChatManager {
     private void notifyMentionedPlayer(Player mentioned, Player sender) {
         String mentionMessage = messages.getString("mentioned");
 
-        // Apply PlaceholderAPI to mention message
-        if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
-            try {
-                mentionMessage = PlaceholderAPI.setPlaceholders(sender, mentionMessage);
-            } catch (Exception e) {
-                plugin.logError("Error processing mention message placeholders: " + e.getMessage());
-            }
-        }
+        if (mentionMessage.indexOf('%') < 0) {
+            // No PlaceholderAPI placeholders, fill the precompiled message
+            mentioned.sendMessage(messages.getFormatted("mentioned", "player", sender.getName()));
+        } else {
+            // Apply PlaceholderAPI to mention message
+            mentionMessage = PlaceholderCache.setPlaceholders(sender, mentionMessage);
 
-        // Replace {player} with sender name (keeping this for backward compatibility)
-        mentionMessage = mentionMessage.replace("{player}", sender.getName());
+            // Replace {player} with sender name (keeping this for backward compatibility)
+            mentionMessage = mentionMessage.replace("{player}", sender.getName());
 
-        mentioned.sendMessage(ColorUtil.parseComponent(mentionMessage));
+            mentioned.sendMessage(ColorUtil.parseComponent(mentionMessage));
+        }
 
         // Play mention sound if enabled for mention events
         if (config.isMentionSoundEnabled()) {
@@ -626,43 +740,119 @@ public class ChatManager {
      * @param message         The formatted message component
      * @param channel         The channel being used
      * @param originalMessage The original message content
+     * @param facts           Facts about the original message
      * @return true if the message was delivered to at least one player, false
      *         otherwise
      */
-    private boolean broadcastMessage(Player sender, Component message, Channel channel, String originalMessage) {
+    private boolean broadcastMessage(Player sender, Component message, Channel channel, String originalMessage,
+            MessageFacts facts) {
         // For console, create a simple message without our color modifications to avoid
         // &f appearing
         String consoleFormat = channel.getFormat().replace("{message}", originalMessage);
 
         // Apply PlaceholderAPI for console
-        if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
-            try {
-                consoleFormat = PlaceholderAPI.setPlaceholders(sender, consoleFormat);
-            } catch (Exception e) {
-                plugin.logError("Error processing format placeholders for console: " + e.getMessage());
-            }
-        }
+        consoleFormat = PlaceholderCache.setPlaceholders(sender, consoleFormat);
 
         // Send to console with processed format
         Bukkit.getConsoleSender().sendMessage(ColorUtil.parseComponent(consoleFormat));
 
-        // Count how many players received the message
-        long recipientCount = Bukkit.getOnlinePlayers().stream()
-                // Skip players ignoring the sender
-                .filter(recipient -> ignoreCommand == null || !ignoreCommand.isIgnoring(recipient, sender))
-                // Check channel-specific conditions
-                .filter(recipient -> channel.canReceive(recipient))
-                // For local channels, also check range
-                .filter(recipient -> channel.isGlobal() || channel.isInRange(sender, recipient))
-                // Send message to filtered recipients and count them
-                .peek(recipient -> recipient.sendMessage(message))
-                .count();
+        // Group recipients by the variant they see, each variant is rendered once
+        BroadcastRenderer renderer = new BroadcastRenderer(config, message, channel.getId());
+        Set<String> mentionedNames = config.isMentionHighlightEnabled() ? findMentionedNames(facts) : Set.of();
+        boolean staffView = config.isStaffViewEnabled();
+        SpyCommand spyCommand = config.isSpyViewEnabled() ? plugin.getSpyCommand() : null;
+
+        // Radius channels only look at nearby players from the position index
+        List<Player> nearby = isRadiusChannel(channel)
+                ? playerGridIndex.getPlayersInRange(sender, channel.getRadius())
+                : null;
+        // Other channels start from the precomputed audience, skipping permission checks
+        ChannelAudienceIndex.ChannelAudience audience = channelManager.getAudienceIndex().getAudience(channel.getId());
+        Collection<? extends Player> candidates;
+        boolean allPlayersVisited = false;
+        if (nearby != null) {
+            candidates = nearby;
+        } else if (audience != null) {
+            candidates = audience.getReceivers();
+        } else {
+            candidates = Bukkit.getOnlinePlayers();
+            allPlayersVisited = true;
+        }
+
+        Map<BroadcastRenderer.Variant, List<Player>> groups = new HashMap<>();
+        int recipientCount = 0;
+        for (Player recipient : candidates) {
+            // Skip players ignoring the sender
+            if (!recipient.isOnline() || (ignoreCommand != null && ignoreCommand.isIgnoring(recipient, sender))) {
+                continue;
+            }
+
+            // Check channel-specific conditions, for local channels also check range
+            boolean canReceive = audience != null ? audience.isReceiver(recipient) : channel.canReceive(recipient);
+            boolean inAudience = canReceive
+                    && (nearby != null || channel.isGlobal() || channel.isInRange(sender, recipient));
+            boolean spying = !inAudience && spyCommand != null && recipient != sender && spyCommand.isSpying(recipient);
+            if (!inAudience && !spying) {
+                continue;
+            }
+            if (inAudience) {
+                recipientCount++;
+            }
+            addToVariantGroup(groups, recipient, mentionedNames, staffView, spying);
+        }
+
+        // Spies outside the audience were not among the candidates
+        if (!allPlayersVisited && spyCommand != null) {
+            Set<Player> visited = new HashSet<>(candidates);
+            for (Player spy : spyCommand.getSpyPlayers()) {
+                if (spy != sender && spy.isOnline() && !visited.contains(spy)
+                        && (ignoreCommand == null || !ignoreCommand.isIgnoring(spy, sender))) {
+                    addToVariantGroup(groups, spy, mentionedNames, staffView, true);
+                }
+            }
+        }
+
+        // Deliver each variant to its whole group at once
+        groups.forEach((variant, recipients) -> Audience.audience(recipients).sendMessage(renderer.render(variant)));
 
         // Return true if at least one player (other than sender) received the message
         // We subtract 1 because the sender is also counted in the recipients
         return recipientCount > 1;
     }
 
+    private void addToVariantGroup(Map<BroadcastRenderer.Variant, List<Player>> groups, Player recipient,
+                                   Set<String> mentionedNames, boolean staffView, boolean spying) {
+        String mentionedName = mentionedNames.contains(recipient.getName().toLowerCase()) ? recipient.getName() : null;
+        boolean staff = staffView && recipient.hasPermission("nonchat.staffview");
+        BroadcastRenderer.Variant variant = mentionedName == null && !staff && !spying
+                ? BroadcastRenderer.Variant.BASE
+                : new BroadcastRenderer.Variant(mentionedName, staff, spying);
+        groups.computeIfAbsent(variant, key -> new ArrayList<>()).add(recipient);
+    }
+
+    private boolean isRadiusChannel(Channel channel) {
+        return !channel.isGlobal() && !channel.isWorldSpecific() && channel.getRadius() > 0;
+    }
+
+    /**
+     * Finds the names mentioned in a message.
+     *
+     * @param facts Facts about the message to search
+     * @return Lowercase names of mentioned players
+     */
+    private Set<String> findMentionedNames(MessageFacts facts) {
+        List<String> mentions = facts.getMentions();
+        if (mentions.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<String> names = new HashSet<>();
+        for (String mention : mentions) {
+            names.add(mention.toLowerCase());
+        }
+        return names;
+    }
+
     /**
      * Sets a player's active channel.
      *
@@ -719,6 +909,55 @@ public class ChatManager {
         channelManager.loadChannels();
     }
 
+    /**
+     * Applies chat processing settings from config.
+     */
+    public void reloadProcessingSettings() {
+        wordBlocker = config.getWordBlocker();
+        adDetector = new AdDetector(config, config.getAntiAdSensitivity(), config.getAntiAdPunishCommand());
+        verdictCache.configure(config.isFilterCacheEnabled(), config.getFilterCacheMaxEntries(),
+                config.getFilterCacheExpireSeconds());
+        chatExecutor.reconfigure(config.getChatWorkerThreads(), config.getChatQueueCapacity(),
+                ChatExecutor.OverloadPolicy.fromConfig(config.getChatOverloadPolicy()));
+        asyncFilterService.setThreads(config.getFilterThreads());
+        channelManager.getAudienceIndex().setResyncInterval(config.getAudienceResyncSeconds());
+        configurePlaceholderCache();
+        HoverCardCache.setRefreshInterval(config.getHoverRefreshSeconds());
+    }
+
+    private void configurePlaceholderCache() {
+        PlaceholderCache.configure(config.isPlaceholderCacheEnabled(), config.getPlaceholderCacheDefaultTtlMillis(),
+                config.getPlaceholderCacheMaxEntries(), config.getPlaceholderCacheTtls(),
+                config.getPlaceholderCacheNeverCache());
+    }
+
+    /**
+     * Gets the index of player positions used by radius channels.
+     *
+     * @return The player grid index
+     */
+    public PlayerGridIndex getPlayerGridIndex() {
+        return playerGridIndex;
+    }
+
+    /**
+     * Gets the executor chat messages are processed on.
+     *
+     * @return The chat executor
+     */
+    public ChatExecutor getChatExecutor() {
+        return chatExecutor;
+    }
+
+    /**
+     * Gets the cache of content filter verdicts shared across players.
+     *
+     * @return The verdict cache
+     */
+    public FilterVerdictCache getVerdictCache() {
+        return verdictCache;
+    }
+
     /**
      * Creates a new channel with the specified properties.
      *
@@ -825,6 +1064,12 @@ public class ChatManager {
         }
         bubbles.values().forEach(DisplayEntityUtil::removeBubbles);
         bubbles.clear();
-        playerLocks.clear();
+        mailboxes.values().forEach(ChatMailbox::close);
+        mailboxes.clear();
+        chatExecutor.shutdown();
+        playerGridIndex.stop();
+        channelManager.getAudienceIndex().stop();
+        PlaceholderCache.invalidateAll();
+        HoverCardCache.stop();
     }
 }
@@ -39,13 +39,12 @@ public class MessageManager {
 
     public void sendPrivateMessage(Player sender, Player receiver, String message) {
         if (ignoreCommand != null && ignoreCommand.isIgnoring(receiver, sender)) {
-            sender.sendMessage(ColorUtil.parseComponentCached(messages.getString("ignored-by-target")));
+            sender.sendMessage(messages.getFormatted("ignored-by-target"));
             return;
         }
 
         if (ignoreCommand != null && ignoreCommand.isIgnoring(sender, receiver)) {
-            sender.sendMessage(ColorUtil.parseComponent(messages.getString("you-are-ignoring-player")
-                    .replace("{player}", receiver.getName())));
+            sender.sendMessage(messages.getFormatted("you-are-ignoring-player", "player", receiver.getName()));
             return;
         }
 
@@ -53,7 +52,7 @@ public class MessageManager {
         if (receiver == null || !receiver.isOnline()) {
             // Only show notification if enabled in config
             if (config.isUndeliveredMessageNotificationEnabled()) {
-                sender.sendMessage(ColorUtil.parseComponentCached(messages.getString("message-not-delivered")));
+                sender.sendMessage(messages.getFormatted("message-not-delivered"));
             }
             return;
         }
@@ -77,13 +76,13 @@ public class MessageManager {
         UUID lastSenderUUID = getLastMessageSender().get(sender.getUniqueId());
         if (lastSenderUUID == null) {
             plugin.logError("No last message sender found for player " + sender.getName());
-            sender.sendMessage(ColorUtil.parseComponent(messages.getString("no-reply-target")));
+            sender.sendMessage(messages.getFormatted("no-reply-target"));
             return;
         }
 
         Player receiver = Bukkit.getPlayer(lastSenderUUID);
         if (receiver == null || !receiver.isOnline()) {
-            sender.sendMessage(ColorUtil.parseComponentCached(messages.getString("player-offline")));
+            sender.sendMessage(messages.getFormatted("player-offline"));
             return;
         }
 
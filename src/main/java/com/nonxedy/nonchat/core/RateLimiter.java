@@ -0,0 +1,104 @@
+package com.nonxedy.nonchat.core;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limiting for chat, shared by channel cooldowns and flood detection.
+ * Every player has one bucket per limit key (a channel id, "flood", ...).
+ *
+ * A bucket holds up to burst tokens and regains one every interval. Buckets are
+ * stored as the single time at which they will be full again (the generic cell rate
+ * algorithm), so a check is one compare-and-set without locks. Players' buckets are
+ * dropped when they quit rather than by scanning.
+ */
+public class RateLimiter {
+
+    /**
+     * Bucket stored as the time it will be full again
+     */
+    private static final class TokenBucket {
+        // Theoretical arrival time of the next token, in milliseconds
+        private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+        boolean tryAcquire(long now, int burst, long intervalMillis) {
+            long tolerance = (burst - 1) * intervalMillis;
+            while (true) {
+                long current = fullAt.get();
+                long base = Math.max(current, now);
+                if (base - tolerance > now) {
+                    return false;
+                }
+                if (fullAt.compareAndSet(current, base + intervalMillis)) {
+                    return true;
+                }
+            }
+        }
+
+        long waitMillis(long now, int burst, long intervalMillis) {
+            long tolerance = (burst - 1) * intervalMillis;
+            long current = fullAt.get();
+            if (current == Long.MIN_VALUE) {
+                return 0;
+            }
+            return Math.max(0, current - tolerance - now);
+        }
+    }
+
+    private final Map<UUID, Map<String, TokenBucket>> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Takes a token from a player's bucket if one is available
+     * @param playerId The player
+     * @param key Which limit to apply
+     * @param burst Most messages allowed at once
+     * @param intervalMillis Time to regain one message
+     * @return true if the player may send, false if rate limited
+     */
+    public boolean tryAcquire(UUID playerId, String key, int burst, long intervalMillis) {
+        if (burst <= 0 || intervalMillis <= 0) {
+            return true;
+        }
+        return bucket(playerId, key).tryAcquire(System.currentTimeMillis(), burst, intervalMillis);
+    }
+
+    /**
+     * Gets how long until a player can send again
+     * @param playerId The player
+     * @param key Which limit to check
+     * @param burst Most messages allowed at once
+     * @param intervalMillis Time to regain one message
+     * @return Milliseconds until a token is available, 0 if one already is
+     */
+    public long getWaitMillis(UUID playerId, String key, int burst, long intervalMillis) {
+        if (burst <= 0 || intervalMillis <= 0) {
+            return 0;
+        }
+        Map<String, TokenBucket> playerBuckets = buckets.get(playerId);
+        TokenBucket bucket = playerBuckets != null ? playerBuckets.get(key) : null;
+        return bucket != null ? bucket.waitMillis(System.currentTimeMillis(), burst, intervalMillis) : 0;
+    }
+
+    private TokenBucket bucket(UUID playerId, String key) {
+        // Players rarely use more than a couple of limits
+        return buckets.computeIfAbsent(playerId, id -> new ConcurrentHashMap<>(4))
+                .computeIfAbsent(key, k -> new TokenBucket());
+    }
+
+    /**
+     * Drops all buckets of a player
+     * @param playerId The player who left
+     */
+    public void removePlayer(UUID playerId) {
+        buckets.remove(playerId);
+    }
+
+    /**
+     * Drops all buckets
+     */
+    public void clear() {
+        buckets.clear();
+    }
+}
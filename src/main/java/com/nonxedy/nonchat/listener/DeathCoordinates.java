@@ -12,6 +12,8 @@ import com.nonxedy.nonchat.config.DeathConfig;
 import com.nonxedy.nonchat.config.PluginMessages;
 import com.nonxedy.nonchat.util.core.colors.ColorUtil;
 
+import net.kyori.adventure.text.Component;
+
 /**
  * Handles death location tracking and messaging
  * Provides players with their death coordinates
@@ -40,15 +42,25 @@ public class DeathCoordinates implements Listener {
         
         // Only send coordinates if enabled in deaths.yml config
         if (deathConfig.showCoordinates()) {
-            String coordsMessage = String.format(
-                messages.getString("death-coordinates"),
-                formatDimension(dimension),
-                deathLoc.getBlockX(),
-                deathLoc.getBlockY(),
-                deathLoc.getBlockZ()
-            );
-            
-            player.sendMessage(ColorUtil.parseComponent(coordsMessage));
+            String coordsMessage = messages.getString("death-coordinates");
+            // Language files created before the message had slots still use printf placeholders
+            if (coordsMessage.contains("%s")) {
+                String dimensionKey = dimensionKey(dimension);
+                player.sendMessage(ColorUtil.parseComponent(String.format(
+                    coordsMessage,
+                    dimensionKey != null ? messages.getString(dimensionKey) : dimension.toString(),
+                    deathLoc.getBlockX(),
+                    deathLoc.getBlockY(),
+                    deathLoc.getBlockZ()
+                )));
+                return;
+            }
+
+            player.sendMessage(messages.getFormatted("death-coordinates",
+                "dimension", formatDimension(dimension),
+                "x", deathLoc.getBlockX(),
+                "y", deathLoc.getBlockY(),
+                "z", deathLoc.getBlockZ()));
         }
     }
     
@@ -57,12 +69,17 @@ public class DeathCoordinates implements Listener {
      * @param dimension World environment type
      * @return Localized dimension name
      */
-    private String formatDimension(Environment dimension) {
+    private Component formatDimension(Environment dimension) {
+        String key = dimensionKey(dimension);
+        return key != null ? messages.getFormatted(key) : Component.text(dimension.toString());
+    }
+
+    private static String dimensionKey(Environment dimension) {
         return switch (dimension) {
-            case NORMAL -> messages.getString("dimension-overworld");
-            case NETHER -> messages.getString("dimension-nether");
-            case THE_END -> messages.getString("dimension-end");
-            default -> dimension.toString();
+            case NORMAL -> "dimension-overworld";
+            case NETHER -> "dimension-nether";
+            case THE_END -> "dimension-end";
+            default -> null;
         };
     }
 }
@@ -55,10 +55,10 @@ public class DiscordSRVListener implements Listener {
         }
 
         // Determine which channel handles this message
-        Channel channel = chatManager.getChannelManager().getChannelForMessage(message);
+        Channel channel = chatManager.getChannelManager().findChannelForMessage(message);
         
-        // If the channel has a prefix and the message starts with it, remove the prefix
-        if (channel != null && channel.hasPrefix() && message.startsWith(channel.getPrefix())) {
+        // If the channel was found by its prefix, remove the prefix
+        if (channel != null) {
             message = message.substring(channel.getPrefix().length());
         }
         
@@ -0,0 +1,39 @@
+package com.nonxedy.nonchat.listener;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLevelChangeEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import com.nonxedy.nonchat.util.chat.formatting.HoverCardCache;
+
+/**
+ * Keeps pre-rendered hover cards up to date.
+ * Cards are built when players join and rebuilt when the data they show changes.
+ * Prefix changes arrive through LuckPermsHook.
+ */
+public class HoverCardListener implements Listener {
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        HoverCardCache.refresh(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        HoverCardCache.invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        HoverCardCache.refresh(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLevelChange(PlayerLevelChangeEvent event) {
+        HoverCardCache.refresh(event.getPlayer());
+    }
+}
@@ -16,6 +16,7 @@ import org.bukkit.event.player.PlayerQuitEvent;
 
 import com.nonxedy.nonchat.chat.channel.ChannelManager;
 import com.nonxedy.nonchat.config.PluginConfig;
+import com.nonxedy.nonchat.core.ChatManager;
 import com.nonxedy.nonchat.util.chat.packets.DisplayEntityUtil;
 import com.nonxedy.nonchat.util.core.colors.ColorUtil;
 
@@ -28,12 +29,14 @@ import me.clip.placeholderapi.PlaceholderAPI;
 public class JoinQuitListener implements Listener {
     
     private final PluginConfig config;
+    private final ChatManager chatManager;
     private final ChannelManager channelManager;
     private final Map<Player, List<TextDisplay>> bubbles = new HashMap<>();
     
-    public JoinQuitListener(PluginConfig config, ChannelManager channelManager) {
+    public JoinQuitListener(PluginConfig config, ChatManager chatManager) {
         this.config = config;
-        this.channelManager = channelManager;
+        this.chatManager = chatManager;
+        this.channelManager = chatManager.getChannelManager();
     }
 
     /**
@@ -102,6 +105,9 @@ public class JoinQuitListener implements Listener {
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
         
+        // Drop the player's chat mailbox
+        chatManager.cleanupPlayer(player);
+
         // Clean up player data from ChannelManager to prevent memory leaks
         if (channelManager != null) {
             channelManager.cleanupPlayer(player);
@@ -1,7 +1,6 @@
 package com.nonxedy.nonchat.listener;
 
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.entity.Player;
@@ -96,16 +95,15 @@ public class PaperChatListener extends ChatListener {
         final String message = playerMessages.remove(playerId); // Remove to prevent memory leaks
         final String finalMessage = message != null ? message : PlainTextComponentSerializer.plainText().serialize(event.message());
 
-        CompletableFuture.runAsync(() -> {
-            try {
-                if (chatService != null) {
-                    chatService.handleChat(player, finalMessage);
-                } else if (chatManager != null) {
-                    chatManager.processChat(player, finalMessage);
-                }
-            } catch (Exception e) {
-                plugin.logError("Async chat processing failed: " + e.getMessage());
+        // Hand off to the chat executor; this only enqueues and never blocks the event thread
+        try {
+            if (chatService != null) {
+                chatService.handleChat(player, finalMessage);
+            } else if (chatManager != null) {
+                chatManager.processChat(player, finalMessage);
             }
-        });
+        } catch (Exception e) {
+            plugin.logError("Async chat processing failed: " + e.getMessage());
+        }
     }
 }
@@ -0,0 +1,27 @@
+package com.nonxedy.nonchat.listener;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import com.nonxedy.nonchat.util.integration.external.PlaceholderCache;
+
+/**
+ * Drops cached placeholder values of a player when they are likely to change.
+ * World placeholders change on world change, and nothing of a player who left is
+ * needed anymore. LuckPerms recalculation is handled by LuckPermsHook.
+ */
+public class PlaceholderCacheListener implements Listener {
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        PlaceholderCache.invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        PlaceholderCache.invalidate(event.getPlayer().getUniqueId());
+    }
+}
@@ -1,59 +1,297 @@
 package com.nonxedy.nonchat.util;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
 
 import org.bukkit.entity.Player;
 
 import com.nonxedy.nonchat.Nonchat;
-import com.nonxedy.nonchat.util.chat.filters.AdDetector;
 
 /**
- * Asynchronous service for processing heavy chat filters
- * Prevents main thread blocking during filter operations
- * 
- * TODO: This service is instantiated but never actually used in ChatManager 🙋‍♀️
- *       Either wire it up to run filter checks asynchronously,
- *       or just get rid of it if it's not pulling its weight.
- *       If we do end up using it, adding a cache (e.g. Caffeine)
- *       would be a good idea to avoid re-checking the same messages
- *       over and over again.
+ * Runs chat filters as a non-blocking chain.
+ * Cheap filters run inline on the calling thread in the order they were added and
+ * stop the chain on the first block, so expensive filters are never scheduled for
+ * messages that are already rejected. Expensive filters then run in parallel on the
+ * filter threads, each with its own time budget and failure policy. The budget starts
+ * when a filter starts running, and filters that can't be queued block the message.
  */
 public class AsyncFilterService {
 
-    private final ExecutorService filterExecutor;
-    private final AdDetector adDetector;
+    /**
+     * What to do when a filter throws or runs out of time
+     */
+    public enum FailurePolicy {
+        /** Let the message through */
+        OPEN,
+        /** Block the message */
+        CLOSED;
+
+        /**
+         * Parses a policy from its config name
+         * @param name Policy name (open, closed)
+         * @return Matching policy, OPEN if unknown
+         */
+        public static FailurePolicy fromConfig(String name) {
+            if (name != null && name.trim().equalsIgnoreCase("closed")) {
+                return CLOSED;
+            }
+            return OPEN;
+        }
+    }
+
+    /**
+     * A single filter in the chain
+     */
+    public static final class FilterStep {
+        private final String name;
+        private final boolean inline;
+        private final long timeoutMillis;
+        private final FailurePolicy failurePolicy;
+        private final BiPredicate<Player, String> check;
+        private final Runnable onBlocked;
+
+        private FilterStep(String name, boolean inline, long timeoutMillis, FailurePolicy failurePolicy,
+                           BiPredicate<Player, String> check, Runnable onBlocked) {
+            this.name = name;
+            this.inline = inline;
+            this.timeoutMillis = timeoutMillis;
+            this.failurePolicy = failurePolicy;
+            this.check = check;
+            this.onBlocked = onBlocked;
+        }
+
+        /**
+         * Creates a cheap filter that runs on the calling thread.
+         * Its budget is not enforced, overruns are only reported.
+         * @param name Filter name used in logs
+         * @param timeoutMillis Time budget in milliseconds
+         * @param failurePolicy Policy applied if the check throws
+         * @param check Returns true if the message should be blocked
+         * @param onBlocked Called once if this filter blocks the message
+         * @return The filter step
+         */
+        public static FilterStep inline(String name, long timeoutMillis, FailurePolicy failurePolicy,
+                                        BiPredicate<Player, String> check, Runnable onBlocked) {
+            return new FilterStep(name, true, timeoutMillis, failurePolicy, check, onBlocked);
+        }
+
+        /**
+         * Creates an expensive filter that runs on the filter threads.
+         * The check is abandoned once its budget runs out, counted from the moment it starts.
+         * @param name Filter name used in logs
+         * @param timeoutMillis Time budget in milliseconds
+         * @param failurePolicy Policy applied if the check throws or times out
+         * @param check Returns true if the message should be blocked
+         * @param onBlocked Called once if this filter blocks the message
+         * @return The filter step
+         */
+        public static FilterStep async(String name, long timeoutMillis, FailurePolicy failurePolicy,
+                                       BiPredicate<Player, String> check, Runnable onBlocked) {
+            return new FilterStep(name, false, timeoutMillis, failurePolicy, check, onBlocked);
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Outcome of running a filter chain
+     */
+    public static final class FilterResult {
+        private static final FilterResult ALLOWED = new FilterResult(null);
+
+        private final String blockedBy;
+
+        private FilterResult(String blockedBy) {
+            this.blockedBy = blockedBy;
+        }
+
+        public boolean isAllowed() {
+            return blockedBy == null;
+        }
+
+        /**
+         * Gets the name of the filter that blocked the message
+         * @return Filter name, or null if the message was allowed
+         */
+        public String getBlockedBy() {
+            return blockedBy;
+        }
+    }
+
+    // Checks waiting for a filter thread, more than this and messages are blocked
+    private static final int QUEUE_CAPACITY = 256;
+
+    private final ThreadPoolExecutor filterExecutor;
     private final Nonchat plugin;
 
-    public AsyncFilterService(Nonchat plugin, AdDetector adDetector) {
+    public AsyncFilterService(Nonchat plugin, int threads) {
         this.plugin = plugin;
-        this.adDetector = adDetector;
-
-        // Use cached thread pool for dynamic scaling
-        this.filterExecutor = Executors.newCachedThreadPool(r -> {
-            Thread thread = new Thread(r, "nonchat-filter-" + System.currentTimeMillis());
-            thread.setDaemon(true);
-            return thread;
-        });
+
+        int poolSize = Math.max(1, threads);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.filterExecutor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread thread = new Thread(r, "nonchat-filter-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
     }
 
     /**
-     * Asynchronously checks if a message should be filtered
+     * Runs a filter chain for a message
      * @param player The player sending the message
      * @param message The message content
-     * @return CompletableFuture with filter result
+     * @param steps Filters to run, cheap ones are always run before expensive ones
+     * @return Future completed with the chain result, never completed exceptionally
      */
-    public CompletableFuture<Boolean> shouldFilterAsync(Player player, String message) {
-        return CompletableFuture.supplyAsync(() -> {
+    public CompletableFuture<FilterResult> filter(Player player, String message, List<FilterStep> steps) {
+        List<FilterStep> deferred = new ArrayList<>();
+
+        for (FilterStep step : steps) {
+            if (!step.inline) {
+                deferred.add(step);
+                continue;
+            }
+            if (runInline(step, player, message)) {
+                step.onBlocked.run();
+                return CompletableFuture.completedFuture(new FilterResult(step.name));
+            }
+        }
+
+        if (deferred.isEmpty()) {
+            return CompletableFuture.completedFuture(FilterResult.ALLOWED);
+        }
+        return runDeferred(deferred, player, message);
+    }
+
+    /**
+     * Runs a cheap filter on the calling thread
+     * @return true if the message should be blocked
+     */
+    private boolean runInline(FilterStep step, Player player, String message) {
+        long start = System.nanoTime();
+        boolean blocked;
+        try {
+            blocked = step.check.test(player, message);
+        } catch (Exception e) {
+            blocked = handleFailure(step, player, e);
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (elapsedMillis > step.timeoutMillis) {
+            plugin.logError("Filter " + step.name + " took " + elapsedMillis + "ms for player " + player.getName()
+                    + ", budget is " + step.timeoutMillis + "ms");
+        }
+        return blocked;
+    }
+
+    /**
+     * Runs expensive filters in parallel, completing as soon as one blocks or all allow
+     */
+    private CompletableFuture<FilterResult> runDeferred(List<FilterStep> deferred, Player player, String message) {
+        CompletableFuture<FilterResult> result = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(deferred.size());
+        List<CompletableFuture<Boolean>> running = new ArrayList<>(deferred.size());
+
+        for (FilterStep step : deferred) {
+            CompletableFuture<Boolean> future = new CompletableFuture<>();
+            running.add(future);
             try {
-                return adDetector.shouldFilter(player, message);
-            } catch (Exception e) {
-                // Log error and allow message through on filter failure
-                plugin.logError("Error in async filter check for player " + player.getName() + ": " + e.getMessage());
-                return false;
+                filterExecutor.execute(() -> runStep(step, future, result, player, message));
+            } catch (RejectedExecutionException e) {
+                future.completeExceptionally(e);
             }
-        }, filterExecutor);
+        }
+
+        for (int i = 0; i < deferred.size(); i++) {
+            FilterStep step = deferred.get(i);
+            running.get(i).whenComplete((blocked, error) -> {
+                boolean block = error != null ? handleFailure(step, player, error) : blocked;
+                if (block) {
+                    if (result.complete(new FilterResult(step.name))) {
+                        step.onBlocked.run();
+                        running.forEach(future -> future.cancel(false));
+                    }
+                } else if (remaining.decrementAndGet() == 0) {
+                    result.complete(FilterResult.ALLOWED);
+                }
+            });
+        }
+
+        return result;
+    }
+
+    /**
+     * Runs an expensive filter on a filter thread
+     */
+    private void runStep(FilterStep step, CompletableFuture<Boolean> future, CompletableFuture<FilterResult> result,
+                         Player player, String message) {
+        // Skip the work if the step was cancelled or another filter already decided
+        if (future.isDone() || result.isDone()) {
+            future.complete(false);
+            return;
+        }
+        // The budget starts now, time spent waiting for a thread doesn't count
+        future.orTimeout(step.timeoutMillis, TimeUnit.MILLISECONDS);
+        try {
+            future.complete(step.check.test(player, message));
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Applies the failure policy of a filter that threw or timed out
+     * @return true if the message should be blocked
+     */
+    private boolean handleFailure(FilterStep step, Player player, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CancellationException) {
+            // Cancelled because another filter already blocked the message
+            return false;
+        }
+
+        if (cause instanceof RejectedExecutionException) {
+            // Overloaded, most likely by a message flood, so adverts must not slip through
+            plugin.logError("Filter queue is full, filter " + step.name + " blocked the message from player "
+                    + player.getName());
+            return true;
+        }
+        if (cause instanceof TimeoutException) {
+            plugin.logError("Filter " + step.name + " timed out after " + step.timeoutMillis + "ms for player "
+                    + player.getName() + ", failing " + step.failurePolicy.name().toLowerCase());
+        } else {
+            plugin.logError("Error in filter " + step.name + " for player " + player.getName() + ": "
+                    + cause.getMessage() + ", failing " + step.failurePolicy.name().toLowerCase());
+        }
+        return step.failurePolicy == FailurePolicy.CLOSED;
+    }
+
+    /**
+     * Changes the number of filter threads
+     * @param threads New thread count
+     */
+    public void setThreads(int threads) {
+        int poolSize = Math.max(1, threads);
+        if (poolSize > filterExecutor.getMaximumPoolSize()) {
+            filterExecutor.setMaximumPoolSize(poolSize);
+            filterExecutor.setCorePoolSize(poolSize);
+        } else {
+            filterExecutor.setCorePoolSize(poolSize);
+            filterExecutor.setMaximumPoolSize(poolSize);
+        }
     }
 
     /**
@@ -1,27 +1,26 @@
 package com.nonxedy.nonchat.util.chat.filters;
 
-import java.util.List;
 import java.util.logging.Level;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
 import com.nonxedy.nonchat.api.MessageFilter;
 import com.nonxedy.nonchat.config.PluginConfig;
+import com.nonxedy.nonchat.util.chat.filters.AddressTokenizer.Address;
 
 import me.clip.placeholderapi.PlaceholderAPI;
 
 public class AdDetector implements MessageFilter {
-    private static final Pattern pattern = Pattern.compile("([\\w+]+://)?([\\w-]+\\.)*[\\w-]+[.:]\\w+([/?=&#.]?[\\w-]+)*/?", Pattern.CASE_INSENSITIVE);
+    // Above this sensitivity any alphabetic top-level domain counts, not only common ones
+    private static final float ANY_TLD_SENSITIVITY = 0.8f;
 
-    private final List<String> whitelistedUrls;
+    private final DomainWhitelist whitelist;
     private final float sensitivity;
     private final String punishCommand;
 
     public AdDetector(PluginConfig config, float sensitivity, String punishCommand) {
-        this.whitelistedUrls = config.getAntiAdWhitelistedUrls();
+        this.whitelist = new DomainWhitelist(config.getAntiAdWhitelistedUrls());
         this.sensitivity = Math.max(0f, Math.min(1f, sensitivity));
         this.punishCommand = punishCommand;
     }
@@ -32,35 +31,69 @@ public class AdDetector implements MessageFilter {
             return false;
         }
 
-        Matcher matcher = pattern.matcher(message);
-        while (matcher.find()) {
-            String matched = matcher.group();
-            if (!isWhitelisted(matched)) {
-                notifyStaff(player, message);
-                return true;
-            }
+        if (containsAdvertisement(message)) {
+            reportAdvertisement(player, message);
+            return true;
         }
+        if (containsPossibleAdvertisement(message)) {
+            reportPossibleAdvertisement(player, message);
+        }
+        return false;
+    }
 
-        // Additional checks based on sensitivity
-        if (sensitivity > 0.5f) {
-            if (detectCommonAdTerms(message)) {
-                notifyStaff(player, message);
+    /**
+     * Checks a message for advertisements without notifying anyone.
+     * Only depends on the message text, so the result can be shared between players.
+     * @param message The message to check
+     * @return true if the message advertises something
+     */
+    public boolean containsAdvertisement(String message) {
+        for (Address address : AddressTokenizer.tokenize(message, sensitivity > ANY_TLD_SENSITIVITY)) {
+            if (!address.isUncertain() && !whitelist.isWhitelisted(address.getHost(), address.getPath())) {
                 return true;
             }
         }
 
-        return false;
+        // Additional checks based on sensitivity
+        return sensitivity > 0.5f && detectCommonAdTerms(message);
     }
 
-    private boolean isWhitelisted(String url) {
-        for (String whitelisted : whitelistedUrls) {
-            if (url.equals(whitelisted)) {
+    /**
+     * Checks a message for addresses that may just as well be a sentence, like "the dot com bubble".
+     * Only depends on the message text, so the result can be shared between players.
+     * @param message The message to check
+     * @return true if staff should have a look at the message
+     */
+    public boolean containsPossibleAdvertisement(String message) {
+        for (Address address : AddressTokenizer.tokenize(message, sensitivity > ANY_TLD_SENSITIVITY)) {
+            if (address.isUncertain() && !whitelist.isWhitelisted(address.getHost(), address.getPath())) {
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Notifies staff and runs the punish command for an advertisement
+     * @param player The player who posted it
+     * @param message The message
+     */
+    public void reportAdvertisement(Player player, String message) {
+        notifyStaff(String.format("§#FFAFFB[nonchat] §f%s posted advertisement: §#ff0000%s",
+                player.getName(), message));
+        punish(player);
+    }
+
+    /**
+     * Notifies staff of a possible advertisement without punishing the player
+     * @param player The player who posted it
+     * @param message The message
+     */
+    public void reportPossibleAdvertisement(Player player, String message) {
+        notifyStaff(String.format("§#FFAFFB[nonchat] §f%s may have posted an advertisement: §#FFAA00%s",
+                player.getName(), message));
+    }
+
     private boolean detectCommonAdTerms(String message) {
         String lower = message.toLowerCase();
         return lower.contains("join") && lower.contains("server") ||
@@ -81,17 +114,16 @@ public class AdDetector implements MessageFilter {
         }
     }
 
-    private void notifyStaff(Player player, String message) {
-        String notification = String.format("§#FFAFFB[nonchat] §f%s posted advertisement: §#ff0000%s", 
-                player.getName(), message);
-        
+    private void notifyStaff(String notification) {
         Bukkit.getOnlinePlayers().stream()
             .filter(p -> p.hasPermission("nonchat.ad.notify") || p.isOp())
             .forEach(p -> p.sendMessage(notification));
             
         // Log to console
         Bukkit.getConsoleSender().sendMessage(notification);
-        
+    }
+
+    private void punish(Player player) {
         // Execute configured punishment command with resolved placeholders
         if (punishCommand != null && !punishCommand.isEmpty()) {
             String resolvedCommand = resolvePlaceholders(player, punishCommand);
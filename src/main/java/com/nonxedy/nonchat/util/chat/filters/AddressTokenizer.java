@@ -0,0 +1,355 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Finds web addresses in chat messages in a single pass.
+ * Recognizes URLs with a scheme, bare domains, IPv4 addresses and host:port pairs,
+ * including hosts written with spaced-out dots such as "play . example . net" or
+ * spelled-out dots such as "play(dot)example(dot)net" and "play dot example dot net".
+ * Such hosts also show up in normal sentences ("polka dot dress", "wait . it works"),
+ * so they are only reported with a scheme, a port or a common top-level domain
+ * that isn't also an everyday word. A host spelled out with " dot " that is only a
+ * common word and a top-level domain ("the dot com bubble") is reported as uncertain.
+ * Every character is read a bounded number of times, so the cost only depends on
+ * the message length.
+ */
+public final class AddressTokenizer {
+
+    // Top-level domains common enough in server adverts to flag without a scheme or port
+    private static final Set<String> KNOWN_TLDS = Set.of(
+        "com", "net", "org", "info", "biz", "io", "gg", "me", "co", "cc", "tv", "ws", "pw", "mc",
+        "xyz", "top", "lol", "fun", "site", "online", "store", "shop", "club", "live", "world",
+        "host", "cloud", "space", "games", "network", "pro", "icu", "buzz", "link", "click",
+        "ru", "su", "ua", "by", "kz", "de", "uk", "us", "eu", "fr", "es", "it", "nl", "pl",
+        "br", "ca", "au", "in", "jp", "cn", "tk", "ml", "ga", "cf", "gq"
+    );
+
+    // Known top-level domains that are also everyday words, only trusted after a plain dot
+    private static final Set<String> WORD_TLDS = Set.of(
+        "me", "co", "in", "by", "us", "it", "es", "pro", "fun", "live", "world", "link", "click",
+        "top", "store", "shop", "club", "host", "cloud", "space", "games", "network", "site", "online"
+    );
+
+    // Words that start sentences like "the dot com bubble" or "a dot net developer"
+    private static final Set<String> COMMON_WORDS = Set.of(
+        "a", "an", "the", "this", "that", "these", "those", "my", "your", "his", "her", "our", "their",
+        "its", "it", "i", "you", "he", "she", "we", "they", "me", "us", "him", "them", "some", "any",
+        "no", "every", "each", "one", "is", "was", "be", "to", "of", "in", "on", "at", "by", "for",
+        "with", "and", "or", "but", "so", "old", "new", "big", "real", "whole", "first", "last"
+    );
+
+    // Spelled-out dots, matched case-insensitively
+    private static final String[] WORD_DOTS = {"(dot)", "[dot]", "{dot}", "(.)", "[.]", "{.}"};
+
+    private static final int MAX_LABEL_LENGTH = 63;
+    private static final int MAX_SPACES_AROUND_DOT = 2;
+
+    /**
+     * Address found in a message
+     */
+    public static final class Address {
+        private final String host;
+        private final int port;
+        private final String path;
+        private final boolean scheme;
+        private final boolean obfuscated;
+        private final boolean ip;
+        private final boolean uncertain;
+
+        private Address(String host, int port, String path, boolean scheme, boolean obfuscated, boolean ip,
+                        boolean uncertain) {
+            this.host = host;
+            this.port = port;
+            this.path = path;
+            this.scheme = scheme;
+            this.obfuscated = obfuscated;
+            this.ip = ip;
+            this.uncertain = uncertain;
+        }
+
+        /**
+         * @return Lowercase host with plain dots
+         */
+        public String getHost() {
+            return host;
+        }
+
+        /**
+         * @return Port, or -1 if none was given
+         */
+        public int getPort() {
+            return port;
+        }
+
+        /**
+         * @return Path after the host including the leading slash, empty if none
+         */
+        public String getPath() {
+            return path;
+        }
+
+        public boolean hasScheme() {
+            return scheme;
+        }
+
+        /**
+         * @return true if the host was written with spaced-out or spelled-out dots
+         */
+        public boolean isObfuscated() {
+            return obfuscated;
+        }
+
+        public boolean isIpAddress() {
+            return ip;
+        }
+
+        /**
+         * @return true if the address may just as well be a sentence, like "the dot com bubble"
+         */
+        public boolean isUncertain() {
+            return uncertain;
+        }
+
+        @Override
+        public String toString() {
+            return host + (port >= 0 ? ":" + port : "") + path;
+        }
+    }
+
+    private AddressTokenizer() {
+    }
+
+    /**
+     * Finds all addresses in a message
+     * @param message The message to scan
+     * @param anyTld Accept any alphabetic top-level domain, not only common ones
+     * @return Addresses in the order they appear
+     */
+    public static List<Address> tokenize(String message, boolean anyTld) {
+        if (message == null || message.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Address> addresses = null;
+        List<String> labels = new ArrayList<>(4);
+        int length = message.length();
+        int i = 0;
+        while (i < length) {
+            if (!isLabelChar(message.charAt(i))) {
+                i++;
+                continue;
+            }
+
+            int start = i;
+            boolean scheme = false;
+            int labelEnd = labelEnd(message, i);
+
+            // scheme://host
+            if (message.startsWith("://", labelEnd) && labelEnd + 3 < length && isLabelChar(message.charAt(labelEnd + 3))) {
+                scheme = true;
+                i = labelEnd + 3;
+                labelEnd = labelEnd(message, i);
+            }
+
+            labels.clear();
+            labels.add(message.substring(i, labelEnd).toLowerCase(Locale.ROOT));
+            boolean obfuscated = false;
+            boolean spelledOutDot = false;
+            int end = labelEnd;
+            while (end < length) {
+                int separatorEnd = dotEnd(message, end);
+                if (separatorEnd < 0 || separatorEnd >= length || !isLabelChar(message.charAt(separatorEnd))) {
+                    break;
+                }
+                // Anything but a plain dot between two labels is written to dodge filters
+                if (separatorEnd != end + 1 || message.charAt(end) != '.') {
+                    obfuscated = true;
+                    spelledOutDot |= isSpelledOutDot(message, end, separatorEnd);
+                }
+                int nextEnd = labelEnd(message, separatorEnd);
+                labels.add(message.substring(separatorEnd, nextEnd).toLowerCase(Locale.ROOT));
+                end = nextEnd;
+            }
+
+            // Optional :port and /path, written without spaces
+            int port = -1;
+            if (end + 1 < length && message.charAt(end) == ':' && isDigit(message.charAt(end + 1))) {
+                int portEnd = end + 1;
+                while (portEnd < length && isDigit(message.charAt(portEnd))) {
+                    portEnd++;
+                }
+                int digits = portEnd - end - 1;
+                if (digits <= 5 && (portEnd >= length || !isLabelChar(message.charAt(portEnd)))) {
+                    int value = Integer.parseInt(message, end + 1, portEnd, 10);
+                    if (value <= 65535) {
+                        port = value;
+                        end = portEnd;
+                    }
+                }
+            }
+            String path = "";
+            if (labels.size() > 1 && end < length && message.charAt(end) == '/') {
+                int pathEnd = end;
+                while (pathEnd < length && !Character.isWhitespace(message.charAt(pathEnd))) {
+                    pathEnd++;
+                }
+                path = message.substring(end, pathEnd);
+                end = pathEnd;
+            }
+
+            Address address = toAddress(labels, port, path, scheme, obfuscated, spelledOutDot, anyTld);
+            if (address != null) {
+                if (addresses == null) {
+                    addresses = new ArrayList<>(2);
+                }
+                addresses.add(address);
+            }
+            i = Math.max(end, start + 1);
+        }
+
+        return addresses != null ? addresses : Collections.emptyList();
+    }
+
+    private static Address toAddress(List<String> labels, int port, String path, boolean scheme,
+                                     boolean obfuscated, boolean spelledOutDot, boolean anyTld) {
+        if (labels.size() < 2) {
+            return null;
+        }
+
+        String host = String.join(".", labels);
+        if (labels.size() == 4 && isIpv4(labels)) {
+            return new Address(host, port, path, scheme, obfuscated, true, false);
+        }
+
+        String tld = labels.get(labels.size() - 1);
+        if (!isAlphabetic(tld) || tld.length() < 2 || tld.length() > 24) {
+            return null;
+        }
+        // Words separated by a dot are only an address if something else says so
+        boolean flagged;
+        if (obfuscated) {
+            flagged = scheme || port >= 0 || (KNOWN_TLDS.contains(tld) && !WORD_TLDS.contains(tld));
+        } else {
+            flagged = scheme || port >= 0 || anyTld || KNOWN_TLDS.contains(tld) || labels.get(0).equals("www");
+        }
+        if (!flagged) {
+            return null;
+        }
+        // "the dot com bubble": a common word and a top-level domain, with nothing else pointing to an address
+        boolean uncertain = spelledOutDot && !scheme && port < 0 && labels.size() < 3
+                && COMMON_WORDS.contains(labels.get(0));
+        return new Address(host, port, path, scheme, obfuscated, false, uncertain);
+    }
+
+    /**
+     * Checks if a separator is the bare word "dot" with spaces around it
+     */
+    private static boolean isSpelledOutDot(String text, int start, int end) {
+        int from = start;
+        int to = end;
+        while (from < to && text.charAt(from) == ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) == ' ') {
+            to--;
+        }
+        return to - from == 3 && text.regionMatches(true, from, "dot", 0, 3);
+    }
+
+    /**
+     * Gets where a dot, spaced-out dot or spelled-out dot starting at an index ends
+     * @return Index after the separator and any spaces around it, -1 if there is none
+     */
+    private static int dotEnd(String text, int index) {
+        int length = text.length();
+        int i = index;
+        int spaces = 0;
+        while (i < length && text.charAt(i) == ' ' && spaces < MAX_SPACES_AROUND_DOT) {
+            i++;
+            spaces++;
+        }
+        if (i >= length) {
+            return -1;
+        }
+
+        int spacesBefore = spaces;
+        int afterDot = -1;
+        char c = text.charAt(i);
+        if (c == '.' || c == '。' || c == '．' || c == '｡') {
+            // A dot followed by a space ends a sentence, unless it is spaced out on both sides
+            if (spacesBefore == 0 && i + 1 < length && text.charAt(i + 1) == ' ') {
+                return -1;
+            }
+            afterDot = i + 1;
+        } else {
+            for (String word : WORD_DOTS) {
+                if (text.regionMatches(true, i, word, 0, word.length())) {
+                    afterDot = i + word.length();
+                    break;
+                }
+            }
+            // " dot " needs the spaces so words like "dotnet" aren't split
+            if (afterDot < 0 && spaces > 0 && text.regionMatches(true, i, "dot ", 0, 4)) {
+                afterDot = i + 3;
+            }
+        }
+        if (afterDot < 0) {
+            return -1;
+        }
+
+        int j = afterDot;
+        spaces = 0;
+        while (j < length && text.charAt(j) == ' ' && spaces < MAX_SPACES_AROUND_DOT) {
+            j++;
+            spaces++;
+        }
+        return j;
+    }
+
+    private static int labelEnd(String text, int index) {
+        int end = index;
+        while (end < text.length() && isLabelChar(text.charAt(end)) && end - index < MAX_LABEL_LENGTH) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isLabelChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == '_';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAlphabetic(String label) {
+        for (int i = 0; i < label.length(); i++) {
+            if (!Character.isLetter(label.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isIpv4(List<String> labels) {
+        for (String label : labels) {
+            if (label.isEmpty() || label.length() > 3) {
+                return false;
+            }
+            for (int i = 0; i < label.length(); i++) {
+                if (!isDigit(label.charAt(i))) {
+                    return false;
+                }
+            }
+            if (Integer.parseInt(label) > 255) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,228 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.bukkit.Bukkit;
+
+/**
+ * Checks messages against the banned regex patterns.
+ * Patterns are compiled and validated once when the config is loaded. Every pattern
+ * runs with a budget of characters it may read per message, so a pattern that
+ * backtracks badly gives up instead of stalling the filter threads.
+ */
+public class BannedPatternMatcher {
+
+    // Chat-length inputs that make nested or stacked quantifiers like .*a.*b.*c backtrack
+    private static final String[] PROBES = {
+        "a".repeat(255) + "!",
+        "ab".repeat(127) + "!",
+        "1".repeat(255) + "!",
+        "a ".repeat(127) + "!",
+        " ".repeat(255) + "!"
+    };
+
+    private static final class CompiledPattern {
+        private final String source;
+        private final Pattern pattern;
+        // Warn about a pattern running out of budget only once
+        private final AtomicBoolean budgetWarned = new AtomicBoolean();
+
+        private CompiledPattern(String source, Pattern pattern) {
+            this.source = source;
+            this.pattern = pattern;
+        }
+    }
+
+    /**
+     * Thrown when a pattern reads more characters than its budget allows
+     */
+    private static final class BudgetExceededException extends RuntimeException {
+        private static final BudgetExceededException INSTANCE = new BudgetExceededException();
+
+        private BudgetExceededException() {
+            super("Step budget exceeded", null, false, false);
+        }
+    }
+
+    /**
+     * Message view that counts character reads and stops the regex engine past a limit
+     */
+    private static final class BudgetedText implements CharSequence {
+        private final CharSequence text;
+        private final int limit;
+        private int steps;
+
+        private BudgetedText(CharSequence text, int limit) {
+            this.text = text;
+            this.limit = limit;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (++steps > limit) {
+                throw BudgetExceededException.INSTANCE;
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return text.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+
+    private final List<CompiledPattern> patterns;
+    private final List<String> rejected;
+    private final int stepLimit;
+
+    /**
+     * Compiles and validates banned patterns
+     * @param sources Regex patterns from the config
+     * @param stepLimit Characters a single pattern may read per message
+     */
+    public BannedPatternMatcher(Collection<String> sources, int stepLimit) {
+        this.stepLimit = Math.max(1000, stepLimit);
+
+        List<CompiledPattern> compiled = new ArrayList<>();
+        List<String> invalid = new ArrayList<>();
+        for (String source : sources) {
+            if (source == null || source.isEmpty()) {
+                continue;
+            }
+
+            Pattern pattern;
+            try {
+                pattern = Pattern.compile(trimWildcards(source), Pattern.CASE_INSENSITIVE);
+            } catch (PatternSyntaxException e) {
+                Bukkit.getLogger().log(Level.WARNING, "[nonchat] Rejected banned pattern ''{0}'': {1}",
+                        new Object[]{source, e.getDescription()});
+                invalid.add(source);
+                continue;
+            }
+
+            if (!passesProbes(pattern)) {
+                Bukkit.getLogger().log(Level.WARNING,
+                        "[nonchat] Rejected banned pattern ''{0}'': it backtracks too much and could freeze the chat, simplify nested quantifiers or chained wildcards like .*a.*b.*c",
+                        source);
+                invalid.add(source);
+                continue;
+            }
+
+            compiled.add(new CompiledPattern(source, pattern));
+        }
+
+        this.patterns = Collections.unmodifiableList(compiled);
+        this.rejected = Collections.unmodifiableList(invalid);
+    }
+
+    /**
+     * Removes leading and trailing .* since patterns are searched for anywhere in the message.
+     * Left in place they make every search quadratic in the message length.
+     * Lazy, possessive and counted wildcards like .*? are left alone, they mean something else.
+     */
+    private static String trimWildcards(String source) {
+        String trimmed = source;
+        while (isGreedyWildcard(trimmed, 0)) {
+            trimmed = trimmed.substring(2);
+        }
+        while (trimmed.length() >= 2 && isGreedyWildcard(trimmed, trimmed.length() - 2)) {
+            trimmed = trimmed.substring(0, trimmed.length() - 2);
+        }
+        return trimmed;
+    }
+
+    /**
+     * Checks for a plain greedy .* at an index, not escaped and not followed by another quantifier
+     */
+    private static boolean isGreedyWildcard(String text, int index) {
+        if (!text.startsWith(".*", index) || isEscaped(text, index)) {
+            return false;
+        }
+        if (index + 2 >= text.length()) {
+            return true;
+        }
+        char next = text.charAt(index + 2);
+        return next != '?' && next != '+' && next != '{';
+    }
+
+    private static boolean isEscaped(String text, int index) {
+        int backslashes = 0;
+        for (int i = index - 1; i >= 0 && text.charAt(i) == '\\'; i--) {
+            backslashes++;
+        }
+        return backslashes % 2 == 1;
+    }
+
+    private boolean passesProbes(Pattern pattern) {
+        for (String probe : PROBES) {
+            try {
+                pattern.matcher(new BudgetedText(probe, stepLimit)).find();
+            } catch (BudgetExceededException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a message matches any banned pattern.
+     * A pattern that runs out of budget on a message counts as not matching.
+     * @param message The message to check
+     * @return true if a pattern matched
+     */
+    public boolean containsMatch(String message) {
+        if (patterns.isEmpty() || message == null || message.isEmpty()) {
+            return false;
+        }
+
+        for (CompiledPattern compiled : patterns) {
+            Matcher matcher = compiled.pattern.matcher(new BudgetedText(message, stepLimit));
+            try {
+                if (matcher.find()) {
+                    return true;
+                }
+            } catch (BudgetExceededException e) {
+                if (compiled.budgetWarned.compareAndSet(false, true)) {
+                    Bukkit.getLogger().log(Level.WARNING,
+                            "[nonchat] Banned pattern ''{0}'' ran out of its step budget and was skipped for a message",
+                            compiled.source);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of patterns in use
+     * @return Pattern count
+     */
+    public int getPatternCount() {
+        return patterns.size();
+    }
+
+    /**
+     * Gets patterns rejected when compiling
+     * @return Rejected pattern sources
+     */
+    public List<String> getRejectedPatterns() {
+        return rejected;
+    }
+}
@@ -0,0 +1,296 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.nonxedy.nonchat.util.chat.filters.TextNormalizer.NormalizedText;
+
+/**
+ * Finds banned words in a message with an Aho-Corasick automaton.
+ * All words are compiled into a single automaton once, so checking a message is a
+ * single pass over its normalized text no matter how many words are banned.
+ * Repeated letters are collapsed on both sides, but each word remembers its own runs,
+ * so "butt" still needs two t's in the message and "kkk" doesn't match a single k.
+ * Matches are reported as ranges of the original message.
+ */
+public class BannedWordMatcher {
+
+    /**
+     * Range of the original message covered by a banned word
+     */
+    public static final class Span {
+        private final int start;
+        private final int end;
+
+        private Span(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * @return Exclusive end index
+         */
+        public int getEnd() {
+            return end;
+        }
+    }
+
+    private final TextNormalizer normalizer;
+    private final int wordCount;
+    // Sorted transitions of each state, state 0 is the root
+    private final char[][] keys;
+    private final int[][] targets;
+    private final int[] fail;
+    // Words ending in each state, longest first, including shorter ones reached through failure links
+    private final int[][] outputs;
+    // Run length of each normalized character of each word
+    private final int[][] wordRuns;
+
+    /**
+     * Compiles banned words into an automaton
+     * @param words Banned words
+     * @param normalizer Normalizer applied to both the words and checked messages
+     */
+    public BannedWordMatcher(Collection<String> words, TextNormalizer normalizer) {
+        this.normalizer = normalizer;
+
+        List<Map<Character, Integer>> children = new ArrayList<>();
+        List<List<Integer>> ownWords = new ArrayList<>();
+        List<int[]> runs = new ArrayList<>();
+        children.add(new TreeMap<>());
+        ownWords.add(new ArrayList<>());
+
+        int count = 0;
+        for (String word : words) {
+            if (word == null) {
+                continue;
+            }
+            NormalizedText normalized = normalizer.normalize(word.trim());
+            if (normalized.length() == 0) {
+                continue;
+            }
+
+            int state = 0;
+            for (int i = 0; i < normalized.length(); i++) {
+                Integer next = children.get(state).get(normalized.charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    ownWords.add(new ArrayList<>());
+                    children.get(state).put(normalized.charAt(i), next);
+                }
+                state = next;
+            }
+
+            int[] wordRun = new int[normalized.length()];
+            for (int i = 0; i < wordRun.length; i++) {
+                wordRun[i] = normalized.runLength(i);
+            }
+            ownWords.get(state).add(runs.size());
+            runs.add(wordRun);
+            count++;
+        }
+        this.wordCount = count;
+        this.wordRuns = runs.toArray(new int[0][]);
+
+        int states = children.size();
+        this.keys = new char[states][];
+        this.targets = new int[states][];
+        this.fail = new int[states];
+        this.outputs = new int[states][];
+        for (int state = 0; state < states; state++) {
+            Map<Character, Integer> transitions = children.get(state);
+            keys[state] = new char[transitions.size()];
+            targets[state] = new int[transitions.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> entry : transitions.entrySet()) {
+                keys[state][i] = entry.getKey();
+                targets[state][i] = entry.getValue();
+                i++;
+            }
+            outputs[state] = ownWords.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        buildFailureLinks();
+    }
+
+    /**
+     * Links every state to the longest proper suffix that is also a state, breadth first
+     */
+    private void buildFailureLinks() {
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            fail[child] = 0;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < keys[state].length; i++) {
+                char c = keys[state][i];
+                int child = targets[state][i];
+
+                int link = fail[state];
+                while (link != 0 && next(link, c) < 0) {
+                    link = fail[link];
+                }
+                int target = next(link, c);
+                fail[child] = target >= 0 && target != child ? target : 0;
+                // Shorter words ending here come after the ones of this state
+                int[] suffixWords = outputs[fail[child]];
+                if (suffixWords.length > 0) {
+                    int[] own = outputs[child];
+                    int[] all = Arrays.copyOf(own, own.length + suffixWords.length);
+                    System.arraycopy(suffixWords, 0, all, own.length, suffixWords.length);
+                    outputs[child] = all;
+                }
+                queue.add(child);
+            }
+        }
+    }
+
+    private int next(int state, char c) {
+        char[] stateKeys = keys[state];
+        int low = 0;
+        int high = stateKeys.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char key = stateKeys[mid];
+            if (key < c) {
+                low = mid + 1;
+            } else if (key > c) {
+                high = mid - 1;
+            } else {
+                return targets[state][mid];
+            }
+        }
+        return -1;
+    }
+
+    private int step(int state, char c) {
+        while (state != 0 && next(state, c) < 0) {
+            state = fail[state];
+        }
+        int target = next(state, c);
+        return target < 0 ? 0 : target;
+    }
+
+    /**
+     * Finds the longest word ending at a position whose letter runs fit the message
+     * @param state State reached at the position
+     * @param text Normalized message
+     * @param end Index of the last character of the match
+     * @return Length of the word in normalized characters, 0 if none fits
+     */
+    private int matchLength(int state, NormalizedText text, int end) {
+        for (int word : outputs[state]) {
+            int[] runs = wordRuns[word];
+            int start = end - runs.length + 1;
+            boolean fits = true;
+            for (int i = 0; i < runs.length && fits; i++) {
+                // The message may repeat a letter more often than the word, never less
+                fits = text.runLength(start + i) >= runs[i];
+            }
+            if (fits) {
+                return runs.length;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Checks if a message contains any banned word
+     * @param message The message to check
+     * @return true if a banned word was found
+     */
+    public boolean containsMatch(String message) {
+        if (wordCount == 0 || message == null || message.isEmpty()) {
+            return false;
+        }
+
+        NormalizedText text = normalizer.normalize(message);
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, text.charAt(i));
+            if (outputs[state].length > 0 && matchLength(state, text, i) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds all banned words in a message
+     * @param message The message to check
+     * @return Ranges of the original message, merged where they overlap and in order
+     */
+    public List<Span> findMatches(String message) {
+        if (wordCount == 0 || message == null || message.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        NormalizedText text = normalizer.normalize(message);
+        List<Span> spans = new ArrayList<>();
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, text.charAt(i));
+            int length = outputs[state].length > 0 ? matchLength(state, text, i) : 0;
+            if (length == 0) {
+                continue;
+            }
+
+            int start = text.originalStart(i - length + 1);
+            int end = text.originalEnd(i);
+            // Matches arrive by end position, a longer one may swallow earlier spans
+            while (!spans.isEmpty() && start <= spans.get(spans.size() - 1).end) {
+                Span last = spans.remove(spans.size() - 1);
+                start = Math.min(start, last.start);
+                end = Math.max(end, last.end);
+            }
+            spans.add(new Span(start, end));
+        }
+        return spans;
+    }
+
+    /**
+     * Replaces every banned word in a message
+     * @param message The message to censor
+     * @param mask Character each censored character is replaced with
+     * @return Censored message, the same instance if nothing was found
+     */
+    public String censor(String message, char mask) {
+        List<Span> spans = findMatches(message);
+        if (spans.isEmpty()) {
+            return message;
+        }
+
+        char[] chars = message.toCharArray();
+        for (Span span : spans) {
+            for (int i = span.start; i < span.end; i++) {
+                if (!Character.isWhitespace(chars[i])) {
+                    chars[i] = mask;
+                }
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Gets the number of words compiled into the automaton
+     * @return Word count
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+}
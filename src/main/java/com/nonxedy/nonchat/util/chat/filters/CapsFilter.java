@@ -41,6 +41,19 @@ public class CapsFilter {
         return percentage > this.maxCapsPercentage;
     }
 
+    /**
+     * Determines if an analyzed message should be filtered for excessive caps,
+     * only counting the text players see so color codes don't skew the ratio
+     * @param facts The analyzed message
+     * @return true if message exceeds caps limit, false otherwise
+     */
+    public boolean shouldFilter(MessageFacts facts) {
+        if (!this.enabled || facts.getVisibleLength() < this.minLength) {
+            return false;
+        }
+        return facts.getUppercaseRatio() * 100 > this.maxCapsPercentage;
+    }
+
     /**
      * Converts a message to lowercase to reduce capitalization
      * @param message The message to filter
@@ -0,0 +1,122 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Whitelisted domains indexed by their labels from the top-level domain down,
+ * so "play.example.com" is looked up as com, example, play.
+ * A whitelisted domain also covers its subdomains and any port. Entries with a path,
+ * like "discord.gg/invite", only cover addresses whose path starts with it.
+ */
+public final class DomainWhitelist {
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>();
+        boolean whitelisted;
+        // Paths the domain is limited to, empty if all paths are allowed
+        final List<String> paths = new ArrayList<>(1);
+        boolean anyPath;
+    }
+
+    private final Node root = new Node();
+
+    /**
+     * Builds the index from config entries
+     * @param entries Whitelisted domains, optionally with a scheme, port or path
+     */
+    public DomainWhitelist(Collection<String> entries) {
+        for (String entry : entries) {
+            if (entry != null && !entry.isBlank()) {
+                add(entry.trim());
+            }
+        }
+    }
+
+    private void add(String entry) {
+        String rest = entry;
+        int scheme = rest.indexOf("://");
+        if (scheme >= 0) {
+            rest = rest.substring(scheme + 3);
+        }
+
+        String path = "";
+        int slash = rest.indexOf('/');
+        if (slash >= 0) {
+            path = rest.substring(slash);
+            rest = rest.substring(0, slash);
+        }
+        int colon = rest.indexOf(':');
+        if (colon >= 0) {
+            rest = rest.substring(0, colon);
+        }
+
+        String host = rest.toLowerCase(Locale.ROOT);
+        if (host.startsWith("www.")) {
+            host = host.substring(4);
+        }
+        if (host.isEmpty()) {
+            return;
+        }
+
+        String[] labels = host.split("\\.");
+        Node node = root;
+        for (int i = labels.length - 1; i >= 0; i--) {
+            node = node.children.computeIfAbsent(labels[i], label -> new Node());
+        }
+        node.whitelisted = true;
+        if (path.isEmpty() || path.equals("/")) {
+            node.anyPath = true;
+        } else {
+            node.paths.add(path);
+        }
+    }
+
+    /**
+     * Checks if an address is covered by the whitelist
+     * @param host Lowercase host with plain dots
+     * @param path Path after the host, empty if none
+     * @return true if the address is whitelisted
+     */
+    public boolean isWhitelisted(String host, String path) {
+        Node node = root;
+        int end = host.length();
+        while (end > 0) {
+            int start = host.lastIndexOf('.', end - 1) + 1;
+            node = node.children.get(host.substring(start, end));
+            if (node == null) {
+                return false;
+            }
+            if (node.whitelisted && allowsPath(node, path)) {
+                return true;
+            }
+            end = start - 1;
+        }
+        return false;
+    }
+
+    private static boolean allowsPath(Node node, String path) {
+        if (node.anyPath) {
+            return true;
+        }
+        for (String allowed : node.paths) {
+            // Stop at a path boundary so "/abc" doesn't cover "/abcdef"
+            if (path.startsWith(allowed) && (path.length() == allowed.length()
+                    || !Character.isLetterOrDigit(path.charAt(allowed.length())))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if nothing is whitelisted
+     */
+    public boolean isEmpty() {
+        return root.children.isEmpty();
+    }
+}
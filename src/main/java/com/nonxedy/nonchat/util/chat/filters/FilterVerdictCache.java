@@ -0,0 +1,116 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Verdicts of content filters shared across all players.
+ * Filters that only look at the message text, like the word blocker and the
+ * advertisement detector, give the same answer for the same text no matter who sent it,
+ * so the hundredth "gg" or an advert pasted by several players is only checked once.
+ * Filters that depend on the sender, like spam detection, must not use this cache.
+ */
+public class FilterVerdictCache {
+
+    /**
+     * Cache key, a message checked by a filter
+     */
+    private static final class Key {
+        final String filter;
+        final String message;
+
+        Key(String filter, String message) {
+            this.filter = filter;
+            this.message = message;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return filter.equals(other.filter) && message.equals(other.message);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(filter, message);
+        }
+    }
+
+    // Messages longer than this are rarely repeated exactly and would bloat the cache
+    private static final int MAX_MESSAGE_LENGTH = 256;
+
+    private volatile boolean enabled;
+    private volatile Cache<Key, Boolean> verdicts;
+
+    /**
+     * Creates a verdict cache
+     * @param enabled Whether verdicts are cached at all
+     * @param maxEntries Maximum number of cached verdicts
+     * @param expireSeconds Time after which a verdict is checked again
+     */
+    public FilterVerdictCache(boolean enabled, int maxEntries, int expireSeconds) {
+        configure(enabled, maxEntries, expireSeconds);
+    }
+
+    /**
+     * Applies new settings and drops all cached verdicts
+     * @param enabled Whether verdicts are cached at all
+     * @param maxEntries Maximum number of cached verdicts
+     * @param expireSeconds Time after which a verdict is checked again
+     */
+    public void configure(boolean enabled, int maxEntries, int expireSeconds) {
+        this.verdicts = Caffeine.newBuilder()
+            .maximumSize(Math.max(1, maxEntries))
+            .expireAfterWrite(Math.max(1, expireSeconds), TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+        this.enabled = enabled;
+    }
+
+    /**
+     * Checks a message with a filter, reusing an earlier verdict for the same text
+     * @param filter Name of the filter, verdicts of different filters are kept apart
+     * @param message The message to check
+     * @param check The filter, returns true if the message should be blocked
+     * @return true if the message should be blocked
+     */
+    public boolean isBlocked(String filter, String message, Predicate<String> check) {
+        if (!enabled || message == null || message.length() > MAX_MESSAGE_LENGTH) {
+            return check.test(message);
+        }
+        return verdicts.get(new Key(filter, message), key -> check.test(key.message));
+    }
+
+    /**
+     * Drops all cached verdicts, used when filter settings change
+     */
+    public void invalidateAll() {
+        verdicts.invalidateAll();
+    }
+
+    /**
+     * Gets the number of cached verdicts
+     * @return Estimated cache size
+     */
+    public long getSize() {
+        return verdicts.estimatedSize();
+    }
+
+    /**
+     * Gets hit and miss counts since the last reload
+     * @return Cache statistics
+     */
+    public CacheStats getStats() {
+        return verdicts.stats();
+    }
+}
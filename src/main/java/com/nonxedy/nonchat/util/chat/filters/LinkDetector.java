@@ -8,6 +8,7 @@ import com.nonxedy.nonchat.util.core.colors.ColorUtil;
 
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TextReplacementConfig;
 import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.event.HoverEvent;
 import net.kyori.adventure.text.format.TextDecoration;
@@ -97,6 +98,19 @@ public class LinkDetector {
         return builder.build();
     }
 
+    /**
+     * Makes URLs in an already parsed component clickable
+     * Translatable components have no text of their own, render them for the viewer first
+     * @param component The component that may contain URLs
+     * @return Component with clickable links
+     */
+    public static Component makeLinksClickable(Component component) {
+        return component.replaceText(TextReplacementConfig.builder()
+                .match(URL_PATTERN)
+                .replacement((match, builder) -> createLinkComponent(match.group()))
+                .build());
+    }
+
     private static Component createLinkComponent(String url) {
         // URL is already cleaned of color codes
         String clickableUrl = url;
@@ -109,8 +123,7 @@ public class LinkDetector {
         // Use translated message if available, fallback to hardcoded text
         Component hoverComponent;
         if (messages != null) {
-            String hoverText = messages.getString("link-hover").replace("{url}", clickableUrl);
-            hoverComponent = ColorUtil.parseComponent(hoverText);
+            hoverComponent = messages.getFormatted("link-hover", "url", clickableUrl);
         } else {
             hoverComponent = Component.text("Click to open: " + clickableUrl);
         }
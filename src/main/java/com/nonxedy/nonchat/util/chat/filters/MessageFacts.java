@@ -0,0 +1,124 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+
+/**
+ * What the chat pipeline needs to know about a message, worked out once.
+ * Filters, length checks, mentions and bubbles all look at the text without color codes,
+ * so it is stripped a single time here instead of by every stage.
+ * Instances are immutable and can be shared between threads.
+ */
+public final class MessageFacts {
+
+    private final String text;
+    private final String stripped;
+    private final int uppercaseCount;
+    private final List<String> mentions;
+
+    private MessageFacts(String text, String stripped, int uppercaseCount, List<String> mentions) {
+        this.text = text;
+        this.stripped = stripped;
+        this.uppercaseCount = uppercaseCount;
+        this.mentions = mentions;
+    }
+
+    /**
+     * Analyzes a message
+     * @param text The message as the player wrote it
+     * @return Facts about the message
+     */
+    public static MessageFacts of(String text) {
+        String stripped = ColorUtil.stripAllColors(text);
+
+        int uppercaseCount = 0;
+        List<String> mentions = null;
+        int length = stripped.length();
+        int i = 0;
+        while (i < length) {
+            char c = stripped.charAt(i);
+            if (c == '@') {
+                // Same as @(\w+): ASCII letters, digits and underscores
+                int end = i + 1;
+                while (end < length && isWordChar(stripped.charAt(end))) {
+                    end++;
+                }
+                if (end > i + 1) {
+                    if (mentions == null) {
+                        mentions = new ArrayList<>(2);
+                    }
+                    mentions.add(stripped.substring(i + 1, end));
+                    for (int j = i + 1; j < end; j++) {
+                        if (Character.isUpperCase(stripped.charAt(j))) {
+                            uppercaseCount++;
+                        }
+                    }
+                    i = end;
+                    continue;
+                }
+            } else if (Character.isUpperCase(c)) {
+                uppercaseCount++;
+            }
+            i++;
+        }
+
+        return new MessageFacts(text, stripped, uppercaseCount,
+                mentions != null ? Collections.unmodifiableList(mentions) : Collections.emptyList());
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    /**
+     * @return The message as the player wrote it
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return The message without color codes
+     */
+    public String getStripped() {
+        return stripped;
+    }
+
+    /**
+     * @return true if the message contains color or formatting codes
+     */
+    public boolean hasColorCodes() {
+        return !stripped.equals(text);
+    }
+
+    /**
+     * @return Length of the message as players see it
+     */
+    public int getVisibleLength() {
+        return stripped.length();
+    }
+
+    /**
+     * @return Number of uppercase characters in the visible text
+     */
+    public int getUppercaseCount() {
+        return uppercaseCount;
+    }
+
+    /**
+     * @return Share of uppercase characters in the visible text, from 0 to 1
+     */
+    public double getUppercaseRatio() {
+        return stripped.isEmpty() ? 0 : (double) uppercaseCount / stripped.length();
+    }
+
+    /**
+     * @return Names mentioned with @ in the order they appear, as written
+     */
+    public List<String> getMentions() {
+        return mentions;
+    }
+}
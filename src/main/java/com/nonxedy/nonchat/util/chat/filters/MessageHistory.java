@@ -1,83 +1,162 @@
 package com.nonxedy.nonchat.util.chat.filters;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.UUID;
-
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import java.util.function.Predicate;
 
 /**
  * Stores message history for a player
  * Tracks messages with timestamps for spam detection
+ *
+ * Messages are kept in a fixed-size ring buffer, so the history of a player never
+ * grows past its capacity and the oldest message is overwritten first. Checks read
+ * the buffer in place without allocating. All methods are safe to call from
+ * concurrent chat threads.
  */
-@Data
-@AllArgsConstructor
 public class MessageHistory {
-    private UUID playerUuid;
-    private List<MessageEntry> messages;
+    private final UUID playerUuid;
+
+    // Slot arrays of the ring buffer, ordered by insertion from head
+    private final String[] messages;
+    private final int[] hashes;
+    private final long[] timestamps;
+
+    /** Index of the oldest message */
+    private int head;
+    /** Number of stored messages */
+    private int size;
 
-    public MessageHistory(UUID playerUuid) {
+    public MessageHistory(UUID playerUuid, int capacity) {
         this.playerUuid = playerUuid;
-        this.messages = new ArrayList<>();
+        int slots = Math.max(1, capacity);
+        this.messages = new String[slots];
+        this.hashes = new int[slots];
+        this.timestamps = new long[slots];
+    }
+
+    /**
+     * Gets the player this history belongs to
+     * @return Player UUID
+     */
+    public UUID getPlayerUuid() {
+        return playerUuid;
     }
 
     /**
-     * Adds a new message to the history
+     * Gets the maximum number of messages kept
+     * @return Capacity
+     */
+    public int getCapacity() {
+        return messages.length;
+    }
+
+    /**
+     * Adds a new message to the history, overwriting the oldest one when full
      * @param message The message content
      * @param timestamp The timestamp when the message was sent
      */
-    public void addMessage(String message, long timestamp) {
-        messages.add(new MessageEntry(message, timestamp));
+    public synchronized void addMessage(String message, long timestamp) {
+        int slot;
+        if (size < messages.length) {
+            slot = index(size);
+            size++;
+        } else {
+            slot = head;
+            head = index(1);
+        }
+
+        messages[slot] = message;
+        hashes[slot] = message != null ? message.hashCode() : 0;
+        // Keep timestamps ordered even if the clock steps back
+        long previous = size > 1 ? timestamps[index(size - 2)] : Long.MIN_VALUE;
+        timestamps[slot] = Math.max(timestamp, previous);
+    }
+
+    /**
+     * Gets the count of messages within a time window
+     * @param timeWindowSeconds Time window in seconds
+     * @return Number of messages in the time window
+     */
+    public synchronized int getMessageCountInTimeWindow(int timeWindowSeconds) {
+        return size - firstInWindow(windowStart(timeWindowSeconds));
     }
 
     /**
-     * Gets all messages within a time window
+     * Counts messages within a time window equal to the given one
+     * @param message The message to look for
      * @param timeWindowSeconds Time window in seconds
-     * @return List of messages within the time window
+     * @return Number of identical messages in the time window
      */
-    public List<MessageEntry> getMessagesInTimeWindow(int timeWindowSeconds) {
-        long currentTime = System.currentTimeMillis();
-        long windowStart = currentTime - (timeWindowSeconds * 1000L);
-        List<MessageEntry> result = new ArrayList<>();
-
-        for (MessageEntry entry : messages) {
-            if (entry.getTimestamp() >= windowStart) {
-                result.add(entry);
+    public synchronized int countMessagesInTimeWindow(String message, int timeWindowSeconds) {
+        if (message == null) {
+            return 0;
+        }
+
+        int hash = message.hashCode();
+        int count = 0;
+        for (int i = firstInWindow(windowStart(timeWindowSeconds)); i < size; i++) {
+            int slot = index(i);
+            if (hashes[slot] == hash && message.equals(messages[slot])) {
+                count++;
             }
         }
+        return count;
+    }
 
-        return result;
+    /**
+     * Checks if any message within a time window matches a condition, newest first
+     * @param timeWindowSeconds Time window in seconds
+     * @param condition Condition to test messages with
+     * @return true if a message matched
+     */
+    public synchronized boolean anyMessageInTimeWindow(int timeWindowSeconds, Predicate<String> condition) {
+        int first = firstInWindow(windowStart(timeWindowSeconds));
+        for (int i = size - 1; i >= first; i--) {
+            String message = messages[index(i)];
+            if (message != null && condition.test(message)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
      * Cleans up old messages outside the maximum time window
      * @param maxTimeWindowSeconds Maximum time window to keep messages for
      */
-    public void cleanupOldMessages(int maxTimeWindowSeconds) {
-        long currentTime = System.currentTimeMillis();
-        long cutoffTime = currentTime - (maxTimeWindowSeconds * 1000L);
+    public synchronized void cleanupOldMessages(int maxTimeWindowSeconds) {
+        int expired = firstInWindow(windowStart(maxTimeWindowSeconds));
+        for (int i = 0; i < expired; i++) {
+            messages[head] = null;
+            head = index(1);
+        }
+        size -= expired;
+    }
 
-        messages.removeIf(entry -> entry.getTimestamp() < cutoffTime);
+    private static long windowStart(int timeWindowSeconds) {
+        return System.currentTimeMillis() - (timeWindowSeconds * 1000L);
     }
 
     /**
-     * Gets the count of messages within a time window
-     * @param timeWindowSeconds Time window in seconds
-     * @return Number of messages in the time window
+     * Finds the position of the oldest message sent at or after a time.
+     * Timestamps are ordered, so this is a binary search over at most capacity entries.
+     * @return Position from head, size if no message is in the window
      */
-    public int getMessageCountInTimeWindow(int timeWindowSeconds) {
-        return getMessagesInTimeWindow(timeWindowSeconds).size();
+    private int firstInWindow(long windowStart) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[index(mid)] < windowStart) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
     }
 
-    /**
-     * Represents a single message entry with timestamp
-     */
-    @Data
-    @AllArgsConstructor
-    public static class MessageEntry {
-        private String message;
-        private long timestamp;
+    private int index(int position) {
+        int slot = head + position;
+        return slot >= messages.length ? slot - messages.length : slot;
     }
 }
-
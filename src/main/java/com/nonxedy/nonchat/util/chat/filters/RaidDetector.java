@@ -0,0 +1,171 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import com.nonxedy.nonchat.util.chat.filters.TextNormalizer.NormalizedText;
+
+/**
+ * Detects the same message sent by many different players in a short time,
+ * as in bot waves where every account only sends an advert once.
+ *
+ * Messages are reduced to a fingerprint of their normalized letters and digits.
+ * The time window is split into buckets, each holding a count-min sketch of how many
+ * senders used a fingerprint and a bloom filter of the sender and fingerprint pairs
+ * already counted. Memory is fixed no matter how many players or messages there are.
+ * Counts can only be overestimated, by hash collisions, and a fingerprint stays
+ * flagged for at most one window after its senders stop.
+ */
+public class RaidDetector {
+
+    private static final int BUCKETS = 6;
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 2048;
+    // Bits of each bucket's filter of counted senders
+    private static final int SEEN_BITS = 16384;
+    private static final int SEEN_HASHES = 3;
+
+    private final int[][][] counts = new int[BUCKETS][DEPTH][WIDTH];
+    private final long[][] seen = new long[BUCKETS][SEEN_BITS / 64];
+    // Time slice each bucket currently holds
+    private final long[] epochs = new long[BUCKETS];
+    private long bucketMillis;
+
+    public RaidDetector() {
+        Arrays.fill(epochs, -1);
+    }
+
+    /**
+     * Computes the fingerprint of a message
+     * @param message The message
+     * @param minLength Fewest normalized letters and digits a message needs to be tracked
+     * @return Fingerprint, or 0 if the message is too short to tell players apart
+     */
+    public static long fingerprint(String message, int minLength) {
+        NormalizedText text = TextNormalizer.DEFAULT.normalize(message);
+        // 64-bit FNV-1a over letters and digits only, so spacing and punctuation don't matter
+        long hash = 0xcbf29ce484222325L;
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            // Judge by the original character, leetspeak turns some punctuation into letters
+            if (Character.isLetterOrDigit(message.charAt(text.originalStart(i)))) {
+                hash = (hash ^ c) * 0x100000001b3L;
+                length++;
+            }
+        }
+        if (length < minLength) {
+            return 0;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * Records a message and checks if too many players sent it
+     * @param fingerprint Message fingerprint from {@link #fingerprint}
+     * @param sender The player sending the message
+     * @param maxSenders Most distinct players allowed to send the same message
+     * @param timeWindowSeconds Time window in seconds
+     * @return true if more than maxSenders players sent the message within the window
+     */
+    public synchronized boolean record(long fingerprint, UUID sender, int maxSenders, int timeWindowSeconds) {
+        long windowMillis = Math.max(1, timeWindowSeconds) * 1000L;
+        long sliceMillis = Math.max(1, windowMillis / (BUCKETS - 1));
+        if (sliceMillis != bucketMillis) {
+            // Window changed on reload, start over
+            bucketMillis = sliceMillis;
+            Arrays.fill(epochs, -1);
+        }
+
+        long epoch = System.currentTimeMillis() / bucketMillis;
+        int current = (int) (epoch % BUCKETS);
+        if (epochs[current] != epoch) {
+            for (int[] row : counts[current]) {
+                Arrays.fill(row, 0);
+            }
+            Arrays.fill(seen[current], 0);
+            epochs[current] = epoch;
+        }
+
+        long pair = mix(fingerprint ^ mix(sender.getMostSignificantBits() ^ mix(sender.getLeastSignificantBits())));
+        if (!seenInWindow(pair, epoch)) {
+            markSeen(current, pair);
+            for (int row = 0; row < DEPTH; row++) {
+                counts[current][row][column(fingerprint, row)]++;
+            }
+        }
+
+        return estimate(fingerprint, epoch) > maxSenders;
+    }
+
+    /**
+     * Clears all recorded messages
+     */
+    public synchronized void clear() {
+        Arrays.fill(epochs, -1);
+    }
+
+    private boolean isActive(int bucket, long epoch) {
+        // The window covers the current slice and the ones before it
+        return epochs[bucket] >= 0 && epoch - epochs[bucket] < BUCKETS;
+    }
+
+    private boolean seenInWindow(long pair, long epoch) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            if (!isActive(bucket, epoch)) {
+                continue;
+            }
+            boolean all = true;
+            for (int k = 0; k < SEEN_HASHES && all; k++) {
+                int bit = seenBit(pair, k);
+                all = (seen[bucket][bit >>> 6] & (1L << bit)) != 0;
+            }
+            if (all) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void markSeen(int bucket, long pair) {
+        for (int k = 0; k < SEEN_HASHES; k++) {
+            int bit = seenBit(pair, k);
+            seen[bucket][bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Counts senders of a fingerprint over the window, the smallest row total of the sketch
+     */
+    private int estimate(long fingerprint, long epoch) {
+        int best = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int column = column(fingerprint, row);
+            int total = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                if (isActive(bucket, epoch)) {
+                    total += counts[bucket][row][column];
+                }
+            }
+            best = Math.min(best, total);
+        }
+        return best;
+    }
+
+    private static int column(long fingerprint, int row) {
+        return (int) ((mix(fingerprint + row * 0x9e3779b97f4a7c15L) >>> 1) % WIDTH);
+    }
+
+    private static int seenBit(long pair, int k) {
+        return (int) ((mix(pair + k * 0x9e3779b97f4a7c15L) >>> 1) % SEEN_BITS);
+    }
+
+    /**
+     * Scrambles bits of a hash (SplitMix64 finalizer)
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
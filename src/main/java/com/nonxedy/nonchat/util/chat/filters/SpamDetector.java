@@ -13,25 +13,30 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import com.nonxedy.nonchat.api.MessageFilter;
 import com.nonxedy.nonchat.config.PluginConfig;
 import com.nonxedy.nonchat.config.PluginMessages;
-import com.nonxedy.nonchat.util.chat.filters.MessageHistory.MessageEntry;
+import com.nonxedy.nonchat.core.RateLimiter;
 import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+import com.nonxedy.nonchat.util.lang.MessageTemplate;
 
 import me.clip.placeholderapi.PlaceholderAPI;
 import net.kyori.adventure.text.Component;
 
 /**
  * Intelligent spam detection filter
- * Detects repetitive messages, similar messages, and message flooding
+ * Detects repetitive messages, similar messages, message flooding,
+ * and the same message sent by many players at once
  */
 public class SpamDetector implements MessageFilter {
     
     private final PluginConfig config;
     private final PluginMessages messages;
     private final Cache<UUID, MessageHistory> messageHistoryCache;
+    private final RaidDetector raidDetector = new RaidDetector();
+    private final RateLimiter rateLimiter;
 
-    public SpamDetector(PluginConfig config, PluginMessages messages) {
+    public SpamDetector(PluginConfig config, PluginMessages messages, RateLimiter rateLimiter) {
         this.config = config;
         this.messages = messages;
+        this.rateLimiter = rateLimiter;
         
         // Initialize cache with expiration based on maximum time window
         // Use the largest time window from all detection types
@@ -65,7 +70,7 @@ public class SpamDetector implements MessageFilter {
         // Get or create message history for player
         MessageHistory history = messageHistoryCache.get(
             player.getUniqueId(),
-            uuid -> new MessageHistory(uuid)
+            uuid -> new MessageHistory(uuid, getHistoryCapacity())
         );
 
         long currentTime = System.currentTimeMillis();
@@ -90,9 +95,9 @@ public class SpamDetector implements MessageFilter {
             }
         }
 
-        // Check for flood (before adding current message)
+        // Check for flood (takes a token from the player's flood bucket)
         if (config.isAntiSpamFloodEnabled()) {
-            if (detectFlood(history)) {
+            if (detectFlood(player)) {
                 // Add message to history for tracking, but block it
                 history.addMessage(message, currentTime);
                 handleSpamDetection(player, message, "flood");
@@ -100,6 +105,15 @@ public class SpamDetector implements MessageFilter {
             }
         }
 
+        // Check for the same message from many players (records the current message)
+        if (config.isAntiSpamRaidEnabled()) {
+            if (detectRaid(player, message)) {
+                history.addMessage(message, currentTime);
+                handleSpamDetection(player, message, "raid");
+                return true;
+            }
+        }
+
         // Message passed all checks, add it to history
         history.addMessage(message, currentTime);
 
@@ -123,16 +137,9 @@ public class SpamDetector implements MessageFilter {
         int threshold = config.getAntiSpamRepetitiveThreshold();
         int timeWindow = config.getAntiSpamRepetitiveTimeWindow();
         
-        List<MessageEntry> recentMessages = history.getMessagesInTimeWindow(timeWindow);
-        
         // Count how many times this exact message appears in recent history
         // If count >= threshold, the current message would exceed the limit
-        int count = 0;
-        for (MessageEntry entry : recentMessages) {
-            if (entry != null && entry.getMessage() != null && entry.getMessage().equals(message)) {
-                count++;
-            }
-        }
+        int count = history.countMessagesInTimeWindow(message, timeWindow);
         
         // If we already have threshold or more identical messages, block this one
         return count >= threshold;
@@ -152,48 +159,52 @@ public class SpamDetector implements MessageFilter {
         double threshold = config.getAntiSpamSimilarThreshold();
         int timeWindow = config.getAntiSpamSimilarTimeWindow();
         
-        List<MessageEntry> recentMessages = history.getMessagesInTimeWindow(timeWindow);
-        
-        // Check similarity with recent messages
-        for (MessageEntry entry : recentMessages) {
-            if (entry == null || entry.getMessage() == null) {
-                continue;
-            }
-            
-            // Don't compare with itself
-            if (entry.getMessage().equals(message)) {
-                continue;
-            }
-            
-            double similarity = TextSimilarityUtil.calculateSimilarity(message, entry.getMessage());
-            if (similarity >= threshold) {
-                return true;
-            }
-        }
-        
-        return false;
+        // Check similarity with recent messages, skipping exact duplicates
+        return history.anyMessageInTimeWindow(timeWindow, previous ->
+            !previous.equals(message) && TextSimilarityUtil.isSimilar(message, previous, threshold));
     }
 
     /**
-     * Detects if player is flooding messages
-     * @param history Message history for the player
+     * Detects if player is flooding messages.
+     * Up to max-messages can be sent at once, then one more every time-window / max-messages.
+     * @param player The player sending the message
      * @return true if flood detected
      */
-    private boolean detectFlood(MessageHistory history) {
+    private boolean detectFlood(Player player) {
         int maxMessages = config.getAntiSpamFloodMaxMessages();
         int timeWindow = config.getAntiSpamFloodTimeWindow();
-        
-        // Count existing messages in time window
-        // If count >= maxMessages, adding current message would exceed the limit
-        int messageCount = history.getMessageCountInTimeWindow(timeWindow);
-        return messageCount >= maxMessages;
+        if (maxMessages <= 0) {
+            return false;
+        }
+
+        long intervalMillis = timeWindow * 1000L / maxMessages;
+        return !rateLimiter.tryAcquire(player.getUniqueId(), "flood", maxMessages, intervalMillis);
+    }
+
+    /**
+     * Detects if too many different players sent the same message
+     * @param player The player sending the message
+     * @param message Current message
+     * @return true if raid detected
+     */
+    private boolean detectRaid(Player player, String message) {
+        if (message == null) {
+            return false;
+        }
+
+        long fingerprint = RaidDetector.fingerprint(message, config.getAntiSpamRaidMinLength());
+        if (fingerprint == 0) {
+            return false;
+        }
+        return raidDetector.record(fingerprint, player.getUniqueId(),
+            config.getAntiSpamRaidMaxSenders(), config.getAntiSpamRaidTimeWindow());
     }
 
     /**
      * Handles spam detection by executing configured actions
      * @param player The player who sent the spam
      * @param message The spam message
-     * @param spamType Type of spam detected (repetitive, similar, flood)
+     * @param spamType Type of spam detected (repetitive, similar, flood, raid)
      */
     private void handleSpamDetection(Player player, String message, String spamType) {
         List<String> actions = getActionsForSpamType(spamType);
@@ -220,7 +231,7 @@ public class SpamDetector implements MessageFilter {
 
     /**
      * Gets actions list for a specific spam type
-     * @param spamType Type of spam (repetitive, similar, flood)
+     * @param spamType Type of spam (repetitive, similar, flood, raid)
      * @return List of actions to execute
      */
     private List<String> getActionsForSpamType(String spamType) {
@@ -231,6 +242,8 @@ public class SpamDetector implements MessageFilter {
                 return config.getAntiSpamSimilarActions();
             case "flood":
                 return config.getAntiSpamFloodActions();
+            case "raid":
+                return config.getAntiSpamRaidActions();
             default:
                 return List.of("block");
         }
@@ -238,7 +251,7 @@ public class SpamDetector implements MessageFilter {
 
     /**
      * Gets warning message for a specific spam type
-     * @param spamType Type of spam (repetitive, similar, flood)
+     * @param spamType Type of spam (repetitive, similar, flood, raid)
      * @return Warning message
      */
     private String getMessageForSpamType(String spamType) {
@@ -249,6 +262,8 @@ public class SpamDetector implements MessageFilter {
                 return config.getAntiSpamSimilarMessage();
             case "flood":
                 return config.getAntiSpamFloodMessage();
+            case "raid":
+                return config.getAntiSpamRaidMessage();
             default:
                 return "";
         }
@@ -258,7 +273,7 @@ public class SpamDetector implements MessageFilter {
      * Notifies staff members about spam detection
      * @param player The player who sent spam
      * @param message The spam message
-     * @param spamType Type of spam detected (repetitive, similar, flood)
+     * @param spamType Type of spam detected (repetitive, similar, flood, raid)
      */
     private void notifyStaff(Player player, String message, String spamType) {
         // Validate parameters
@@ -268,19 +283,16 @@ public class SpamDetector implements MessageFilter {
         
         // Get the appropriate translation key based on spam type
         String translationKey = "spam-detected-" + spamType;
-        String notificationTemplate = messages.getString(translationKey);
+        MessageTemplate notificationTemplate = messages.getTemplate(translationKey);
         
-        if (notificationTemplate == null || notificationTemplate.isEmpty()) {
+        if (notificationTemplate.getText().isEmpty()) {
             return;
         }
         
-        // Replace placeholders (handle null message)
-        String notification = notificationTemplate
-            .replace("{player}", player.getName())
-            .replace("{message}", message != null ? message : "[empty]");
-        
-        // Parse color codes and send to staff
-        Component notificationComponent = ColorUtil.parseComponentCached(notification);
+        // Fill placeholders (handle null message)
+        Component notificationComponent = messages.getFormatted(translationKey,
+            "player", player.getName(),
+            "message", message != null ? message : "[empty]");
         
         Bukkit.getOnlinePlayers().stream()
             .filter(p -> p.hasPermission("nonchat.spam.notify") || p.isOp())
@@ -332,6 +344,15 @@ public class SpamDetector implements MessageFilter {
                   .replace("%player_uuid%", player.getUniqueId().toString());
     }
 
+    /**
+     * Gets how many messages are kept per player.
+     * Never less than the repetitive threshold, so it can still be reached.
+     * @return History capacity
+     */
+    private int getHistoryCapacity() {
+        return Math.max(config.getAntiSpamHistorySize(), config.getAntiSpamRepetitiveThreshold());
+    }
+
     /**
      * Cleans up old messages from history
      * @param history Message history to clean
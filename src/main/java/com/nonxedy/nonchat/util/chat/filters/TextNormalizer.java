@@ -0,0 +1,206 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+import java.text.Normalizer;
+
+/**
+ * Normalizes chat text so simple tricks don't get around word filters.
+ * Folds case, and optionally leetspeak, diacritics, invisible characters and
+ * repeated letters. Every normalized character keeps the range of the original
+ * text it came from, so matches can be mapped back to the message.
+ */
+public class TextNormalizer {
+
+    /** Normalizer with every step enabled */
+    public static final TextNormalizer DEFAULT = new TextNormalizer(true, true, true, true);
+
+    // Characters up to the end of the Cyrillic block folded to their base letter
+    private static final char[] FOLD = new char[0x0500];
+
+    static {
+        for (char c = 0; c < FOLD.length; c++) {
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            FOLD[c] = decomposed.charAt(0);
+        }
+    }
+
+    /**
+     * Normalized text and the original range of each character
+     */
+    public static final class NormalizedText {
+        private final char[] chars;
+        private final int length;
+        private final int[] start;
+        private final int[] end;
+        private final int[] runs;
+
+        private NormalizedText(char[] chars, int length, int[] start, int[] end, int[] runs) {
+            this.chars = chars;
+            this.length = length;
+            this.start = start;
+            this.end = end;
+            this.runs = runs;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        public char charAt(int index) {
+            return chars[index];
+        }
+
+        /**
+         * Gets where a normalized character starts in the original text
+         * @param index Index in the normalized text
+         * @return Index in the original text
+         */
+        public int originalStart(int index) {
+            return start[index];
+        }
+
+        /**
+         * Gets where a normalized character ends in the original text,
+         * including repeated letters collapsed into it
+         * @param index Index in the normalized text
+         * @return Exclusive end index in the original text
+         */
+        public int originalEnd(int index) {
+            return end[index];
+        }
+
+        /**
+         * Gets how many repeated letters were collapsed into a normalized character
+         * @param index Index in the normalized text
+         * @return Run length, 1 if nothing was collapsed
+         */
+        public int runLength(int index) {
+            return runs[index];
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+    }
+
+    private final boolean leetspeak;
+    private final boolean diacritics;
+    private final boolean invisibleCharacters;
+    private final boolean collapseRepeats;
+
+    /**
+     * Creates a normalizer
+     * @param leetspeak Map look-alike digits and symbols to letters
+     * @param diacritics Strip accents and other combining marks
+     * @param invisibleCharacters Skip zero-width characters and color codes
+     * @param collapseRepeats Collapse runs of the same letter into one
+     */
+    public TextNormalizer(boolean leetspeak, boolean diacritics, boolean invisibleCharacters, boolean collapseRepeats) {
+        this.leetspeak = leetspeak;
+        this.diacritics = diacritics;
+        this.invisibleCharacters = invisibleCharacters;
+        this.collapseRepeats = collapseRepeats;
+    }
+
+    /**
+     * Normalizes text in a single pass
+     * @param text The text to normalize
+     * @return Normalized text mapped to the original
+     */
+    public NormalizedText normalize(String text) {
+        int length = text.length();
+        char[] chars = new char[length];
+        int[] start = new int[length];
+        int[] end = new int[length];
+        int[] runs = new int[length];
+        int count = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+
+            if (invisibleCharacters) {
+                if (isZeroWidth(c)) {
+                    continue;
+                }
+                int codeLength = colorCodeLength(text, i);
+                if (codeLength > 0) {
+                    i += codeLength - 1;
+                    continue;
+                }
+            }
+
+            if (diacritics) {
+                if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                    if (count > 0) {
+                        end[count - 1] = i + 1;
+                    }
+                    continue;
+                }
+                if (c < FOLD.length) {
+                    c = FOLD[c];
+                }
+            }
+
+            c = Character.toLowerCase(c);
+            if (leetspeak) {
+                c = fromLeetspeak(c);
+            }
+
+            if (collapseRepeats && count > 0 && chars[count - 1] == c) {
+                end[count - 1] = i + 1;
+                runs[count - 1]++;
+                continue;
+            }
+
+            chars[count] = c;
+            start[count] = i;
+            end[count] = i + 1;
+            runs[count] = 1;
+            count++;
+        }
+
+        return new NormalizedText(chars, count, start, end, runs);
+    }
+
+    private static boolean isZeroWidth(char c) {
+        return c == '\u200B' || c == '\u200C' || c == '\u200D' || c == '\u2060' || c == '\uFEFF' || c == '\u00AD';
+    }
+
+    /**
+     * Gets the length of a legacy or hex color code starting at an index
+     * @return Code length, 0 if there is no color code
+     */
+    private static int colorCodeLength(String text, int index) {
+        char c = text.charAt(index);
+        if ((c != '&' && c != '§') || index + 1 >= text.length()) {
+            return 0;
+        }
+
+        char code = Character.toLowerCase(text.charAt(index + 1));
+        if (code == '#' && index + 8 <= text.length()) {
+            for (int i = index + 2; i < index + 8; i++) {
+                if (Character.digit(text.charAt(i), 16) < 0) {
+                    return 0;
+                }
+            }
+            return 8;
+        }
+        if ((code >= '0' && code <= '9') || (code >= 'a' && code <= 'f') || (code >= 'k' && code <= 'o') || code == 'r') {
+            return 2;
+        }
+        return 0;
+    }
+
+    private static char fromLeetspeak(char c) {
+        return switch (c) {
+            case '0' -> 'o';
+            case '1', '!' -> 'i';
+            case '3' -> 'e';
+            case '4', '@' -> 'a';
+            case '5', '$' -> 's';
+            case '7' -> 't';
+            case '8' -> 'b';
+            default -> c;
+        };
+    }
+}
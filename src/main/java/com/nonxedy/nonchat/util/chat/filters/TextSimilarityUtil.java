@@ -3,13 +3,42 @@ package com.nonxedy.nonchat.util.chat.filters;
 /**
  * Utility class for calculating text similarity
  * Uses Levenshtein distance algorithm to determine how similar two strings are
+ *
+ * Distances are computed over a band of the edit matrix that is only as wide as the
+ * largest distance still of interest, and stop as soon as that distance is exceeded.
+ * Working buffers are kept per thread, so comparisons don't allocate.
  */
 public class TextSimilarityUtil {
 
+    // Buckets of the character histogram used to rule out pairs before the edit distance
+    private static final int HISTOGRAM_BUCKETS = 64;
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    /**
+     * Per-thread working memory, grown to the longest message seen
+     */
+    private static final class Buffers {
+        char[] first = new char[256];
+        char[] second = new char[256];
+        int[] previousRow = new int[257];
+        int[] currentRow = new int[257];
+        final int[] histogram = new int[HISTOGRAM_BUCKETS];
+
+        void ensureCapacity(int length) {
+            if (first.length < length) {
+                first = new char[length];
+                second = new char[length];
+                previousRow = new int[length + 1];
+                currentRow = new int[length + 1];
+            }
+        }
+    }
+
     /**
      * Calculates similarity between two strings using Levenshtein distance
      * Returns a value between 0.0 (completely different) and 1.0 (identical)
-     * 
+     *
      * @param str1 First string to compare
      * @param str2 Second string to compare
      * @return Similarity score between 0.0 and 1.0
@@ -19,88 +48,185 @@ public class TextSimilarityUtil {
             return 0.0;
         }
 
-        // Normalize strings for comparison
-        String normalized1 = normalizeString(str1);
-        String normalized2 = normalizeString(str2);
-
-        // If strings are identical after normalization, return 1.0
-        if (normalized1.equals(normalized2)) {
-            return 1.0;
-        }
+        Buffers buffers = BUFFERS.get();
+        buffers.ensureCapacity(Math.max(str1.length(), str2.length()));
+        int length1 = normalize(str1, buffers.first);
+        int length2 = normalize(str2, buffers.second);
 
-        // Calculate Levenshtein distance
-        int distance = levenshteinDistance(normalized1, normalized2);
-        
         // Get maximum length for normalization
-        int maxLength = Math.max(normalized1.length(), normalized2.length());
-        
+        int maxLength = Math.max(length1, length2);
         if (maxLength == 0) {
             return 1.0;
         }
 
+        int distance = boundedDistance(buffers, length1, length2, maxLength);
+
         // Convert distance to similarity (0.0 to 1.0)
         // Similarity = 1 - (distance / maxLength)
         return 1.0 - ((double) distance / maxLength);
     }
 
     /**
-     * Normalizes a string for comparison
-     * Converts to lowercase and removes extra whitespace
-     * 
-     * @param str String to normalize
-     * @return Normalized string
+     * Checks if two strings are at least as similar as a threshold.
+     * Same result as comparing {@link #calculateSimilarity} to the threshold, but
+     * gives up as soon as the threshold can't be reached.
+     *
+     * @param str1 First string to compare
+     * @param str2 Second string to compare
+     * @param threshold Minimum similarity between 0.0 and 1.0
+     * @return true if the similarity reaches the threshold
+     */
+    public static boolean isSimilar(String str1, String str2, double threshold) {
+        if (str1 == null || str2 == null) {
+            return 0.0 >= threshold;
+        }
+
+        Buffers buffers = BUFFERS.get();
+        buffers.ensureCapacity(Math.max(str1.length(), str2.length()));
+        int length1 = normalize(str1, buffers.first);
+        int length2 = normalize(str2, buffers.second);
+
+        int maxLength = Math.max(length1, length2);
+        if (maxLength == 0) {
+            return 1.0 >= threshold;
+        }
+
+        int maxDistance = maxDistance(threshold, maxLength);
+        if (maxDistance < 0) {
+            return false;
+        }
+
+        // Cheap lower bounds first: length difference, then character counts
+        if (Math.abs(length1 - length2) > maxDistance
+                || histogramDistance(buffers, length1, length2) > maxDistance) {
+            return false;
+        }
+
+        return boundedDistance(buffers, length1, length2, maxDistance) <= maxDistance;
+    }
+
+    /**
+     * Finds the largest distance whose similarity still reaches the threshold.
+     * similarity >= threshold  <=>  distance <= (1 - threshold) * maxLength, the estimate is
+     * then corrected with the exact expression used by {@link #calculateSimilarity} so
+     * rounding can't make the two methods disagree.
+     *
+     * @return Largest allowed distance, -1 if even identical strings fall short
      */
-    private static String normalizeString(String str) {
-        if (str == null) {
-            return "";
+    private static int maxDistance(double threshold, int maxLength) {
+        double estimate = Math.floor((1.0 - threshold) * maxLength);
+        int distance = (int) Math.max(-1, Math.min(maxLength, estimate));
+        while (distance < maxLength && 1.0 - ((double) (distance + 1) / maxLength) >= threshold) {
+            distance++;
         }
-        // Convert to lowercase and trim
-        return str.toLowerCase().trim();
+        while (distance >= 0 && !(1.0 - ((double) distance / maxLength) >= threshold)) {
+            distance--;
+        }
+        return distance;
+    }
+
+    /**
+     * Lowercases and trims a string into a buffer
+     * @return Length of the normalized text
+     */
+    private static int normalize(String str, char[] target) {
+        int start = 0;
+        int end = str.length();
+        while (start < end && str.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && str.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        for (int i = start; i < end; i++) {
+            target[i - start] = Character.toLowerCase(str.charAt(i));
+        }
+        return end - start;
+    }
+
+    /**
+     * Lower bound of the edit distance from how often characters occur.
+     * Every edit changes the count of at most one character on each side.
+     */
+    private static int histogramDistance(Buffers buffers, int length1, int length2) {
+        int[] histogram = buffers.histogram;
+        for (int i = 0; i < length1; i++) {
+            histogram[buffers.first[i] & (HISTOGRAM_BUCKETS - 1)]++;
+        }
+        for (int i = 0; i < length2; i++) {
+            histogram[buffers.second[i] & (HISTOGRAM_BUCKETS - 1)]--;
+        }
+
+        int surplus = 0;
+        int missing = 0;
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            int count = histogram[i];
+            if (count > 0) {
+                surplus += count;
+            } else {
+                missing -= count;
+            }
+            histogram[i] = 0;
+        }
+        return Math.max(surplus, missing);
     }
 
     /**
-     * Calculates Levenshtein distance between two strings
-     * This is the minimum number of single-character edits needed to transform one string into another
-     * 
-     * @param str1 First string
-     * @param str2 Second string
-     * @return Levenshtein distance
+     * Calculates Levenshtein distance between the normalized strings, up to a limit.
+     * Only cells within maxDistance of the diagonal can stay under the limit, so the
+     * rest of the matrix is skipped, and the search stops once a whole row is over it.
+     *
+     * @param maxDistance Largest distance of interest
+     * @return Levenshtein distance, or maxDistance + 1 if it is larger
      */
-    private static int levenshteinDistance(String str1, String str2) {
-        int len1 = str1.length();
-        int len2 = str2.length();
-
-        // Create a matrix to store distances
-        int[][] dp = new int[len1 + 1][len2 + 1];
-
-        // Initialize base cases
-        for (int i = 0; i <= len1; i++) {
-            dp[i][0] = i;
-        }
-        for (int j = 0; j <= len2; j++) {
-            dp[0][j] = j;
-        }
-
-        // Fill the matrix
-        for (int i = 1; i <= len1; i++) {
-            for (int j = 1; j <= len2; j++) {
-                if (str1.charAt(i - 1) == str2.charAt(j - 1)) {
-                    // Characters match, no cost
-                    dp[i][j] = dp[i - 1][j - 1];
-                } else {
-                    // Characters don't match, take minimum of three operations:
-                    // 1. Insertion
-                    // 2. Deletion
-                    // 3. Substitution
-                    dp[i][j] = 1 + Math.min(
-                        Math.min(dp[i - 1][j], dp[i][j - 1]),
-                        dp[i - 1][j - 1]
-                    );
+    private static int boundedDistance(Buffers buffers, int length1, int length2, int maxDistance) {
+        int limit = maxDistance + 1;
+        if (Math.abs(length1 - length2) > maxDistance) {
+            return limit;
+        }
+
+        char[] first = buffers.first;
+        char[] second = buffers.second;
+        int[] previous = buffers.previousRow;
+        int[] current = buffers.currentRow;
+
+        for (int j = 0; j <= length2; j++) {
+            previous[j] = Math.min(j, limit);
+        }
+
+        for (int i = 1; i <= length1; i++) {
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(length2, i + maxDistance);
+
+            // Cells just outside the band count as over the limit
+            current[from - 1] = from == 1 ? Math.min(i, limit) : limit;
+            int rowMinimum = current[from - 1];
+            char c = first[i - 1];
+
+            for (int j = from; j <= to; j++) {
+                int substitution = previous[j - 1] + (c == second[j - 1] ? 0 : 1);
+                int deletion = previous[j] + 1;
+                int insertion = current[j - 1] + 1;
+                int value = Math.min(Math.min(substitution, deletion), Math.min(insertion, limit));
+                current[j] = value;
+                if (value < rowMinimum) {
+                    rowMinimum = value;
                 }
             }
+            if (to < length2) {
+                current[to + 1] = limit;
+            }
+
+            if (rowMinimum > maxDistance) {
+                return limit;
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
         }
 
-        return dp[len1][len2];
+        return previous[length2];
     }
 }
-
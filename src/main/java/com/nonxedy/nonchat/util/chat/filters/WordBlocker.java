@@ -1,24 +1,40 @@
 package com.nonxedy.nonchat.util.chat.filters;
 
 import java.util.List;
-import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 
 /**
  * Handles message filtering by checking for banned words and regex patterns
  * Provides functionality to block messages containing prohibited content
  */
-@Data
-@AllArgsConstructor
+@Getter
 public class WordBlocker {
+    /** Characters a banned pattern may read per message unless configured */
+    public static final int DEFAULT_PATTERN_STEP_LIMIT = 100000;
+
     /** List of words that are not allowed in messages */
-    private List<String> bannedWords;
+    private final List<String> bannedWords;
 
     /** List of regex patterns for advanced filtering */
-    private List<String> bannedPatterns;
+    private final List<String> bannedPatterns;
+
+    /** Banned words compiled into a single automaton */
+    private final BannedWordMatcher wordMatcher;
+
+    /** Banned patterns compiled and validated once */
+    private final BannedPatternMatcher patternMatcher;
+
+    public WordBlocker(List<String> bannedWords, List<String> bannedPatterns) {
+        this(bannedWords, bannedPatterns, TextNormalizer.DEFAULT, DEFAULT_PATTERN_STEP_LIMIT);
+    }
+
+    public WordBlocker(List<String> bannedWords, List<String> bannedPatterns, TextNormalizer normalizer, int patternStepLimit) {
+        this.bannedWords = bannedWords;
+        this.bannedPatterns = bannedPatterns;
+        this.wordMatcher = new BannedWordMatcher(bannedWords, normalizer);
+        this.patternMatcher = new BannedPatternMatcher(bannedPatterns, patternStepLimit);
+    }
 
     /**
      * Checks if a message is allowed by scanning for banned words and patterns
@@ -26,31 +42,38 @@ public class WordBlocker {
      * @return true if message is allowed, false if it contains banned content
      */
     public boolean isMessageAllowed(String message) {
-        String lowerMessage = message.toLowerCase();
-
-        // Check banned words (case-insensitive)
-        for (String word : bannedWords) {
-            if (lowerMessage.contains(word.toLowerCase())) {
-                return false;
-            }
+        // Check banned words on the normalized message
+        if (wordMatcher.containsMatch(message)) {
+            return false;
         }
 
         // Check regex patterns (case-insensitive)
-        for (String pattern : bannedPatterns) {
-            try {
-                Pattern regex = Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
-                if (regex.matcher(message).find()) {
-                    return false;
-                }
-            } catch (PatternSyntaxException e) {
-                // Log invalid regex pattern but don't crash
-                System.err.println("Invalid regex pattern in banned patterns: " + pattern);
-            }
+        if (patternMatcher.containsMatch(message)) {
+            return false;
         }
 
         return true;
     }
 
+    /**
+     * Replaces banned words in a message instead of blocking it
+     * @param message The message to censor
+     * @param mask Character each censored character is replaced with
+     * @return Censored message
+     */
+    public String censor(String message, char mask) {
+        return wordMatcher.censor(message, mask);
+    }
+
+    /**
+     * Finds banned words in a message
+     * @param message The message to check
+     * @return Ranges of the message covered by banned words
+     */
+    public List<BannedWordMatcher.Span> findBannedWords(String message) {
+        return wordMatcher.findMatches(message);
+    }
+
     /**
      * Checks if a message is allowed by scanning for banned words (legacy method)
      * @param message The message to check
@@ -0,0 +1,160 @@
+package com.nonxedy.nonchat.util.chat.formatting;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Pre-rendered hover cards of online players.
+ * Building a card resolves prefixes, balance, playtime and placeholders, which is
+ * the most expensive part of formatting a message while its content rarely changes.
+ * Cards are built off the main thread when players join, refreshed on a schedule
+ * and on change events, and chat messages only attach the current snapshot.
+ */
+public class HoverCardCache {
+
+    /**
+     * Hover card snapshot and the format it was built from
+     */
+    private static final class Card {
+        final List<String> format;
+        final Component hover;
+
+        Card(List<String> format, Component hover) {
+            this.format = format;
+            this.hover = hover;
+        }
+    }
+
+    private static final Map<UUID, Card> cards = new ConcurrentHashMap<>();
+    private static final Set<UUID> refreshing = ConcurrentHashMap.newKeySet();
+    // Last hover text builder used by a channel, cards are built with its format
+    private static volatile HoverTextUtil renderer;
+    private static Plugin plugin;
+    private static BukkitTask refreshTask;
+
+    /**
+     * Starts refreshing cards of online players
+     * @param owner Plugin used to schedule refreshes
+     * @param refreshSeconds Interval of the periodic refresh, 0 or less to disable
+     */
+    public static void start(Plugin owner, int refreshSeconds) {
+        plugin = owner;
+        setRefreshInterval(refreshSeconds);
+    }
+
+    /**
+     * Changes the interval of the periodic refresh
+     * @param refreshSeconds Interval in seconds, 0 or less to disable
+     */
+    public static void setRefreshInterval(int refreshSeconds) {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+            refreshTask = null;
+        }
+        if (plugin != null && refreshSeconds > 0) {
+            long period = refreshSeconds * 20L;
+            refreshTask = Bukkit.getScheduler().runTaskTimer(plugin, HoverCardCache::refreshAll, period, period);
+        }
+    }
+
+    /**
+     * Stops refreshing and drops all cards
+     */
+    public static void stop() {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+            refreshTask = null;
+        }
+        cards.clear();
+        refreshing.clear();
+        renderer = null;
+        plugin = null;
+    }
+
+    /**
+     * Sets the hover text builder cards are built with
+     * @param util Hover text builder of the loaded channels
+     */
+    public static void setRenderer(HoverTextUtil util) {
+        renderer = util;
+    }
+
+    /**
+     * Gets the hover card of a player.
+     * Builds it on the calling thread only if there is no card for the current format yet.
+     * @param player The player to get the card for
+     * @param util Hover text builder of the channel
+     * @return Hover card, empty if no hover line has content
+     */
+    static Component getCard(Player player, HoverTextUtil util) {
+        renderer = util;
+        Card card = cards.get(player.getUniqueId());
+        if (card != null && card.format.equals(util.getHoverFormat())) {
+            return card.hover;
+        }
+
+        Component hover = util.buildHoverCard(player);
+        cards.put(player.getUniqueId(), new Card(util.getHoverFormat(), hover));
+        return hover;
+    }
+
+    /**
+     * Rebuilds the hover card of a player off the main thread
+     * @param player The player whose card changed
+     */
+    public static void refresh(Player player) {
+        HoverTextUtil util = renderer;
+        Plugin owner = plugin;
+        if (util == null || owner == null || !util.isEnabled()) {
+            return;
+        }
+
+        UUID playerId = player.getUniqueId();
+        // A rebuild already waiting will pick up the change
+        if (!refreshing.add(playerId)) {
+            return;
+        }
+        Bukkit.getScheduler().runTaskAsynchronously(owner, () -> {
+            refreshing.remove(playerId);
+            if (player.isOnline()) {
+                cards.put(playerId, new Card(util.getHoverFormat(), util.buildHoverCard(player)));
+            }
+        });
+    }
+
+    /**
+     * Rebuilds the hover cards of all online players off the main thread
+     */
+    public static void refreshAll() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            refresh(player);
+        }
+    }
+
+    /**
+     * Drops the hover card of a player
+     * @param playerId UUID of the player
+     */
+    public static void invalidate(UUID playerId) {
+        cards.remove(playerId);
+        refreshing.remove(playerId);
+    }
+
+    /**
+     * Gets the number of hover cards currently held
+     * @return Card count
+     */
+    public static int getSize() {
+        return cards.size();
+    }
+}
@@ -1,22 +1,21 @@
 package com.nonxedy.nonchat.util.chat.formatting;
 
 import java.util.List;
-import java.util.logging.Level;
 
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
 import com.nonxedy.nonchat.util.core.colors.ColorUtil;
 import com.nonxedy.nonchat.util.integration.external.IntegrationUtil;
+import com.nonxedy.nonchat.util.integration.external.PlaceholderCache;
 
-import me.clip.placeholderapi.PlaceholderAPI;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.event.HoverEvent;
 
 /**
  * Simple utility for adding hover text to existing components
- * Does not process colors or placeholders - just adds hover functionality
+ * Attaches the player's pre-rendered hover card from {@link HoverCardCache}
  */
 public class HoverTextUtil {
     private final List<String> hoverFormat;
@@ -40,13 +39,11 @@ public class HoverTextUtil {
             return component;
         }
 
-        String hoverText = buildHoverText(player);
-        if (hoverText.isEmpty()) {
+        Component hoverComponent = HoverCardCache.getCard(player, this);
+        if (Component.empty().equals(hoverComponent)) {
             return component;
         }
 
-        // Parse colors in hover text using ColorUtil
-        Component hoverComponent = ColorUtil.parseComponent(hoverText);
         return component
             .hoverEvent(HoverEvent.showText(hoverComponent))
             .clickEvent(ClickEvent.suggestCommand("/m " + player.getName()));
@@ -63,18 +60,28 @@ public class HoverTextUtil {
             return Component.text(text);
         }
 
-        Component baseComponent = Component.text(text);
+        return addHoverToComponent(Component.text(text), player);
+    }
+
+    /**
+     * Builds the hover card of a player.
+     * Resolves integrations and placeholders, so callers should reuse the result
+     * through {@link HoverCardCache} instead of building it for every message.
+     * @param player The player to build the card for
+     * @return Parsed hover card, {@link Component#empty()} if no line has content
+     */
+    Component buildHoverCard(Player player) {
+        if (hoverFormat == null || hoverFormat.isEmpty()) {
+            return Component.empty();
+        }
+
         String hoverText = buildHoverText(player);
-        
         if (hoverText.isEmpty()) {
-            return baseComponent;
+            return Component.empty();
         }
 
         // Parse colors in hover text using ColorUtil
-        Component hoverComponent = ColorUtil.parseComponent(hoverText);
-        return baseComponent
-            .hoverEvent(HoverEvent.showText(hoverComponent))
-            .clickEvent(ClickEvent.suggestCommand("/m " + player.getName()));
+        return ColorUtil.parseComponent(hoverText);
     }
 
     /**
@@ -83,6 +90,11 @@ public class HoverTextUtil {
      * @return Formatted hover text string
      */
     private String buildHoverText(Player player) {
+        // Integration data is looked up once per card, and only if the format uses it
+        String prefix = usesPlaceholder("{prefix}") ? IntegrationUtil.getPlayerPrefix(player) : null;
+        String balance = usesPlaceholder("{balance}") ? IntegrationUtil.getBalance(player) : null;
+        String playtime = usesPlaceholder("{playtime}") ? IntegrationUtil.getPlayTime(player) : null;
+
         StringBuilder hoverBuilder = new StringBuilder();
         
         for (String line : hoverFormat) {
@@ -90,7 +102,7 @@ public class HoverTextUtil {
                 continue;
             }
             
-            String processedLine = processHoverLine(line, player);
+            String processedLine = processHoverLine(line, player, prefix, balance, playtime);
             if (!processedLine.trim().isEmpty()) {
                 if (hoverBuilder.length() > 0) {
                     hoverBuilder.append("\n");
@@ -102,20 +114,27 @@ public class HoverTextUtil {
         return hoverBuilder.toString();
     }
 
+    private boolean usesPlaceholder(String placeholder) {
+        for (String line : hoverFormat) {
+            if (line != null && line.contains(placeholder)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Processes a single line of hover text
      * @param line The line to process
      * @param player The player to get information for
+     * @param prefix The player's prefix
+     * @param balance The player's balance
+     * @param playtime The player's play time
      * @return Processed line
      */
-    private String processHoverLine(String line, Player player) {
+    private String processHoverLine(String line, Player player, String prefix, String balance, String playtime) {
         if (line == null) return "";
         
-        // Get integration data
-        String prefix = IntegrationUtil.getPlayerPrefix(player);
-        String balance = IntegrationUtil.getBalance(player);
-        String playtime = IntegrationUtil.getPlayTime(player);
-        
         // Replace basic placeholders
         String processed = line
             .replace("{player}", player.getName())
@@ -126,11 +145,7 @@ public class HoverTextUtil {
     
         // Process PlaceholderAPI if available
         if (usePlaceholderAPI) {
-            try {
-                processed = PlaceholderAPI.setPlaceholders(player, processed);
-            } catch (Exception e) {
-                Bukkit.getLogger().log(Level.WARNING, "Error processing placeholder in hover text: {0}", e.getMessage());
-            }
+            processed = PlaceholderCache.setPlaceholders(player, processed);
         }
     
         return processed;
@@ -1,7 +1,7 @@
 package com.nonxedy.nonchat.util.chat.formatting;
 
 import com.nonxedy.nonchat.config.PluginMessages;
-import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+import com.nonxedy.nonchat.util.lang.MessageTranslator;
 
 import net.kyori.adventure.text.Component;
 
@@ -18,19 +18,14 @@ public class MessageFormatter {
 
     // Formats a message by key with optional arguments
     // key - message identifier in config
-    // args - variable arguments to insert into the message
-    // returns formatted Component with colors parsed
+    // args - slot names followed by their values, like "player", name
+    // returns formatted Component from the precompiled message
     public Component format(String key, Object... args) {
-        // Get raw message string from config using key
-        String message = messages.getString(key);
-        // Return empty component if message not found
-        if (message == null) {
-            return Component.empty();
+        // Let the server localize the message for each player
+        if (messages.isPerPlayerLanguage()) {
+            return MessageTranslator.translatable(key, args);
         }
-
-        // Insert arguments into message template
-        message = String.format(message, args);
-        // Parse colors and return as Component
-        return ColorUtil.parseComponent(message);
+        // Fill the slots of the message parsed when the language was loaded
+        return messages.getTemplate(key).format(args);
     }
 }
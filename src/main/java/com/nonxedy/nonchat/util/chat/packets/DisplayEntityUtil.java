@@ -22,7 +22,7 @@ import net.kyori.adventure.text.Component;
 
 /**
  * Manages chat bubble display using TextDisplay entities for better performance
- * Handles creation, removal and updating of floating text displays
+ * Handles creation, removal and remounting of floating text displays riding their player
  */
 public class DisplayEntityUtil {
     private static final int MAX_LINE_LENGTH = 40;
@@ -30,10 +30,12 @@ public class DisplayEntityUtil {
     private static final ObjectPool<TextDisplay> displayPool = new ObjectPool<>(50);
     
     /**
-     * Creates and configures multiple chat bubble TextDisplay entities for multiline text using pooled entities with individual axis scales and background color
+     * Creates multiple chat bubble TextDisplay entities for multiline text and mounts them on the player,
+     * using pooled entities with individual axis scales and background color.
+     * The bubbles ride the player, so the client moves them along without any teleports from the server
      * @param player The player to create bubbles for
      * @param text The text to display in bubbles
-     * @param location The base location to spawn bubbles at
+     * @param height Height of the lowest line above the player's feet in blocks
      * @param overallScale The overall scale multiplier
      * @param scaleX The X axis scale multiplier
      * @param scaleY The Y axis scale multiplier
@@ -41,18 +43,21 @@ public class DisplayEntityUtil {
      * @param backgroundColor The background color for the text displays
      * @return List of configured TextDisplay entities
      */
-    public static List<TextDisplay> spawnMultilineBubble(Player player, String text, Location location, double overallScale, double scaleX, double scaleY, double scaleZ, Color backgroundColor) {
+    public static List<TextDisplay> spawnMultilineBubble(Player player, String text, double height, double overallScale, double scaleX, double scaleY, double scaleZ, Color backgroundColor) {
         List<String> lines = splitTextIntoLines(text, MAX_LINE_LENGTH);
         List<TextDisplay> bubbleDisplays = new ArrayList<>();
+        Location location = player.getLocation();
+        // Passengers sit on top of the player's hitbox, the rest of the height is a translation
+        double baseOffset = height - player.getHeight();
 
         for (int i = 0; i < lines.size(); i++) {
-            Location lineLocation = location.clone().add(0, (lines.size() - 1 - i) * LINE_SPACING, 0);
+            float lineOffset = (float) (baseOffset + (lines.size() - 1 - i) * LINE_SPACING);
 
             TextDisplay bubble = displayPool.acquire(() -> {
                 try {
                     // Use the player's world to spawn the entity to ensure proper region handling
                     World world = player.getWorld();
-                    TextDisplay display = (TextDisplay) world.spawnEntity(lineLocation, EntityType.TEXT_DISPLAY);
+                    TextDisplay display = (TextDisplay) world.spawnEntity(location, EntityType.TEXT_DISPLAY);
                     configureTextDisplay(display, overallScale, scaleX, scaleY, scaleZ, backgroundColor);
                     return display;
                 } catch (Exception e) {
@@ -68,13 +73,16 @@ public class DisplayEntityUtil {
             }
 
             try {
-                bubble.teleport(lineLocation);
+                Transformation transformation = bubble.getTransformation();
+                transformation.getTranslation().set(0, lineOffset, 0);
+                bubble.setTransformation(transformation);
 
                 // Use parseComponent to handle all color formats (legacy, hex, minimessage)
                 // Don't strip colors in splitTextIntoLines, let parseComponent handle it
                 Component component = ColorUtil.parseComponent(lines.get(i));
                 bubble.text(component);
 
+                player.addPassenger(bubble);
                 bubbleDisplays.add(bubble);
             } catch (Exception e) {
                 // Remove the bubble if configuration fails
@@ -235,44 +243,36 @@ public class DisplayEntityUtil {
     }
 
     /**
-     * Updates the position of a single chat bubble TextDisplay
-     * @param bubble The TextDisplay to move
-     * @param location New location for the bubble
+     * Puts chat bubbles that fell off their player back on, for example after a teleport
+     * @param bubbles List of TextDisplay entities riding the player
+     * @param player The player the bubbles belong to
+     * @return false if the bubbles can't follow the player anymore and should be removed
      */
-    public static void updateBubbleLocation(TextDisplay bubble, Location location) {
+    public static boolean remountBubbles(List<TextDisplay> bubbles, Player player) {
         try {
-            if (bubble != null && !bubble.isDead()) {
-                bubble.teleport(location);
+            if (bubbles == null) {
+                return false;
             }
-        } catch (Exception e) {
-            Bukkit.getLogger().log(Level.FINE, "[nonchat] Error updating text display location: {0}", e.getMessage());
-        }
-    }
-    
-    /**
-     * Updates the positions of multiple chat bubble TextDisplay entities
-     * @param bubbles List of TextDisplay entities to move
-     * @param baseLocation Base location for the bubbles
-     */
-    public static void updateBubblesLocation(List<TextDisplay> bubbles, Location baseLocation) {
-        try {
-            if (bubbles != null) {
-                bubbles.removeIf(bubble -> bubble == null || bubble.isDead());
-                
-                for (int i = 0; i < bubbles.size(); i++) {
-                    try {
-                        TextDisplay bubble = bubbles.get(i);
-                        if (bubble != null && !bubble.isDead()) {
-                            Location lineLocation = baseLocation.clone().add(0, (bubbles.size() - 1 - i) * LINE_SPACING, 0);
-                            bubble.teleport(lineLocation);
-                        }
-                    } catch (Exception e) {
-                        Bukkit.getLogger().log(Level.FINE, "[nonchat] Error updating text display {0} location: {1}", new Object[]{i, e.getMessage()});
-                    }
+            bubbles.removeIf(bubble -> bubble == null || bubble.isDead());
+
+            for (TextDisplay bubble : bubbles) {
+                if (player.equals(bubble.getVehicle())) {
+                    continue;
+                }
+                // Entities can't ride across worlds
+                if (!bubble.getWorld().equals(player.getWorld())) {
+                    return false;
+                }
+                bubble.leaveVehicle();
+                bubble.teleport(player.getLocation());
+                if (!player.addPassenger(bubble)) {
+                    return false;
                 }
             }
+            return !bubbles.isEmpty();
         } catch (Exception e) {
-            Bukkit.getLogger().log(Level.FINE, "[nonchat] Error updating text displays location: {0}", e.getMessage());
+            Bukkit.getLogger().log(Level.FINE, "[nonchat] Error remounting text displays: {0}", e.getMessage());
+            return false;
         }
     }
 
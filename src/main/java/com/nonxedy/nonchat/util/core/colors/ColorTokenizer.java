@@ -0,0 +1,360 @@
+package com.nonxedy.nonchat.util.core.colors;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+
+/**
+ * Reads legacy color codes in a single pass.
+ * Legacy text (&x, §x, &#RRGGBB and &x&R&R&G&G&B&B) is turned straight into components
+ * instead of being translated to a § string and parsed a second time, and text mixing
+ * legacy codes with MiniMessage tags is rewritten to plain MiniMessage for the MiniMessage parser.
+ */
+final class ColorTokenizer {
+
+    private static final NamedTextColor[] LEGACY_COLORS = {
+        NamedTextColor.BLACK, NamedTextColor.DARK_BLUE, NamedTextColor.DARK_GREEN, NamedTextColor.DARK_AQUA,
+        NamedTextColor.DARK_RED, NamedTextColor.DARK_PURPLE, NamedTextColor.GOLD, NamedTextColor.GRAY,
+        NamedTextColor.DARK_GRAY, NamedTextColor.BLUE, NamedTextColor.GREEN, NamedTextColor.AQUA,
+        NamedTextColor.RED, NamedTextColor.LIGHT_PURPLE, NamedTextColor.YELLOW, NamedTextColor.WHITE
+    };
+
+    // Length of &x&R&R&G&G&B&B
+    private static final int BUNGEE_HEX_LENGTH = 14;
+    // Length of &#RRGGBB
+    private static final int HEX_LENGTH = 8;
+
+    private ColorTokenizer() {
+    }
+
+    /**
+     * Builds a component from text with legacy color codes.
+     * A color code resets formatting, &r resets everything, like in vanilla chat.
+     * @param message Text with &, § and hex color codes
+     * @return Component with one styled child per run of text
+     */
+    static Component parseLegacy(String message) {
+        int length = message.length();
+        StringBuilder text = new StringBuilder(length);
+        String leading = null;
+        List<Component> parts = null;
+        TextColor color = null;
+        EnumSet<TextDecoration> decorations = EnumSet.noneOf(TextDecoration.class);
+
+        int i = 0;
+        while (i < length) {
+            char c = message.charAt(i);
+            if ((c != '&' && c != '§') || i + 1 >= length) {
+                text.append(c);
+                i++;
+                continue;
+            }
+
+            // Work out which code this is before touching the current run
+            char code = Character.toLowerCase(message.charAt(i + 1));
+            int hex = -1;
+            int codeLength = 2;
+            TextDecoration decoration = null;
+            int legacyColor = legacyColorIndex(code);
+            if (code == '#' && c == '&') {
+                hex = parseHex(message, i + 2, 1);
+                codeLength = HEX_LENGTH;
+            } else if (code == 'x') {
+                hex = parseHex(message, i + 3, 2);
+                codeLength = BUNGEE_HEX_LENGTH;
+            } else if (legacyColor < 0 && code != 'r') {
+                decoration = decoration(code);
+            }
+            if (hex < 0 && legacyColor < 0 && decoration == null && code != 'r') {
+                text.append(c);
+                i++;
+                continue;
+            }
+
+            if (text.length() > 0) {
+                if (parts == null) {
+                    leading = text.toString();
+                    parts = new ArrayList<>();
+                } else {
+                    parts.add(Component.text(text.toString(), color, decorations));
+                }
+                text.setLength(0);
+            } else if (parts == null) {
+                leading = "";
+                parts = new ArrayList<>();
+            }
+
+            if (decoration != null) {
+                decorations.add(decoration);
+            } else {
+                color = hex >= 0 ? TextColor.color(hex) : legacyColor >= 0 ? LEGACY_COLORS[legacyColor] : null;
+                decorations.clear();
+            }
+            i += codeLength;
+        }
+
+        if (parts == null) {
+            return Component.text(message);
+        }
+        if (text.length() > 0) {
+            parts.add(Component.text(text.toString(), color, decorations));
+        }
+        if (leading.isEmpty() && parts.size() == 1) {
+            return parts.get(0);
+        }
+        return Component.text().content(leading).append(parts).build();
+    }
+
+    /**
+     * Works out the legacy style in effect at the end of a piece of text, the same way
+     * parseLegacy applies codes: a color resets the decorations, &r resets everything.
+     * @param inherited Style in effect before the text, as returned by this method
+     * @param text Text with &, § and hex color codes
+     * @return The active color followed by the active decorations as & codes, empty if unstyled
+     */
+    static String trailingStyle(String inherited, String text) {
+        if (text.indexOf('&') < 0 && text.indexOf('§') < 0) {
+            return inherited;
+        }
+
+        StyleScan scan = new StyleScan();
+        scan.read(inherited);
+        scan.read(text);
+        return scan.toCodes();
+    }
+
+    /**
+     * Checks if text starts with a code that replaces whatever style came before it
+     * @param text Text with &, § and hex color codes
+     * @return true if the text starts with a color, hex or reset code
+     */
+    static boolean startsWithColor(String text) {
+        StyleScan scan = new StyleScan();
+        return scan.readCode(text, 0) > 0 && scan.decoration == null;
+    }
+
+    /**
+     * Color and decorations picked up while reading codes
+     */
+    private static final class StyleScan {
+        String color;
+        final EnumSet<TextDecoration> decorations = EnumSet.noneOf(TextDecoration.class);
+        // Decoration of the last code read, null if it was a color or reset
+        TextDecoration decoration;
+
+        void read(String text) {
+            int i = 0;
+            while (i < text.length()) {
+                int codeLength = readCode(text, i);
+                i += codeLength > 0 ? codeLength : 1;
+            }
+        }
+
+        /**
+         * Applies the code at an index
+         * @return Length of the code, 0 if there is no code at the index
+         */
+        int readCode(String text, int i) {
+            if (i + 1 >= text.length() || (text.charAt(i) != '&' && text.charAt(i) != '§')) {
+                return 0;
+            }
+
+            char code = Character.toLowerCase(text.charAt(i + 1));
+            int legacyColor = legacyColorIndex(code);
+            if (legacyColor >= 0) {
+                return applyColor("&" + code, 2);
+            }
+            if (code == 'r') {
+                return applyColor(null, 2);
+            }
+            if (code == '#' && text.charAt(i) == '&') {
+                int hex = parseHex(text, i + 2, 1);
+                return hex >= 0 ? applyColor(String.format("&#%06X", hex), HEX_LENGTH) : 0;
+            }
+            if (code == 'x') {
+                int hex = parseHex(text, i + 3, 2);
+                return hex >= 0 ? applyColor(String.format("&#%06X", hex), BUNGEE_HEX_LENGTH) : 0;
+            }
+            decoration = decoration(code);
+            if (decoration == null) {
+                return 0;
+            }
+            decorations.add(decoration);
+            return 2;
+        }
+
+        private int applyColor(String newColor, int codeLength) {
+            color = newColor;
+            decorations.clear();
+            decoration = null;
+            return codeLength;
+        }
+
+        String toCodes() {
+            if (color == null && decorations.isEmpty()) {
+                return "";
+            }
+            StringBuilder codes = new StringBuilder(color != null ? color : "");
+            for (TextDecoration active : decorations) {
+                codes.append('&').append(decorationCode(active));
+            }
+            return codes.toString();
+        }
+    }
+
+    /**
+     * Rewrites &x and &#RRGGBB codes as MiniMessage tags, leaving existing tags untouched.
+     * Hex codes are only rewritten if the message doesn't already use &lt;#RRGGBB&gt; tags.
+     * @param message Text mixing legacy codes and MiniMessage tags
+     * @return Text using only MiniMessage tags for colors
+     */
+    static String toMiniMessage(String message) {
+        int length = message.length();
+        boolean convertHex = !containsMiniMessageHex(message);
+
+        // The last place a tag can end, a rewritten hex code counts as one
+        int lastTagEnd = message.lastIndexOf('>');
+        if (convertHex) {
+            for (int i = length - HEX_LENGTH; i > lastTagEnd; i--) {
+                if (message.charAt(i) == '&' && message.charAt(i + 1) == '#' && parseHex(message, i + 2, 1) >= 0) {
+                    lastTagEnd = i;
+                    break;
+                }
+            }
+        }
+
+        StringBuilder result = new StringBuilder(length + 16);
+        boolean inTag = false;
+        int i = 0;
+        while (i < length) {
+            char c = message.charAt(i);
+            if (convertHex && c == '&' && i + 1 < length && message.charAt(i + 1) == '#'
+                    && parseHex(message, i + 2, 1) >= 0) {
+                result.append("<#").append(message, i + 2, i + HEX_LENGTH).append('>');
+                i += HEX_LENGTH;
+                inTag = false;
+                continue;
+            }
+            if (inTag) {
+                inTag = c != '>';
+            } else if (c == '<' && lastTagEnd > i) {
+                inTag = true;
+            } else if (c == '&' && i + 1 < length) {
+                String tag = miniMessageTag(message.charAt(i + 1));
+                if (tag != null) {
+                    result.append(tag);
+                    i += 2;
+                    continue;
+                }
+            }
+            result.append(c);
+            i++;
+        }
+        return result.toString();
+    }
+
+    private static boolean containsMiniMessageHex(String message) {
+        int index = message.indexOf("<#");
+        while (index >= 0) {
+            if (index + 8 < message.length() && message.charAt(index + 8) == '>' && parseHex(message, index + 2, 1) >= 0) {
+                return true;
+            }
+            index = message.indexOf("<#", index + 2);
+        }
+        return false;
+    }
+
+    /**
+     * Reads six hex digits, each preceded by a code character when step is 2
+     * @return The RGB value, -1 if there aren't six hex digits
+     */
+    private static int parseHex(String text, int start, int step) {
+        int end = start + 6 * step;
+        if (end - (step - 1) > text.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i += step) {
+            if (step == 2 && text.charAt(i - 1) != '&' && text.charAt(i - 1) != '§') {
+                return -1;
+            }
+            char c = text.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                digit = c - 'a' + 10;
+            } else if (c >= 'A' && c <= 'F') {
+                digit = c - 'A' + 10;
+            } else {
+                return -1;
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    private static int legacyColorIndex(char code) {
+        if (code >= '0' && code <= '9') {
+            return code - '0';
+        }
+        if (code >= 'a' && code <= 'f') {
+            return code - 'a' + 10;
+        }
+        return -1;
+    }
+
+    private static TextDecoration decoration(char code) {
+        return switch (code) {
+            case 'k' -> TextDecoration.OBFUSCATED;
+            case 'l' -> TextDecoration.BOLD;
+            case 'm' -> TextDecoration.STRIKETHROUGH;
+            case 'n' -> TextDecoration.UNDERLINED;
+            case 'o' -> TextDecoration.ITALIC;
+            default -> null;
+        };
+    }
+
+    private static char decorationCode(TextDecoration decoration) {
+        return switch (decoration) {
+            case OBFUSCATED -> 'k';
+            case BOLD -> 'l';
+            case STRIKETHROUGH -> 'm';
+            case UNDERLINED -> 'n';
+            case ITALIC -> 'o';
+        };
+    }
+
+    private static String miniMessageTag(char code) {
+        return switch (code) {
+            case '0' -> "<black>";
+            case '1' -> "<dark_blue>";
+            case '2' -> "<dark_green>";
+            case '3' -> "<dark_aqua>";
+            case '4' -> "<dark_red>";
+            case '5' -> "<dark_purple>";
+            case '6' -> "<gold>";
+            case '7' -> "<gray>";
+            case '8' -> "<dark_gray>";
+            case '9' -> "<blue>";
+            case 'a', 'A' -> "<green>";
+            case 'b', 'B' -> "<aqua>";
+            case 'c', 'C' -> "<red>";
+            case 'd', 'D' -> "<light_purple>";
+            case 'e', 'E' -> "<yellow>";
+            case 'f', 'F' -> "<white>";
+            case 'k', 'K' -> "<obfuscated>";
+            case 'l', 'L' -> "<bold>";
+            case 'm', 'M' -> "<strikethrough>";
+            case 'n', 'N' -> "<underlined>";
+            case 'o', 'O' -> "<italic>";
+            case 'r', 'R' -> "<reset>";
+            default -> null;
+        };
+    }
+}
@@ -1,46 +1,19 @@
 package com.nonxedy.nonchat.util.core.colors;
 
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.WeakHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.bukkit.Color;
 import org.bukkit.entity.Player;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import net.md_5.bungee.api.ChatColor;
 
-/**
- * Simple LRU cache implementation
- */
-class LRUCache<K,V> {
-    private final Map<K,V> cache;
-    
-    public LRUCache(int maxSize) {
-        this.cache = Collections.synchronizedMap(
-            new LinkedHashMap<K,V>(maxSize, 0.75f, true) {
-                @Override
-                protected boolean removeEldestEntry(Entry<K,V> eldest) {
-                    return cache.size() > maxSize;
-                }
-            });
-    }
-    
-    public V get(K key) {
-        return cache.get(key);
-    }
-    
-    public void put(K key, V value) {
-        cache.put(key, value);
-    }
-}
-
 /**
  * Provides color code processing and text formatting for chat messages
  * Supports legacy color codes, hex colors, and MiniMessage format
@@ -49,14 +22,19 @@ public class ColorUtil {
     private static final Pattern HEX_PATTERN = Pattern.compile("&#([A-Fa-f0-9]{6})");
     private static final Pattern LEGACY_COLOR_PATTERN = Pattern.compile("&[0-9a-fklmnor]");
     private static final Pattern SECTION_COLOR_PATTERN = Pattern.compile("§[0-9a-fklmnor]");
-    private static final Pattern MINIMESSAGE_PATTERN = Pattern.compile("<[/#]?[a-zA-Z0-9_:#]+>");
     private static final Pattern MINIMESSAGE_TAG_PATTERN = Pattern.compile("<[/#]?(?:[a-zA-Z_]+|#[0-9a-fA-F]{6})(?::[^>]*)?>");
     private static final Pattern GRADIENT_PATTERN = Pattern.compile("<gradient:[^>]+>");
     private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
 
-    private static final LRUCache<String, String> COLOR_CACHE = new LRUCache<>(1000);
-    private static final Map<String, Component> COMPONENT_CACHE = 
-        Collections.synchronizedMap(new WeakHashMap<>());
+    // Bounded caches safe for the async chat threads, most hits are messages from the lang files
+    private static final Cache<String, String> COLOR_CACHE = Caffeine.newBuilder()
+        .maximumSize(1000)
+        .recordStats()
+        .build();
+    private static final Cache<String, Component> COMPONENT_CACHE = Caffeine.newBuilder()
+        .maximumSize(2000)
+        .recordStats()
+        .build();
 
     /**
      * Converts color codes in text to actual colored output
@@ -66,10 +44,10 @@ public class ColorUtil {
      */
     public static String parseColor(String message) {
         if (message == null) return "";
-        
-        String cached = COLOR_CACHE.get(message);
-        if (cached != null) return cached;
-        
+        return COLOR_CACHE.get(message, ColorUtil::translateColors);
+    }
+
+    private static String translateColors(String message) {
         Matcher matcher = HEX_PATTERN.matcher(message);
         StringBuilder buffer = new StringBuilder(message.length() + 32);
 
@@ -79,15 +57,51 @@ public class ColorUtil {
         }
         matcher.appendTail(buffer);
         
-        String result = ChatColor.translateAlternateColorCodes('&', buffer.toString());
-        COLOR_CACHE.put(message, result);
-        return result;
+        return ChatColor.translateAlternateColorCodes('&', buffer.toString());
     }
 
+    /**
+     * Converts color-coded text into an Adventure Component, reusing earlier results
+     * Meant for text that repeats, like configured messages and formats
+     * @param message The text to convert to Component
+     * @return Adventure Component with processed colors
+     */
     public static Component parseComponentCached(String message) {
         if (message == null || message.isEmpty()) return Component.empty();
         
-        return COMPONENT_CACHE.computeIfAbsent(message, m -> parseComponent(m));
+        return COMPONENT_CACHE.get(message, ColorUtil::parseComponent);
+    }
+
+    /**
+     * Gets hit, miss and eviction counts of the parsed component cache
+     * @return Cache statistics
+     */
+    public static CacheStats getComponentCacheStats() {
+        return COMPONENT_CACHE.stats();
+    }
+
+    /**
+     * Gets the number of parsed components cached
+     * @return Estimated cache size
+     */
+    public static long getComponentCacheSize() {
+        return COMPONENT_CACHE.estimatedSize();
+    }
+
+    /**
+     * Gets hit, miss and eviction counts of the translated color code cache
+     * @return Cache statistics
+     */
+    public static CacheStats getColorCacheStats() {
+        return COLOR_CACHE.stats();
+    }
+
+    /**
+     * Gets the number of translated strings cached
+     * @return Estimated cache size
+     */
+    public static long getColorCacheSize() {
+        return COLOR_CACHE.estimatedSize();
     }
 
     /**
@@ -102,8 +116,7 @@ public class ColorUtil {
         if (containsMiniMessageTags(message)) {
             return parseMiniMessageComponent(message);
         } else {
-            String legacyMessage = parseColor(message);
-            return LegacyComponentSerializer.legacySection().deserialize(legacyMessage);
+            return ColorTokenizer.parseLegacy(message);
         }
     }
     
@@ -131,12 +144,11 @@ public class ColorUtil {
 
         try {
             if (containsLegacyCodes(message)) {
-                message = prepareMixedFormatMessage(message);
+                message = ColorTokenizer.toMiniMessage(message);
             }
             return MINI_MESSAGE.deserialize(message);
         } catch (Exception e) {
-            String legacyMessage = parseColor(message);
-            return LegacyComponentSerializer.legacySection().deserialize(legacyMessage);
+            return ColorTokenizer.parseLegacy(message);
         }
     }
     
@@ -153,99 +165,6 @@ public class ColorUtil {
         return parseMiniMessageComponent(message);
     }
     
-    /**
-     * Prepares a message that might contain both legacy and MiniMessage formats
-     * Converts legacy color codes to their equivalent MiniMessage format
-     * @param message The mixed format message
-     * @return A message with all color codes in MiniMessage format
-     */
-    private static String prepareMixedFormatMessage(String message) {
-        if (message == null || message.isEmpty()) return "";
-        
-        String result = message;
-        
-        Matcher miniMessageHexMatcher = Pattern.compile("<#[0-9a-fA-F]{6}>").matcher(result);
-        boolean hasMiniMessageHex = miniMessageHexMatcher.find();
-        
-        if (!hasMiniMessageHex) {
-            Matcher matcher = HEX_PATTERN.matcher(result);
-            StringBuffer buffer = new StringBuffer(result.length() + 4 * 8);
-            
-            while (matcher.find()) {
-                String hexColor = matcher.group(1);
-                matcher.appendReplacement(buffer, "<#" + hexColor + ">");
-            }
-            matcher.appendTail(buffer);
-            result = buffer.toString();
-        }
-        
-        result = safelyConvertLegacyColors(result);
-        
-        return result;
-    }
-    
-    private static String safelyConvertLegacyColors(String message) {
-        if (message == null || message.isEmpty()) return message;
-        
-        StringBuilder result = new StringBuilder();
-        int i = 0;
-        int len = message.length();
-        
-        while (i < len) {
-            if (message.charAt(i) == '<') {
-                int endTag = message.indexOf('>', i);
-                if (endTag != -1) {
-                    result.append(message, i, endTag + 1);
-                    i = endTag + 1;
-                    continue;
-                }
-            }
-            
-            if (i < len - 1 && message.charAt(i) == '&') {
-                char code = message.charAt(i + 1);
-                String miniMessageTag = convertLegacyCodeToMiniMessage(code);
-                if (miniMessageTag != null) {
-                    result.append(miniMessageTag);
-                    i += 2;
-                    continue;
-                }
-            }
-            
-            result.append(message.charAt(i));
-            i++;
-        }
-        
-        return result.toString();
-    }
-    
-    private static String convertLegacyCodeToMiniMessage(char code) {
-        switch (code) {
-            case '0': return "<black>";
-            case '1': return "<dark_blue>";
-            case '2': return "<dark_green>";
-            case '3': return "<dark_aqua>";
-            case '4': return "<dark_red>";
-            case '5': return "<dark_purple>";
-            case '6': return "<gold>";
-            case '7': return "<gray>";
-            case '8': return "<dark_gray>";
-            case '9': return "<blue>";
-            case 'a': case 'A': return "<green>";
-            case 'b': case 'B': return "<aqua>";
-            case 'c': case 'C': return "<red>";
-            case 'd': case 'D': return "<light_purple>";
-            case 'e': case 'E': return "<yellow>";
-            case 'f': case 'F': return "<white>";
-            case 'k': case 'K': return "<obfuscated>";
-            case 'l': case 'L': return "<bold>";
-            case 'm': case 'M': return "<strikethrough>";
-            case 'n': case 'N': return "<underlined>";
-            case 'o': case 'O': return "<italic>";
-            case 'r': case 'R': return "<reset>";
-            default: return null;
-        }
-    }
-    
     /**
      * Checks if a message contains MiniMessage tags using pattern matching
      * @param message The message to check
@@ -256,6 +175,30 @@ public class ColorUtil {
         return MINIMESSAGE_TAG_PATTERN.matcher(message).find();
     }
     
+    /**
+     * Gets the legacy style in effect at the end of a piece of text.
+     * Prepending the result to the text that follows makes it render the way it
+     * would as part of the whole string, stacked codes like "&c&l" included.
+     * @param inheritedStyle Style in effect before the text, as returned by this method
+     * @param text Text with legacy color codes
+     * @return Active color and decoration codes, empty if unstyled
+     */
+    public static String getTrailingStyle(String inheritedStyle, String text) {
+        if (text == null || text.isEmpty()) return inheritedStyle;
+        return ColorTokenizer.trailingStyle(inheritedStyle, text);
+    }
+
+    /**
+     * Checks if a message starts with a color, hex or reset code, so it doesn't depend
+     * on the style of the text before it
+     * @param message The message to check
+     * @return true if the message starts with a code that replaces the previous style
+     */
+    public static boolean startsWithColor(String message) {
+        if (message == null || message.isEmpty()) return false;
+        return ColorTokenizer.startsWithColor(message);
+    }
+
     /**
      * Checks if a message contains legacy color codes
      * @param message The message to check
@@ -275,15 +218,7 @@ public class ColorUtil {
      */
     public static String stripAllColors(String message) {
         if (message == null) return "";
-        
-        String result = message;
-        
-        result = HEX_PATTERN.matcher(result).replaceAll("");
-        result = LEGACY_COLOR_PATTERN.matcher(result).replaceAll("");
-        result = SECTION_COLOR_PATTERN.matcher(result).replaceAll("");
-        result = MINIMESSAGE_PATTERN.matcher(result).replaceAll("");
-        
-        return result;
+        return stripCodes(message);
     }
     
     /**
@@ -293,11 +228,91 @@ public class ColorUtil {
      */
     public static boolean hasColorCodes(String message) {
         if (message == null) return false;
-        
-        return HEX_PATTERN.matcher(message).find() ||
-               LEGACY_COLOR_PATTERN.matcher(message).find() ||
-               SECTION_COLOR_PATTERN.matcher(message).find() ||
-               MINIMESSAGE_PATTERN.matcher(message).find();
+        return stripCodes(message) != message;
+    }
+
+    /**
+     * Removes &#RRGGBB, &x and §x codes and MiniMessage-style tags in one pass.
+     * Characters are copied to a buffer and every time one completes a code at the end
+     * of the buffer the code is cut off again, so codes that only appear once another code
+     * is removed (like "&&cc") are stripped as well.
+     * @param message The message to strip
+     * @return The same instance if there was nothing to strip, otherwise the plain text
+     */
+    private static String stripCodes(String message) {
+        int length = message.length();
+        int first = 0;
+        while (first < length && !isCodeStart(message.charAt(first))) {
+            first++;
+        }
+        if (first == length) {
+            return message;
+        }
+
+        char[] buffer = new char[length];
+        message.getChars(0, first, buffer, 0);
+        int size = first;
+        for (int i = first; i < length; i++) {
+            char c = message.charAt(i);
+            buffer[size++] = c;
+            size -= codeLengthAtEnd(buffer, size);
+        }
+        return size == length ? message : new String(buffer, 0, size);
+    }
+
+    private static boolean isCodeStart(char c) {
+        return c == '&' || c == '§' || c == '<';
+    }
+
+    /**
+     * Gets the length of the color code the buffer ends with
+     * @return Length of the code, 0 if the buffer doesn't end with one
+     */
+    private static int codeLengthAtEnd(char[] buffer, int size) {
+        char last = buffer[size - 1];
+        // &x and §x
+        if (size >= 2 && isFormatCode(last) && (buffer[size - 2] == '&' || buffer[size - 2] == '§')) {
+            return 2;
+        }
+        // &#RRGGBB
+        if (size >= 8 && buffer[size - 8] == '&' && buffer[size - 7] == '#') {
+            boolean hex = true;
+            for (int i = size - 6; i < size && hex; i++) {
+                hex = isHexDigit(buffer[i]);
+            }
+            if (hex) {
+                return 8;
+            }
+        }
+        // <tag>, </tag>, <#tag> and <tag:argument>
+        if (last == '>') {
+            int start = size - 2;
+            while (start >= 0 && isTagChar(buffer[start])) {
+                start--;
+            }
+            int nameLength = size - 2 - start;
+            if (start >= 1 && buffer[start] == '/' && nameLength > 0) {
+                start--;
+            }
+            if (start >= 0 && buffer[start] == '<' && nameLength > 0) {
+                return size - start;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isFormatCode(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f')
+                || c == 'k' || c == 'l' || c == 'm' || c == 'n' || c == 'o' || c == 'r';
+    }
+
+    private static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static boolean isTagChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '_' || c == ':' || c == '#';
     }
     
     /**
@@ -336,12 +351,10 @@ public class ColorUtil {
             try {
                 return parseMiniMessageComponent(message);
             } catch (Exception e) {
-                String legacyMessage = parseColor(message);
-                return LegacyComponentSerializer.legacySection().deserialize(legacyMessage);
+                return ColorTokenizer.parseLegacy(message);
             }
         } else {
-            String legacyMessage = parseColor(message);
-            return LegacyComponentSerializer.legacySection().deserialize(legacyMessage);
+            return ColorTokenizer.parseLegacy(message);
         }
     }
 
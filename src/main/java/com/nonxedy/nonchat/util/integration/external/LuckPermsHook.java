@@ -0,0 +1,82 @@
+package com.nonxedy.nonchat.util.integration.external;
+
+import java.util.UUID;
+import java.util.logging.Level;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredServiceProvider;
+
+import com.nonxedy.nonchat.chat.channel.ChannelAudienceIndex;
+import com.nonxedy.nonchat.util.chat.formatting.HoverCardCache;
+
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.event.EventSubscription;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
+
+/**
+ * Single subscription to LuckPerms data recalculation.
+ * Every recalculation refreshes the player's channel access, drops their cached
+ * placeholders and rebuilds their hover card, in that order so the card is built
+ * from fresh placeholder values.
+ */
+public class LuckPermsHook {
+
+    private final Plugin plugin;
+    private final ChannelAudienceIndex audienceIndex;
+    private EventSubscription<UserDataRecalculateEvent> subscription;
+
+    /**
+     * Creates the hook
+     * @param plugin Plugin owning the subscription
+     * @param audienceIndex Channel audiences to refresh on permission changes
+     */
+    public LuckPermsHook(Plugin plugin, ChannelAudienceIndex audienceIndex) {
+        this.plugin = plugin;
+        this.audienceIndex = audienceIndex;
+    }
+
+    /**
+     * Subscribes to LuckPerms data recalculation if LuckPerms is installed.
+     * Without it channel audiences, placeholders and hover cards refresh by time only.
+     */
+    public void subscribe() {
+        if (subscription != null) {
+            return;
+        }
+        try {
+            RegisteredServiceProvider<LuckPerms> provider = Bukkit.getServicesManager().getRegistration(LuckPerms.class);
+            if (provider == null) {
+                return;
+            }
+            subscription = provider.getProvider().getEventBus()
+                    .subscribe(plugin, UserDataRecalculateEvent.class, this::onUserDataRecalculate);
+        } catch (NoClassDefFoundError e) {
+            Bukkit.getLogger().info("[nonchat] LuckPerms not installed - audiences, placeholders and hover cards refresh periodically only");
+        } catch (Exception e) {
+            Bukkit.getLogger().log(Level.WARNING, "[nonchat] Error subscribing to LuckPerms events: {0}", e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the subscription.
+     * LuckPerms also removes it itself when the plugin is disabled.
+     */
+    public void unsubscribe() {
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
+        }
+    }
+
+    private void onUserDataRecalculate(UserDataRecalculateEvent event) {
+        UUID playerId = event.getUser().getUniqueId();
+        audienceIndex.refreshPlayer(playerId);
+        PlaceholderCache.invalidate(playerId);
+        Player player = Bukkit.getPlayer(playerId);
+        if (player != null) {
+            HoverCardCache.refresh(player);
+        }
+    }
+}
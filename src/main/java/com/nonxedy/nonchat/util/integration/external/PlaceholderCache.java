@@ -0,0 +1,288 @@
+package com.nonxedy.nonchat.util.integration.external;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import me.clip.placeholderapi.PlaceholderAPI;
+
+/**
+ * Per-player cache of resolved PlaceholderAPI placeholders.
+ * Each placeholder in a text is resolved on its own and reused for its configured
+ * time to live, so chat formats, hover text and notifications sharing the same
+ * placeholders don't expand them again for every message.
+ * Values are grouped by player, so dropping everything of a player is a single removal.
+ */
+public class PlaceholderCache {
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("%([^%\\s]+)%");
+
+    /**
+     * Resolved value and when it stops being reused
+     */
+    private static final class Entry {
+        final String value;
+        final long expiresAt;
+
+        Entry(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    /**
+     * Cached values of one player by placeholder identifier
+     */
+    private static final class PlayerValues {
+        final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Cache settings, replaced as a whole on reload
+     */
+    private static final class Settings {
+        static final Settings DISABLED = new Settings(false, 0L, Collections.emptyMap(), Collections.emptySet());
+
+        final boolean enabled;
+        final long defaultTtlMillis;
+        final Map<String, Long> ttls;
+        final Set<String> neverCache;
+
+        Settings(boolean enabled, long defaultTtlMillis, Map<String, Long> ttls, Set<String> neverCache) {
+            this.enabled = enabled;
+            this.defaultTtlMillis = defaultTtlMillis;
+            this.ttls = ttls;
+            this.neverCache = neverCache;
+        }
+
+        /**
+         * Gets the time to live of a placeholder.
+         * A rule for "luckperms_prefix" matches only that placeholder, a rule for
+         * "luckperms" matches every placeholder of the expansion.
+         * @return Time to live in milliseconds, 0 or less if it must not be cached
+         */
+        long ttlFor(String identifier) {
+            for (String name = identifier; name != null; name = parentOf(name)) {
+                if (neverCache.contains(name)) {
+                    return 0L;
+                }
+                Long ttl = ttls.get(name);
+                if (ttl != null) {
+                    return ttl;
+                }
+            }
+            return defaultTtlMillis;
+        }
+
+        private static String parentOf(String name) {
+            int separator = name.lastIndexOf('_');
+            return separator > 0 ? name.substring(0, separator) : null;
+        }
+    }
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder uncached = new LongAdder();
+    private static volatile Settings settings = Settings.DISABLED;
+    private static volatile Cache<UUID, PlayerValues> cache = createCache(1, 1L);
+    private static volatile boolean placeholderAPIEnabled;
+
+    /**
+     * Applies cache settings, dropping all cached values
+     * @param enabled Whether placeholders are cached at all
+     * @param defaultTtlMillis Time to live of placeholders without their own rule
+     * @param maxEntries Maximum number of cached values across all players
+     * @param ttls Time to live by placeholder or expansion name
+     * @param neverCache Placeholder or expansion names that are always resolved fresh
+     */
+    public static void configure(boolean enabled, long defaultTtlMillis, int maxEntries,
+                                 Map<String, Long> ttls, Collection<String> neverCache) {
+        Map<String, Long> normalizedTtls = new HashMap<>();
+        ttls.forEach((name, ttl) -> normalizedTtls.put(normalize(name), ttl));
+        Set<String> normalizedNeverCache = new HashSet<>();
+        neverCache.forEach(name -> normalizedNeverCache.add(normalize(name)));
+
+        // Once the longest time to live has passed without a lookup, nothing of the player is reusable
+        long longestTtlMillis = defaultTtlMillis;
+        for (Long ttl : ttls.values()) {
+            longestTtlMillis = Math.max(longestTtlMillis, ttl);
+        }
+
+        placeholderAPIEnabled = Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null;
+        Cache<UUID, PlayerValues> previous = cache;
+        cache = createCache(Math.max(1, maxEntries), Math.max(1L, longestTtlMillis));
+        settings = new Settings(enabled, defaultTtlMillis, Map.copyOf(normalizedTtls), Set.copyOf(normalizedNeverCache));
+        previous.invalidateAll();
+    }
+
+    private static Cache<UUID, PlayerValues> createCache(int maxEntries, long longestTtlMillis) {
+        // A player weighs as much as the values they hold, so max-entries still counts values
+        return Caffeine.newBuilder()
+                .maximumWeight(maxEntries)
+                .weigher((UUID playerId, PlayerValues values) -> Math.max(1, values.entries.size()))
+                .expireAfterAccess(Duration.ofMillis(longestTtlMillis))
+                .build();
+    }
+
+    private static String normalize(String name) {
+        String trimmed = name.trim().toLowerCase(Locale.ROOT);
+        if (trimmed.length() > 1 && trimmed.startsWith("%") && trimmed.endsWith("%")) {
+            return trimmed.substring(1, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+
+    /**
+     * Replaces PlaceholderAPI placeholders in text, reusing cached values
+     * @param player The player to resolve placeholders for
+     * @param text Text containing placeholders
+     * @return Text with placeholders replaced, or the original text if PlaceholderAPI is not available
+     */
+    public static String setPlaceholders(Player player, String text) {
+        if (text == null || text.indexOf('%') < 0 || !placeholderAPIEnabled) {
+            return text;
+        }
+
+        Settings current = settings;
+        if (!current.enabled || player == null) {
+            uncached.increment();
+            return resolve(player, text);
+        }
+
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(text);
+        StringBuilder result = null;
+        int last = 0;
+        while (matcher.find()) {
+            if (result == null) {
+                result = new StringBuilder(text.length() + 32);
+            }
+            result.append(text, last, matcher.start());
+            result.append(resolveCached(player, matcher.group(), matcher.group(1), current));
+            last = matcher.end();
+        }
+
+        if (result == null) {
+            return text;
+        }
+        result.append(text, last, text.length());
+        return result.toString();
+    }
+
+    private static String resolveCached(Player player, String placeholder, String identifier, Settings current) {
+        // Rules ignore case, values don't: some expansions read arguments case-sensitively
+        long ttl = current.ttlFor(identifier.toLowerCase(Locale.ROOT));
+        if (ttl <= 0) {
+            uncached.increment();
+            return resolve(player, placeholder);
+        }
+
+        UUID playerId = player.getUniqueId();
+        PlayerValues values = cache.get(playerId, id -> new PlayerValues());
+        long now = System.nanoTime();
+        Entry entry = values.entries.get(identifier);
+        if (entry != null && !entry.isExpired(now)) {
+            hits.increment();
+            return entry.value;
+        }
+
+        misses.increment();
+        String value = resolve(player, placeholder);
+        Entry previous = values.entries.put(identifier, new Entry(value, now + TimeUnit.MILLISECONDS.toNanos(ttl)));
+        if (previous == null) {
+            // Weigh the player again now that they hold one more value, unless they were invalidated meanwhile
+            cache.asMap().replace(playerId, values, values);
+        }
+        return value;
+    }
+
+    private static String resolve(Player player, String text) {
+        try {
+            return PlaceholderAPI.setPlaceholders(player, text);
+        } catch (Exception e) {
+            Bukkit.getLogger().log(Level.WARNING, "[nonchat] Error processing placeholder: {0}", e.getMessage());
+            return text;
+        }
+    }
+
+    /**
+     * Drops all cached values of a player
+     * @param playerId UUID of the player
+     */
+    public static void invalidate(UUID playerId) {
+        cache.invalidate(playerId);
+    }
+
+    /**
+     * Drops all cached values
+     */
+    public static void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Gets the number of placeholders served from the cache
+     * @return Hit count
+     */
+    public static long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of cacheable placeholders that had to be resolved
+     * @return Miss count
+     */
+    public static long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of resolutions that bypassed the cache
+     * @return Count of never-cached or disabled resolutions
+     */
+    public static long getUncachedCount() {
+        return uncached.sum();
+    }
+
+    /**
+     * Gets the share of cacheable placeholders served from the cache
+     * @return Hit rate in percent
+     */
+    public static double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : hitCount * 100.0 / total;
+    }
+
+    /**
+     * Gets the approximate number of cached values
+     * @return Cached value count
+     */
+    public static long getSize() {
+        long size = 0;
+        for (PlayerValues values : cache.asMap().values()) {
+            size += values.entries.size();
+        }
+        return size;
+    }
+}
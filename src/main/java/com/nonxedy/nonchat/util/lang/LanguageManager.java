@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.logging.Level;
 
@@ -23,6 +24,12 @@ public class LanguageManager {
     private FileConfiguration currentLang;
     // Map of language codes to their corresponding configurations
     private final Map<String, FileConfiguration> loadedLanguages;
+    // Messages of the active language with colors translated, compiled when the language is set
+    private volatile Map<String, String> messages = Map.of();
+    private volatile Map<String, MessageTemplate> templates = Map.of();
+    // Templates of every loaded language by language code, used to localize messages per player
+    private volatile Map<String, Map<String, MessageTemplate>> localizedTemplates = Map.of();
+    private volatile boolean perPlayerLanguage;
     
     /**
      * Initializes the language manager and sets up default languages
@@ -80,6 +87,65 @@ public class LanguageManager {
      */
     public void setLanguage(String lang) {
         currentLang = loadedLanguages.getOrDefault(lang, loadedLanguages.get("en"));
+        compileMessages();
+    }
+
+    /**
+     * Sets whether players see messages in the language of their client
+     * Takes effect the next time the language is set
+     * @param perPlayerLanguage true to localize messages per player
+     */
+    public void setPerPlayerLanguage(boolean perPlayerLanguage) {
+        this.perPlayerLanguage = perPlayerLanguage;
+    }
+
+    /**
+     * Checks if players see messages in the language of their client
+     * @return true if messages are localized per player
+     */
+    public boolean isPerPlayerLanguage() {
+        return perPlayerLanguage;
+    }
+
+    /**
+     * Translates colors and parses every message of the active language once,
+     * and of all other languages too when messages are localized per player
+     */
+    private void compileMessages() {
+        Map<String, String> compiledMessages = new HashMap<>();
+        Map<String, MessageTemplate> compiledTemplates = new HashMap<>();
+        Map<String, Map<String, MessageTemplate>> compiledLanguages = new HashMap<>();
+        for (Map.Entry<String, FileConfiguration> entry : loadedLanguages.entrySet()) {
+            FileConfiguration lang = entry.getValue();
+            if (lang == currentLang) {
+                compileLanguage(lang, compiledMessages, compiledTemplates);
+                compiledLanguages.put(entry.getKey(), compiledTemplates);
+            } else if (perPlayerLanguage) {
+                Map<String, MessageTemplate> langTemplates = new HashMap<>();
+                compileLanguage(lang, new HashMap<>(), langTemplates);
+                compiledLanguages.put(entry.getKey(), langTemplates);
+            }
+        }
+        messages = compiledMessages;
+        templates = compiledTemplates;
+        localizedTemplates = compiledLanguages;
+    }
+
+    private void compileLanguage(FileConfiguration lang, Map<String, String> compiledMessages,
+                                 Map<String, MessageTemplate> compiledTemplates) {
+        for (String key : lang.getKeys(true)) {
+            if (!lang.isString(key)) {
+                continue;
+            }
+            String message = ColorUtil.parseColor(lang.getString(key));
+            compiledMessages.put(key, message);
+            try {
+                compiledTemplates.put(key, MessageTemplate.compile(message));
+            } catch (Exception e) {
+                Bukkit.getLogger().log(Level.WARNING, "[nonchat] Failed to parse message {0}: {1}",
+                    new Object[]{key, e.getMessage()});
+            }
+        }
     }
 
     /**
@@ -125,6 +191,40 @@ public class LanguageManager {
      * @return The colored message string, or an error message if key not found
      */
     public String getMessage(String key) {
+        String message = messages.get(key);
+        if (message != null) {
+            return message;
+        }
         return ColorUtil.parseColor(currentLang.getString(key, "Missing message: " + key));
     }
+
+    /**
+     * Retrieves a precompiled message from the current language configuration
+     * @param key The message key to retrieve
+     * @return The message template, compiled on the spot if the key is not a plain message
+     */
+    public MessageTemplate getTemplate(String key) {
+        MessageTemplate template = templates.get(key);
+        return template != null ? template : MessageTemplate.compile(getMessage(key));
+    }
+
+    /**
+     * Retrieves a precompiled message in a player's language
+     * Falls back to the active language if messages aren't localized per player
+     * or the player's language has no file or no such message
+     * @param key The message key to retrieve
+     * @param locale The locale of the player's client
+     * @return The message template, or null if the active language has no such message either,
+     *         for example a key added after the language file was created
+     */
+    public MessageTemplate getTemplate(String key, Locale locale) {
+        if (perPlayerLanguage && locale != null) {
+            Map<String, MessageTemplate> langTemplates = localizedTemplates.get(locale.getLanguage());
+            MessageTemplate template = langTemplates != null ? langTemplates.get(key) : null;
+            if (template != null) {
+                return template;
+            }
+        }
+        return templates.get(key);
+    }
 }
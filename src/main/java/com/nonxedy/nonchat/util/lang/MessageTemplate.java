@@ -0,0 +1,162 @@
+package com.nonxedy.nonchat.util.lang;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+
+/**
+ * A language message parsed once into a component with named slots like {player}.
+ * Filling the slots swaps pieces of the parsed component instead of replacing text
+ * in the message and parsing all of it again. Slot values inherit the style of the
+ * text around them.
+ */
+public final class MessageTemplate {
+
+    // Slots are marked with private use characters while the message is parsed
+    private static final char SLOT_MARKER = '\uE000';
+    private static final int MAX_SLOTS = 256;
+    private static final Pattern MARKER_PATTERN = Pattern.compile("[\\uE000-\\uE0FF]");
+
+    private final String text;
+    private final String[] slots;
+    // Parsed message with markers, null if a slot sits inside a tag and can't be swapped
+    private final Component component;
+
+    private MessageTemplate(String text, String[] slots, Component component) {
+        this.text = text;
+        this.slots = slots;
+        this.component = component;
+    }
+
+    /**
+     * Parses a message into a template
+     * @param text The message with color codes and {slot} placeholders
+     * @return The compiled template
+     */
+    public static MessageTemplate compile(String text) {
+        List<String> slots = new ArrayList<>(2);
+        StringBuilder marked = new StringBuilder(text.length());
+        boolean slotInTag = false;
+        int tagStart = -1;
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            int end = c == '{' ? slotEnd(text, i) : -1;
+            if (end < 0 || slots.size() >= MAX_SLOTS && !slots.contains(text.substring(i + 1, end))) {
+                if (c == '<') {
+                    tagStart = i;
+                } else if (c == '>') {
+                    tagStart = -1;
+                }
+                marked.append(c);
+                i++;
+                continue;
+            }
+
+            String name = text.substring(i + 1, end);
+            int index = slots.indexOf(name);
+            if (index < 0) {
+                index = slots.size();
+                slots.add(name);
+            }
+            // Tag arguments such as hover text or commands are strings, not components
+            slotInTag |= tagStart >= 0 && text.indexOf('>', end) >= 0;
+            marked.append((char) (SLOT_MARKER + index));
+            i = end + 1;
+        }
+
+        String[] names = slots.toArray(new String[0]);
+        if (names.length == 0) {
+            return new MessageTemplate(text, names, ColorUtil.parseComponent(text));
+        }
+        return new MessageTemplate(text, names, slotInTag ? null : ColorUtil.parseComponent(marked.toString()));
+    }
+
+    private static int slotEnd(String text, int start) {
+        int i = start + 1;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '}') {
+                return i > start + 1 ? i : -1;
+            }
+            if (!(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z') && !(c >= '0' && c <= '9') && c != '_' && c != '-') {
+                return -1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * Fills the slots of the message
+     * @param values Slot names followed by their values, like "player", name, "seconds", 5.
+     *               String values are parsed for color codes, components are used as they are
+     * @return The message component
+     */
+    public Component format(Object... values) {
+        if (slots.length == 0) {
+            return component;
+        }
+        if (component == null) {
+            return ColorUtil.parseComponent(replaceText(values));
+        }
+
+        ComponentLike[] filled = new ComponentLike[slots.length];
+        for (int i = 0; i + 1 < values.length; i += 2) {
+            int index = indexOf(String.valueOf(values[i]));
+            if (index >= 0 && filled[index] == null) {
+                filled[index] = toComponent(values[i + 1]);
+            }
+        }
+        return component.replaceText(TextReplacementConfig.builder()
+            .match(MARKER_PATTERN)
+            .replacement((match, builder) -> {
+                int index = match.group().charAt(0) - SLOT_MARKER;
+                // Slots without a value are shown as they were written
+                return filled[index] != null ? filled[index] : Component.text("{" + slots[index] + "}");
+            })
+            .build());
+    }
+
+    private String replaceText(Object[] values) {
+        String result = text;
+        for (int i = 0; i + 1 < values.length; i += 2) {
+            Object value = values[i + 1];
+            result = result.replace("{" + values[i] + "}", value instanceof ComponentLike component
+                ? PlainTextComponentSerializer.plainText().serialize(component.asComponent()) : String.valueOf(value));
+        }
+        return result;
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static ComponentLike toComponent(Object value) {
+        if (value instanceof ComponentLike component) {
+            return component;
+        }
+        String text = String.valueOf(value);
+        return ColorUtil.hasColorCodes(text) ? ColorUtil.parseComponent(text) : Component.text(text);
+    }
+
+    /**
+     * Gets the message as written in the language file, with color codes translated
+     * @return The message text
+     */
+    public String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,84 @@
+package com.nonxedy.nonchat.util.lang;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.TranslationArgument;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import net.kyori.adventure.translation.Translator;
+
+/**
+ * Renders nonchat messages in the language of each player's client.
+ * Messages are sent as translatable components keyed "nonchat.&lt;message key&gt;" with slot names
+ * and values as argument pairs, and the server localizes them per viewer through the
+ * global translator using the precompiled templates of every language.
+ */
+public final class MessageTranslator implements Translator {
+
+    public static final String KEY_PREFIX = "nonchat.";
+    private static final Key NAME = Key.key("nonchat", "messages");
+
+    private final LanguageManager languageManager;
+
+    /**
+     * Creates a translator backed by the loaded language files
+     * @param languageManager Source of the message templates
+     */
+    public MessageTranslator(LanguageManager languageManager) {
+        this.languageManager = languageManager;
+    }
+
+    /**
+     * Creates a message that is localized when it is sent to a player
+     * @param key The message key
+     * @param values Slot names followed by their values, like "player", name
+     * @return Translatable component
+     */
+    public static Component translatable(String key, Object... values) {
+        List<ComponentLike> arguments = new ArrayList<>(values.length);
+        for (int i = 0; i + 1 < values.length; i += 2) {
+            arguments.add(Component.text(String.valueOf(values[i])));
+            arguments.add(MessageTemplate.toComponent(values[i + 1]));
+        }
+        // Shown by the client if no language file has the message
+        return Component.translatable(KEY_PREFIX + key, "Missing message: " + key, arguments);
+    }
+
+    @Override
+    public Key name() {
+        return NAME;
+    }
+
+    @Override
+    public MessageFormat translate(String key, Locale locale) {
+        // Messages carry colors, so they are only rendered as components
+        return null;
+    }
+
+    @Override
+    public Component translate(TranslatableComponent component, Locale locale) {
+        String key = component.key();
+        if (!key.startsWith(KEY_PREFIX)) {
+            return null;
+        }
+        MessageTemplate template = languageManager.getTemplate(key.substring(KEY_PREFIX.length()), locale);
+        if (template == null) {
+            // Unknown to the language files, the client shows the component's fallback text
+            return null;
+        }
+
+        List<TranslationArgument> arguments = component.arguments();
+        Object[] values = new Object[arguments.size()];
+        for (int i = 0; i < values.length; i++) {
+            Component argument = arguments.get(i).asComponent();
+            values[i] = i % 2 == 0 ? PlainTextComponentSerializer.plainText().serialize(argument) : argument;
+        }
+        return template.format(values);
+    }
+}
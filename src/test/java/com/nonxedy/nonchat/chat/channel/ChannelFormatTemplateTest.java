@@ -0,0 +1,99 @@
+package com.nonxedy.nonchat.chat.channel;
+
+import static com.nonxedy.nonchat.util.core.colors.StyledText.render;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.function.UnaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+import com.nonxedy.nonchat.util.core.colors.ColorUtil;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Checks the compiled template against resolving every placeholder first and
+ * parsing the format afterwards, which is what it replaced. The message continues
+ * the text before it, the text after the message starts unstyled.
+ */
+class ChannelFormatTemplateTest {
+
+    private static final String PLAYER_NAME = "Steve";
+    private static final String MESSAGE = "hi &athere";
+
+    private static final long SEED = 0x7E3B1A7EL;
+    private static final int SAMPLES = 20_000;
+
+    // Pieces of legacy formats, every code is complete so no code forms across a slot
+    private static final String[] FORMAT_PIECES = {
+        "&c", "&l", "&o", "&n", "&r", "&#12AB34", "§m", "§x§a§b§c§d§e§f", "&k",
+        "[", "] ", "text", " ", ":", "%prefix%", "%suffix%", "%player_name%",
+    };
+    private static final String[] VALUES = {
+        "", "&4", "&l", "V&nI", "&r", "x &m y", "&e[VIP]&l ", "&#ABCDEFz", "plain",
+    };
+
+    @Test
+    void stackedCodesCarryIntoSlots() {
+        Map<String, String> values = Map.of("%prefix%", "[Admin]", "%suffix%", "&o!", "%rank%", "Lord");
+        assertRendersLikeWholeFormat("&c&l%prefix% {message}", values);
+        assertRendersLikeWholeFormat("&c&l%player_name%&7: {message}", values);
+        assertRendersLikeWholeFormat("&l&c%prefix% after {message}", values);
+        assertRendersLikeWholeFormat("&#FF0000&n%rank% &o%player_name%%suffix% &l{message} &8(%prefix%)", values);
+        assertRendersLikeWholeFormat("%prefix%&l%suffix% text %rank%{message}", values);
+
+        Map<String, String> styledValues = Map.of("%prefix%", "&e[VIP]&l ", "%suffix%", "&r", "%rank%", "&4&m5");
+        assertRendersLikeWholeFormat("&c&l%prefix%%player_name% {message}", styledValues);
+        assertRendersLikeWholeFormat("&o%rank% %suffix%%player_name%&n %prefix%{message}", styledValues);
+        assertRendersLikeWholeFormat("&c %prefix% text %suffix% %rank% &l{message}", styledValues);
+    }
+
+    @Test
+    void randomFormatsRenderLikeWholeFormat() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < SAMPLES; i++) {
+            String format = randomFormat(random);
+            Map<String, String> values = Map.of("%prefix%", VALUES[random.nextInt(VALUES.length)],
+                    "%suffix%", VALUES[random.nextInt(VALUES.length)]);
+            assertRendersLikeWholeFormat(format, values);
+        }
+    }
+
+    private static void assertRendersLikeWholeFormat(String format, Map<String, String> values) {
+        UnaryOperator<String> placeholders = text -> resolve(text, values);
+        Component rendered = ChannelFormatTemplate.compile(format).render(PLAYER_NAME, placeholders,
+                UnaryOperator.identity(), style -> ColorUtil.parseConfigComponent(style + MESSAGE));
+
+        String resolved = resolve(format, values).replace("%player_name%", PLAYER_NAME);
+        int messageIndex = resolved.indexOf("{message}");
+        Component expected = ColorUtil.parseConfigComponent(resolved.substring(0, messageIndex) + MESSAGE)
+                .append(ColorUtil.parseConfigComponent(resolved.substring(messageIndex + "{message}".length())));
+        assertEquals(render(expected), render(rendered), () -> "format \"" + format + "\" with " + values);
+    }
+
+    private static String resolve(String text, Map<String, String> values) {
+        String resolved = text;
+        for (Map.Entry<String, String> value : values.entrySet()) {
+            resolved = resolved.replace(value.getKey(), value.getValue());
+        }
+        return resolved;
+    }
+
+    private static String randomFormat(Random random) {
+        StringBuilder format = new StringBuilder();
+        int pieces = random.nextInt(12);
+        int messageAt = random.nextInt(pieces + 1);
+        for (int i = 0; i < pieces; i++) {
+            if (i == messageAt) {
+                format.append("{message}");
+            }
+            format.append(FORMAT_PIECES[random.nextInt(FORMAT_PIECES.length)]);
+        }
+        if (messageAt == pieces) {
+            format.append("{message}");
+        }
+        return format.toString();
+    }
+}
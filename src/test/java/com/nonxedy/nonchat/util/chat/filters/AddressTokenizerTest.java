@@ -0,0 +1,51 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.nonxedy.nonchat.util.chat.filters.AddressTokenizer.Address;
+
+/**
+ * Checks that sentences using a spelled-out "dot" are only reported as uncertain,
+ * while real obfuscated addresses stay certain
+ */
+class AddressTokenizerTest {
+
+    @Test
+    void spelledOutDotAfterCommonWordIsUncertain() {
+        assertUncertain("the dot com bubble", true);
+        assertUncertain("a dot net developer", true);
+        assertUncertain("remember THE DOT COM days", true);
+    }
+
+    @Test
+    void spelledOutDotAddressIsCertain() {
+        assertUncertain("play dot example dot net", false);
+        assertUncertain("example dot com", false);
+        assertUncertain("join the dot com:25565", false);
+        assertUncertain("http://the dot com", false);
+    }
+
+    @Test
+    void otherSeparatorsAreCertain() {
+        assertUncertain("the(dot)com", false);
+        assertUncertain("the[.]com", false);
+        assertUncertain("the.com", false);
+    }
+
+    @Test
+    void sentencesWithoutAddressAreIgnored() {
+        assertTrue(AddressTokenizer.tokenize("polka dot dress", false).isEmpty());
+        assertTrue(AddressTokenizer.tokenize("wait . it works", false).isEmpty());
+    }
+
+    private static void assertUncertain(String message, boolean uncertain) {
+        List<Address> addresses = AddressTokenizer.tokenize(message, false);
+        assertEquals(1, addresses.size(), () -> "addresses in \"" + message + "\": " + addresses);
+        assertEquals(uncertain, addresses.get(0).isUncertain(), () -> "uncertain \"" + message + "\"");
+    }
+}
@@ -0,0 +1,68 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+/**
+ * Similarity as it was before the banded, early-exit rewrite: a full Levenshtein
+ * matrix for every pair, kept as the reference the tests and benchmarks compare against
+ */
+public final class OldTextSimilarityUtil {
+
+    private OldTextSimilarityUtil() {
+    }
+
+    /**
+     * Calculates similarity between two strings using Levenshtein distance
+     * @param str1 First string to compare
+     * @param str2 Second string to compare
+     * @return Similarity score between 0.0 and 1.0
+     */
+    public static double calculateSimilarity(String str1, String str2) {
+        if (str1 == null || str2 == null) {
+            return 0.0;
+        }
+
+        String normalized1 = str1.toLowerCase().trim();
+        String normalized2 = str2.toLowerCase().trim();
+
+        if (normalized1.equals(normalized2)) {
+            return 1.0;
+        }
+
+        int distance = levenshteinDistance(normalized1, normalized2);
+        int maxLength = Math.max(normalized1.length(), normalized2.length());
+
+        if (maxLength == 0) {
+            return 1.0;
+        }
+
+        return 1.0 - ((double) distance / maxLength);
+    }
+
+    private static int levenshteinDistance(String str1, String str2) {
+        int len1 = str1.length();
+        int len2 = str2.length();
+
+        int[][] dp = new int[len1 + 1][len2 + 1];
+
+        for (int i = 0; i <= len1; i++) {
+            dp[i][0] = i;
+        }
+        for (int j = 0; j <= len2; j++) {
+            dp[0][j] = j;
+        }
+
+        for (int i = 1; i <= len1; i++) {
+            for (int j = 1; j <= len2; j++) {
+                if (str1.charAt(i - 1) == str2.charAt(j - 1)) {
+                    dp[i][j] = dp[i - 1][j - 1];
+                } else {
+                    dp[i][j] = 1 + Math.min(
+                        Math.min(dp[i - 1][j], dp[i][j - 1]),
+                        dp[i - 1][j - 1]
+                    );
+                }
+            }
+        }
+
+        return dp[len1][len2];
+    }
+}
@@ -0,0 +1,106 @@
+package com.nonxedy.nonchat.util.chat.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the banded, early-exit similarity against the full-matrix Levenshtein it replaced
+ */
+class TextSimilarityUtilTest {
+
+    private static final long SEED = 0x5EED_2024L;
+    private static final int PAIRS = 20_000;
+    // Few letters, so random pairs land at every distance instead of nearly always far apart
+    private static final String ALPHABET = "abcAB ";
+
+    @Test
+    void similarityMatchesFullMatrixLevenshtein() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < PAIRS; i++) {
+            String first = randomText(random);
+            String second = mutate(random, first);
+            assertEquals(OldTextSimilarityUtil.calculateSimilarity(first, second), TextSimilarityUtil.calculateSimilarity(first, second),
+                    () -> "similarity of '" + first + "' and '" + second + "'");
+        }
+    }
+
+    @Test
+    void isSimilarMatchesThresholdComparison() {
+        Random random = new Random(SEED + 1);
+        for (int i = 0; i < PAIRS; i++) {
+            String first = randomText(random);
+            String second = mutate(random, first);
+            for (double threshold : thresholds(random, first, second)) {
+                boolean expected = TextSimilarityUtil.calculateSimilarity(first, second) >= threshold;
+                assertEquals(expected, TextSimilarityUtil.isSimilar(first, second, threshold),
+                        () -> "isSimilar('" + first + "', '" + second + "', " + threshold + ")");
+            }
+        }
+    }
+
+    @Test
+    void isSimilarHandlesEdgeInputs() {
+        assertTrue(TextSimilarityUtil.isSimilar("", "  ", 1.0));
+        assertFalse(TextSimilarityUtil.isSimilar("", "", Math.nextUp(1.0)));
+        assertTrue(TextSimilarityUtil.isSimilar(null, "abc", 0.0));
+        assertFalse(TextSimilarityUtil.isSimilar(null, "abc", Double.MIN_VALUE));
+        assertFalse(TextSimilarityUtil.isSimilar("abc", "abd", Double.NaN));
+        assertTrue(TextSimilarityUtil.isSimilar("Hello", "hello ", 1.0));
+    }
+
+    /**
+     * Thresholds around the exact similarity of the pair and at fixed edges
+     */
+    private static List<Double> thresholds(Random random, String first, String second) {
+        List<Double> thresholds = new ArrayList<>();
+        double exact = OldTextSimilarityUtil.calculateSimilarity(first, second);
+        thresholds.add(exact);
+        thresholds.add(Math.nextUp(exact));
+        thresholds.add(Math.nextDown(exact));
+        thresholds.add(0.0);
+        thresholds.add(1.0);
+        thresholds.add(-0.5);
+        thresholds.add(1.5);
+        thresholds.add(random.nextDouble());
+        // Every similarity a string of this length can have
+        int maxLength = Math.max(first.trim().length(), second.trim().length());
+        for (int distance = 0; distance <= maxLength; distance++) {
+            thresholds.add(1.0 - ((double) distance / maxLength));
+        }
+        return thresholds;
+    }
+
+    private static String randomText(Random random) {
+        int length = random.nextInt(24);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+
+    private static String mutate(Random random, String text) {
+        if (random.nextInt(4) == 0) {
+            return randomText(random);
+        }
+        StringBuilder mutated = new StringBuilder(text);
+        int edits = random.nextInt(6);
+        for (int i = 0; i < edits; i++) {
+            char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            int index = mutated.length() == 0 ? 0 : random.nextInt(mutated.length());
+            switch (mutated.length() == 0 ? 0 : random.nextInt(3)) {
+                case 0 -> mutated.insert(index, c);
+                case 1 -> mutated.deleteCharAt(index);
+                default -> mutated.setCharAt(index, c);
+            }
+        }
+        return mutated.toString();
+    }
+}
@@ -0,0 +1,127 @@
+package com.nonxedy.nonchat.util.core.colors;
+
+import static com.nonxedy.nonchat.util.core.colors.StyledText.render;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the one-pass tokenizer against the code it replaced:
+ * parseColor followed by LegacyComponentSerializer for legacy text, and
+ * prepareMixedFormatMessage for text mixing legacy codes with MiniMessage tags.
+ */
+class ColorTokenizerTest {
+
+    private static final long SEED = 0x70CE2L;
+    private static final int SAMPLES = 100_000;
+
+    // Pieces of legacy text, every code is complete so both parsers see the same codes
+    private static final String PLAIN = "Hello world 123 ~!?.,AbZ&";
+    private static final String CODES = "0123456789abcdefklmnorABCDEFKLMNOR";
+    private static final String SECTION_CODES = "0123456789abcdefklmnor";
+    private static final String HEX_DIGITS = "0123456789abcdefABCDEF";
+
+    // Pieces of mixed text, including broken tags and codes inside tag arguments
+    private static final String[] MIXED_PIECES = {
+        "<red>", "</red>", "<bold>", "<#a1B2c3>", "<#12345>", "<gradient:#fff:#000>", "</gradient>",
+        "<hover:show_text:'&c hi'>", "</hover>", "<", ">", "<<", "&c", "&A", "&l", "&r", "&z", "&", "&&",
+        "&#12ab9F", "&#12ab9", "&#GG0000", "§c", "text", " ", "x", "#", "/",
+    };
+
+    @Test
+    void parseLegacyRendersLikeOldSerializer() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < SAMPLES; i++) {
+            String message = randomLegacy(random);
+            assertEquals(render(OldColorUtil.parseLegacy(message)), render(ColorTokenizer.parseLegacy(message)),
+                    () -> "parseLegacy(\"" + message + "\")");
+        }
+    }
+
+    @Test
+    void parseLegacyHandlesKnownCases() {
+        assertLegacy("plain");
+        assertLegacy("&cred &lbold red &9blue");
+        assertLegacy("&l&cred, not bold");
+        assertLegacy("&c&lred bold&r plain");
+        assertLegacy("&#FFaa00orange §x§1§2§3§4§5§6hex §obungee");
+        assertLegacy("&x&f&f&0&0&a&ahex&kmagic");
+        assertLegacy("trailing &c");
+        assertLegacy("&z not a code & neither");
+        assertLegacy("&&cstill red");
+    }
+
+    @Test
+    void toMiniMessageMatchesOldConversion() {
+        Random random = new Random(SEED + 1);
+        for (int i = 0; i < SAMPLES; i++) {
+            String message = randomMixed(random);
+            assertEquals(OldColorUtil.prepareMixedFormatMessage(message), ColorTokenizer.toMiniMessage(message),
+                    () -> "toMiniMessage(\"" + message + "\")");
+        }
+    }
+
+    @Test
+    void toMiniMessageHandlesKnownCases() {
+        assertEquals("<red>hi <bold>there", ColorTokenizer.toMiniMessage("&chi &lthere"));
+        assertEquals("<#12ab9F>hex <red>x", ColorTokenizer.toMiniMessage("&#12ab9Fhex &cx"));
+        // Hex codes are left alone once the message already uses MiniMessage hex tags
+        assertEquals("<#a1b2c3>&#12ab9F", ColorTokenizer.toMiniMessage("<#a1b2c3>&#12ab9F"));
+        // Tag arguments keep their legacy codes
+        assertEquals("<hover:show_text:'&c hi'><red>x", ColorTokenizer.toMiniMessage("<hover:show_text:'&c hi'>&cx"));
+        for (String message : new String[] {"<red>&", "a < b &c", "&#12ab9F<bold", "<&c>", ""}) {
+            assertEquals(OldColorUtil.prepareMixedFormatMessage(message), ColorTokenizer.toMiniMessage(message),
+                    () -> "toMiniMessage(\"" + message + "\")");
+        }
+    }
+
+    private static void assertLegacy(String message) {
+        assertEquals(render(OldColorUtil.parseLegacy(message)), render(ColorTokenizer.parseLegacy(message)),
+                () -> "parseLegacy(\"" + message + "\")");
+    }
+
+    private static String randomLegacy(Random random) {
+        StringBuilder message = new StringBuilder();
+        int pieces = random.nextInt(10);
+        for (int i = 0; i < pieces; i++) {
+            switch (random.nextInt(6)) {
+                case 0 -> message.append('&').append(pick(random, CODES));
+                case 1 -> message.append('§').append(pick(random, SECTION_CODES));
+                case 2 -> {
+                    message.append("&#");
+                    for (int j = 0; j < 6; j++) {
+                        message.append(pick(random, HEX_DIGITS));
+                    }
+                }
+                case 3 -> {
+                    message.append("&x");
+                    for (int j = 0; j < 6; j++) {
+                        message.append('&').append(pick(random, HEX_DIGITS));
+                    }
+                }
+                default -> {
+                    int length = 1 + random.nextInt(4);
+                    for (int j = 0; j < length; j++) {
+                        message.append(pick(random, PLAIN));
+                    }
+                }
+            }
+        }
+        return message.toString();
+    }
+
+    private static String randomMixed(Random random) {
+        StringBuilder message = new StringBuilder();
+        int pieces = random.nextInt(10);
+        for (int i = 0; i < pieces; i++) {
+            message.append(MIXED_PIECES[random.nextInt(MIXED_PIECES.length)]);
+        }
+        return message.toString();
+    }
+
+    private static char pick(Random random, String characters) {
+        return characters.charAt(random.nextInt(characters.length()));
+    }
+}
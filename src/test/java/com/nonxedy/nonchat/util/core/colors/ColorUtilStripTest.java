@@ -0,0 +1,101 @@
+package com.nonxedy.nonchat.util.core.colors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the single-pass stripper against the regex chain it replaced.
+ * The old chain stripped hex, legacy, section and tag codes once each, in that order,
+ * so codes that only formed after a removal were left behind. The new stripper keeps
+ * going until nothing is left, which is the fixed point of the old chain.
+ */
+class ColorUtilStripTest {
+
+    private static final long SEED = 0xC0105L;
+    private static final int SAMPLES = 200_000;
+    // Code characters and a few letters, dense enough that codes overlap and nest
+    private static final String ALPHABET = "&&&§<<>>/#:_xcaAfF019klmnorzG ";
+
+    @Test
+    void stripMatchesFixedPointOfOldChain() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < SAMPLES; i++) {
+            String message = randomText(random);
+            assertEquals(oldStripFixedPoint(message), ColorUtil.stripAllColors(message),
+                    () -> "stripAllColors(\"" + message + "\")");
+        }
+    }
+
+    @Test
+    void hasColorCodesMatchesOldChain() {
+        Random random = new Random(SEED + 1);
+        for (int i = 0; i < SAMPLES; i++) {
+            String message = randomText(random);
+            assertEquals(OldColorUtil.hasColorCodes(message), ColorUtil.hasColorCodes(message),
+                    () -> "hasColorCodes(\"" + message + "\")");
+        }
+    }
+
+    @Test
+    void stripsCodesFormedByEarlierRemovals() {
+        // Codes hidden inside other codes, the old chain left part of them behind
+        assertDivergent("&&cc", "&c", "");
+        assertDivergent("&<b>c", "&c", "");
+        assertDivergent("<<b>b>", "<b>", "");
+        assertDivergent("&&#123456c", "", "");
+        // The old order happened to catch this one, both strip it completely
+        assertDivergent("<&ab>", "", "");
+    }
+
+    @Test
+    void stripsRegularCodes() {
+        assertEquals("Hello world", ColorUtil.stripAllColors("&aHello §lworld"));
+        assertEquals("red text", ColorUtil.stripAllColors("&#FF0000red <bold>text</bold>"));
+        assertEquals("hover", ColorUtil.stripAllColors("<gradient:#fff:#000>hover</gradient>"));
+        assertEquals("a < b > c & d", ColorUtil.stripAllColors("a < b > c & d"));
+        assertEquals("&g", ColorUtil.stripAllColors("&g"));
+        assertEquals("", ColorUtil.stripAllColors(null));
+        assertFalse(ColorUtil.hasColorCodes(null));
+    }
+
+    @Test
+    void returnsSameInstanceWhenNothingIsStripped() {
+        String plain = "just some chat";
+        assertSame(plain, ColorUtil.stripAllColors(plain));
+        String withoutCodes = "1 < 2 & 3 > 2";
+        assertSame(withoutCodes, ColorUtil.stripAllColors(withoutCodes));
+        assertFalse(ColorUtil.hasColorCodes(withoutCodes));
+        assertTrue(ColorUtil.hasColorCodes("&cred"));
+    }
+
+    private static void assertDivergent(String message, String oldResult, String newResult) {
+        assertEquals(oldResult, OldColorUtil.stripAllColors(message), () -> "old chain on \"" + message + "\"");
+        assertEquals(newResult, ColorUtil.stripAllColors(message), () -> "stripAllColors(\"" + message + "\")");
+        assertEquals(newResult, oldStripFixedPoint(message), () -> "fixed point on \"" + message + "\"");
+    }
+
+    private static String oldStripFixedPoint(String message) {
+        String current = message;
+        String next = OldColorUtil.stripAllColors(current);
+        while (!next.equals(current)) {
+            current = next;
+            next = OldColorUtil.stripAllColors(current);
+        }
+        return current;
+    }
+
+    private static String randomText(Random random) {
+        int length = random.nextInt(16);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,158 @@
+package com.nonxedy.nonchat.util.core.colors;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import net.md_5.bungee.api.ChatColor;
+
+/**
+ * Color handling as it was before the single-pass tokenizer and stripper,
+ * kept as the reference the tests and benchmarks compare against
+ */
+public final class OldColorUtil {
+
+    private static final Pattern HEX_PATTERN = Pattern.compile("&#([A-Fa-f0-9]{6})");
+    private static final Pattern LEGACY_COLOR_PATTERN = Pattern.compile("&[0-9a-fklmnor]");
+    private static final Pattern SECTION_COLOR_PATTERN = Pattern.compile("§[0-9a-fklmnor]");
+    private static final Pattern MINIMESSAGE_PATTERN = Pattern.compile("<[/#]?[a-zA-Z0-9_:#]+>");
+
+    private OldColorUtil() {
+    }
+
+    /**
+     * parseColor without its cache followed by the legacy serializer
+     * @param message Text with legacy color codes
+     * @return Parsed component
+     */
+    public static Component parseLegacy(String message) {
+        return LegacyComponentSerializer.legacySection().deserialize(translateColors(message));
+    }
+
+    private static String translateColors(String message) {
+        Matcher matcher = HEX_PATTERN.matcher(message);
+        StringBuilder buffer = new StringBuilder(message.length() + 32);
+
+        while (matcher.find()) {
+            String group = matcher.group(1);
+            matcher.appendReplacement(buffer, ChatColor.of("#" + group).toString());
+        }
+        matcher.appendTail(buffer);
+
+        return ChatColor.translateAlternateColorCodes('&', buffer.toString());
+    }
+
+    /**
+     * prepareMixedFormatMessage and safelyConvertLegacyColors
+     * @param message Text mixing legacy codes and MiniMessage tags
+     * @return Text using MiniMessage tags for colors
+     */
+    public static String prepareMixedFormatMessage(String message) {
+        if (message == null || message.isEmpty()) return "";
+
+        String result = message;
+
+        Matcher miniMessageHexMatcher = Pattern.compile("<#[0-9a-fA-F]{6}>").matcher(result);
+        boolean hasMiniMessageHex = miniMessageHexMatcher.find();
+
+        if (!hasMiniMessageHex) {
+            Matcher matcher = HEX_PATTERN.matcher(result);
+            StringBuffer buffer = new StringBuffer(result.length() + 4 * 8);
+
+            while (matcher.find()) {
+                String hexColor = matcher.group(1);
+                matcher.appendReplacement(buffer, "<#" + hexColor + ">");
+            }
+            matcher.appendTail(buffer);
+            result = buffer.toString();
+        }
+
+        StringBuilder converted = new StringBuilder();
+        int i = 0;
+        int len = result.length();
+        while (i < len) {
+            if (result.charAt(i) == '<') {
+                int endTag = result.indexOf('>', i);
+                if (endTag != -1) {
+                    converted.append(result, i, endTag + 1);
+                    i = endTag + 1;
+                    continue;
+                }
+            }
+
+            if (i < len - 1 && result.charAt(i) == '&') {
+                String miniMessageTag = miniMessageTag(result.charAt(i + 1));
+                if (miniMessageTag != null) {
+                    converted.append(miniMessageTag);
+                    i += 2;
+                    continue;
+                }
+            }
+
+            converted.append(result.charAt(i));
+            i++;
+        }
+        return converted.toString();
+    }
+
+    private static String miniMessageTag(char code) {
+        switch (code) {
+            case '0': return "<black>";
+            case '1': return "<dark_blue>";
+            case '2': return "<dark_green>";
+            case '3': return "<dark_aqua>";
+            case '4': return "<dark_red>";
+            case '5': return "<dark_purple>";
+            case '6': return "<gold>";
+            case '7': return "<gray>";
+            case '8': return "<dark_gray>";
+            case '9': return "<blue>";
+            case 'a': case 'A': return "<green>";
+            case 'b': case 'B': return "<aqua>";
+            case 'c': case 'C': return "<red>";
+            case 'd': case 'D': return "<light_purple>";
+            case 'e': case 'E': return "<yellow>";
+            case 'f': case 'F': return "<white>";
+            case 'k': case 'K': return "<obfuscated>";
+            case 'l': case 'L': return "<bold>";
+            case 'm': case 'M': return "<strikethrough>";
+            case 'n': case 'N': return "<underlined>";
+            case 'o': case 'O': return "<italic>";
+            case 'r': case 'R': return "<reset>";
+            default: return null;
+        }
+    }
+
+    /**
+     * stripAllColors, stripping hex, legacy, section and tag codes once each in that order
+     * @param message The message to strip
+     * @return Message without the codes found by the four patterns
+     */
+    public static String stripAllColors(String message) {
+        if (message == null) return "";
+
+        String result = message;
+
+        result = HEX_PATTERN.matcher(result).replaceAll("");
+        result = LEGACY_COLOR_PATTERN.matcher(result).replaceAll("");
+        result = SECTION_COLOR_PATTERN.matcher(result).replaceAll("");
+        result = MINIMESSAGE_PATTERN.matcher(result).replaceAll("");
+
+        return result;
+    }
+
+    /**
+     * hasColorCodes, one search per pattern
+     * @param message The message to check
+     * @return true if any of the four patterns matches
+     */
+    public static boolean hasColorCodes(String message) {
+        if (message == null) return false;
+
+        return HEX_PATTERN.matcher(message).find() ||
+               LEGACY_COLOR_PATTERN.matcher(message).find() ||
+               SECTION_COLOR_PATTERN.matcher(message).find() ||
+               MINIMESSAGE_PATTERN.matcher(message).find();
+    }
+}
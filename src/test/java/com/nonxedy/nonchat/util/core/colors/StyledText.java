@@ -0,0 +1,54 @@
+package com.nonxedy.nonchat.util.core.colors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
+
+/**
+ * Flattens components into one entry per character with the style it is shown in,
+ * so components built with a different tree shape still compare equal
+ */
+public final class StyledText {
+
+    private StyledText() {
+    }
+
+    /**
+     * Flattens a component
+     * @param component The component to flatten
+     * @return Each character followed by its color and active decorations
+     */
+    public static List<String> render(Component component) {
+        List<String> cells = new ArrayList<>();
+        render(component, Style.empty(), cells);
+        return cells;
+    }
+
+    private static void render(Component component, Style inherited, List<String> cells) {
+        Style style = inherited.merge(component.style());
+        if (component instanceof TextComponent text) {
+            String content = text.content();
+            for (int i = 0; i < content.length(); i++) {
+                cells.add(content.charAt(i) + describe(style));
+            }
+        }
+        for (Component child : component.children()) {
+            render(child, style, cells);
+        }
+    }
+
+    private static String describe(Style style) {
+        StringBuilder description = new StringBuilder(" ");
+        description.append(style.color() != null ? style.color().asHexString() : "none");
+        for (TextDecoration decoration : TextDecoration.values()) {
+            if (style.decoration(decoration) == TextDecoration.State.TRUE) {
+                description.append(' ').append(decoration);
+            }
+        }
+        return description.toString();
+    }
+}